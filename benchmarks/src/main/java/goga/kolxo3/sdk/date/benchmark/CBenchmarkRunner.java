@@ -0,0 +1,179 @@
+package goga.kolxo3.sdk.date.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Run benchmarks with GC profiler and write results as CSV, then compare them with a baseline.
+ * <p>
+ * Usage: {@code java [-Dbaseline=benchmarks/baseline.csv] [-Dtolerance=0.1] -jar benchmarks.jar [JMH options]}.
+ * Results go to jmh-result.csv (or the file of -rff option). With a baseline every time (ns/op) and
+ * allocation (B/op) worse than the baseline by more than tolerance is reported, and exit code is 1.
+ * To refresh the baseline, copy the result file over it.
+ *
+ * @author Igor Zamiatin
+ */
+public final class CBenchmarkRunner
+{
+	private static final String DEFAULT_RESULT = "jmh-result.csv";
+	private static final double DEFAULT_TOLERANCE = 0.1;
+	private static final String UNIT_TIME = "ns/op";
+	private static final String UNIT_ALLOCATION = "B/op";
+	// small allocations are noisy in relative terms, ignore differences up to this size
+	private static final double ALLOCATION_SLACK = 8;
+
+	private CBenchmarkRunner()
+	{
+	}
+
+	public static void main(final String[] args) throws Exception
+	{
+		final CommandLineOptions commandLine = new CommandLineOptions(args);
+		if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+				|| commandLine.shouldListResultFormats())
+		{
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+		final String result = commandLine.getResult().orElse(DEFAULT_RESULT);
+		final OptionsBuilder options = new OptionsBuilder();
+		options.parent(commandLine);
+		options.resultFormat(ResultFormatType.CSV).result(result);
+		if (commandLine.getProfilers().isEmpty())
+		{
+			options.addProfiler(GCProfiler.class);
+		}
+		new Runner(options.build()).run();
+
+		final String baseline = System.getProperty("baseline");
+		if (null != baseline)
+		{
+			final double tolerance = Double.parseDouble(System.getProperty("tolerance", String.valueOf(DEFAULT_TOLERANCE)));
+			final List<String> regressions = compare(read(Path.of(baseline)), read(Path.of(result)), tolerance);
+			regressions.forEach(System.out::println);
+			System.out.printf("%d regression(s) against %s, tolerance %.0f%%%n", regressions.size(), baseline, tolerance * 100);
+			if (!regressions.isEmpty())
+			{
+				System.exit(1);
+			}
+		}
+	}
+
+	/**
+	 * @return description of every score worse than baseline
+	 */
+	static List<String> compare(final Map<String, Score> baseline, final Map<String, Score> current, final double tolerance)
+	{
+		final List<String> regressions = new ArrayList<>();
+		for (final Map.Entry<String, Score> entry : current.entrySet())
+		{
+			final Score base = baseline.get(entry.getKey());
+			final Score score = entry.getValue();
+			if (null == base || !base.unit.equals(score.unit))
+			{
+				continue;
+			}
+			final boolean worse;
+			switch (score.unit)
+			{
+				case UNIT_TIME:
+					worse = score.value > base.value * (1 + tolerance);
+					break;
+				case UNIT_ALLOCATION:
+					worse = score.value > base.value * (1 + tolerance) + ALLOCATION_SLACK;
+					break;
+				default:
+					worse = false;
+					break;
+			}
+			if (worse)
+			{
+				regressions.add(String.format("REGRESSION %s: %.2f -> %.2f %s", entry.getKey(), base.value, score.value, score.unit));
+			}
+		}
+		return regressions;
+	}
+
+	/**
+	 * Read scores from JMH CSV result, the key is benchmark name with values of parameters
+	 */
+	static Map<String, Score> read(final Path path) throws IOException
+	{
+		final List<String> lines = Files.readAllLines(path);
+		final Map<String, Score> scores = new LinkedHashMap<>();
+		if (lines.isEmpty())
+		{
+			return scores;
+		}
+		final List<String> header = split(lines.get(0));
+		final int benchmark = header.indexOf("Benchmark");
+		final int score = header.indexOf("Score");
+		final int unit = header.indexOf("Unit");
+		for (final String line : lines.subList(1, lines.size()))
+		{
+			final List<String> values = split(line);
+			if (values.size() != header.size())
+			{
+				continue;
+			}
+			final StringBuilder key = new StringBuilder(values.get(benchmark));
+			for (int i = 0; i < header.size(); i++)
+			{
+				if (header.get(i).startsWith("Param: ") && !values.get(i).isEmpty())
+				{
+					key.append(' ').append(header.get(i).substring(7)).append('=').append(values.get(i));
+				}
+			}
+			scores.put(key.toString(), new Score(Double.parseDouble(values.get(score)), values.get(unit)));
+		}
+		return scores;
+	}
+
+	private static List<String> split(final String line)
+	{
+		final List<String> values = new ArrayList<>();
+		final StringBuilder value = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++)
+		{
+			final char c = line.charAt(i);
+			if (c == '"')
+			{
+				quoted = !quoted;
+			} else if (c == ',' && !quoted) {
+				values.add(value.toString());
+				value.setLength(0);
+			} else {
+				value.append(c);
+			}
+		}
+		values.add(value.toString());
+		return values;
+	}
+
+	/**
+	 * Score of one benchmark
+	 */
+	static final class Score
+	{
+		final double value;
+		final String unit;
+
+		Score(final double value, final String unit)
+		{
+			this.value = value;
+			this.unit = unit;
+		}
+	}
+}
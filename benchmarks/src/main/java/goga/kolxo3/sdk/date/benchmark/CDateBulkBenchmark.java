@@ -0,0 +1,82 @@
+package goga.kolxo3.sdk.date.benchmark;
+
+import goga.kolxo3.sdk.date.CDateLayoutParser;
+import goga.kolxo3.sdk.date.CDateParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk {@link CDateLayoutParser#parsePacked(byte[], int, int, int, int[], int)} against the scalar
+ * {@link CDateParser#parsePacked(byte[], int, int)} over newline-separated records, time per date
+ *
+ * @author Igor Zamiatin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CDateBulkBenchmark
+{
+	private static final int COUNT = 1024;
+
+	@Param({"yyyy-MM-dd", "MM/dd/yyyy"})
+	public String layout;
+
+	private CDateParser parser;
+	private CDateLayoutParser strict;
+	private byte[] records;
+	private int stride;
+	private final int[] packed = new int[COUNT];
+
+	@Setup
+	public void setUp()
+	{
+		parser = new CDateParser();
+		strict = parser.withLayout(layout);
+		stride = layout.length() + 1;
+		records = new byte[COUNT * stride];
+		final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(layout);
+		for (int i = 0; i < COUNT; i++)
+		{
+			final byte[] date = LocalDate.of(1900, 1, 1).plusDays(i * 37L).format(formatter).getBytes(StandardCharsets.US_ASCII);
+			System.arraycopy(date, 0, records, i * stride, date.length);
+			records[i * stride + date.length] = '\n';
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public int[] bulk()
+	{
+		strict.parsePacked(records, 0, stride, COUNT, packed, 0);
+		return packed;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public int[] scalar()
+	{
+		for (int i = 0; i < COUNT; i++)
+		{
+			packed[i] = parser.parsePacked(records, i * stride, stride);
+		}
+		return packed;
+	}
+}
@@ -0,0 +1,39 @@
+package goga.kolxo3.sdk.date.benchmark;
+
+import goga.kolxo3.sdk.date.CDateParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The first date of a fresh JVM: loading and initializing the parser classes, what a short-lived CLI job or
+ * serverless function pays once. Every fork measures one call.
+ * Classes loaded for it: {@code java -jar benchmarks.jar CDateColdStart -prof cl}
+ *
+ * @author Igor Zamiatin
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class CDateColdStartBenchmark
+{
+	@Benchmark
+	public String firstDate()
+	{
+		return new CDateParser().getDate("19/1/2016", "MM/dd/yyyy");
+	}
+
+	@Benchmark
+	public long firstEpochDay()
+	{
+		return new CDateParser().parseToEpochDay("1974-04-06");
+	}
+}
@@ -0,0 +1,70 @@
+package goga.kolxo3.sdk.date.benchmark;
+
+import goga.kolxo3.sdk.date.CDateParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CDateParser#formatLocalDate(LocalDate, String)} and the static predicates of CDateParser
+ *
+ * @author Igor Zamiatin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CDateComponentsBenchmark
+{
+	// not final, so JIT cannot fold them
+	private LocalDate date = LocalDate.of(1974, 4, 6);
+	private String day = "26";
+	private String year = "67";
+	private String month = "Apr";
+
+	/**
+	 * Output pattern, the fast numeric one and the one formatted by DateTimeFormatter
+	 */
+	@State(Scope.Benchmark)
+	public static class Pattern
+	{
+		@Param({"MM/dd/yyyy", "dd MMM yyyy"})
+		public String value;
+	}
+
+	@Benchmark
+	public String formatLocalDate(final Pattern pattern)
+	{
+		return CDateParser.formatLocalDate(date, pattern.value);
+	}
+
+	@Benchmark
+	public boolean isNumericDay()
+	{
+		return CDateParser.isNumericDay(day);
+	}
+
+	@Benchmark
+	public boolean isShortYear()
+	{
+		return CDateParser.isShortYear(year);
+	}
+
+	@Benchmark
+	public int getAlphabeticMonth()
+	{
+		return CDateParser.getAlphabeticMonth(month);
+	}
+}
@@ -0,0 +1,76 @@
+package goga.kolxo3.sdk.date.benchmark;
+
+import goga.kolxo3.sdk.date.CDateExtractor;
+import goga.kolxo3.sdk.date.CDateParser;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CDateExtractor} over free text with a few dates per line, time per text of {@value #TEXT_SIZE} chars.
+ * Secondary result {@code extract:bytes} is time per byte of the text (ASCII, so chars are bytes):
+ * 1000 / it is throughput in MB/s.
+ *
+ * @author Igor Zamiatin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CDateExtractorBenchmark
+{
+	private static final int TEXT_SIZE = 64 * 1024;
+	private static final String BLOCK = "Catalog record 1187, printed 5 April 1974 in Kyiv; 2nd edition 1974-06-02, 312 pages. "
+			+ "Reprinted Dec 2020 by the publisher, ISBN 978-5-699-12014-7, signed 19/1/2016.\n";
+
+	private CDateExtractor extractor;
+	private String text;
+
+	/**
+	 * Bytes of text processed by an iteration
+	 */
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	@State(Scope.Thread)
+	public static class Counters
+	{
+		public long bytes;
+
+		@Setup(Level.Iteration)
+		public void reset()
+		{
+			bytes = 0;
+		}
+	}
+
+	@Setup
+	public void setUp()
+	{
+		extractor = new CDateExtractor(new CDateParser(), "yyyy-MM-dd");
+		final StringBuilder text = new StringBuilder(TEXT_SIZE + BLOCK.length());
+		while (text.length() < TEXT_SIZE)
+		{
+			text.append(BLOCK);
+		}
+		this.text = text.substring(0, TEXT_SIZE);
+	}
+
+	@Benchmark
+	public long extract(final Counters counters)
+	{
+		counters.bytes += text.length();
+		return extractor.extract(text, (start, end, value, result) -> {});
+	}
+}
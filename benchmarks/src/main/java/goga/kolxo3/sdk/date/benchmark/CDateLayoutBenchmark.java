@@ -0,0 +1,97 @@
+package goga.kolxo3.sdk.date.benchmark;
+
+import goga.kolxo3.sdk.date.CDateLayoutParser;
+import goga.kolxo3.sdk.date.CDateParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Strict {@link CDateParser#forLayout(String)} parser against the heuristic path on inputs of its layout
+ *
+ * @author Igor Zamiatin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CDateLayoutBenchmark
+{
+	private static final String FORMAT = "MM/dd/yyyy";
+
+	/**
+	 * Layout and input dates of it
+	 */
+	public enum Layout
+	{
+		ISO("yyyy-MM-dd", "1974-04-06", "2020-02-29", "1989-12-31", "2016-01-19"),
+		US_SLASH("MM/dd/yyyy", "02/02/2020", "04/06/1974", "01/19/2016", "10/01/2016");
+
+		private final String layout;
+		private final String[] inputs;
+
+		Layout(final String layout, final String... inputs)
+		{
+			this.layout = layout;
+			this.inputs = inputs;
+		}
+	}
+
+	@Param
+	public Layout layout;
+
+	private CDateParser parser;
+	private CDateLayoutParser strict;
+	private String[] inputs;
+	private int index;
+
+	@Setup
+	public void setUp()
+	{
+		parser = new CDateParser();
+		strict = CDateParser.forLayout(layout.layout);
+		inputs = layout.inputs;
+	}
+
+	private String next()
+	{
+		index = index + 1 == inputs.length ? 0 : index + 1;
+		return inputs[index];
+	}
+
+	@Benchmark
+	public String getDate()
+	{
+		return parser.getDate(next(), FORMAT);
+	}
+
+	@Benchmark
+	public String getDateForLayout()
+	{
+		return strict.getDate(next(), FORMAT);
+	}
+
+	@Benchmark
+	public long parseToEpochDay()
+	{
+		return parser.parseToEpochDay(next());
+	}
+
+	@Benchmark
+	public long parseToEpochDayForLayout()
+	{
+		return strict.parseToEpochDay(next());
+	}
+}
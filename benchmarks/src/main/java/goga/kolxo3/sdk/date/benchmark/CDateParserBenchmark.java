@@ -0,0 +1,107 @@
+package goga.kolxo3.sdk.date.benchmark;
+
+import goga.kolxo3.sdk.date.CDateParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CDateParser#getDate(String, String)} over every input shape covered by CDateParserTest,
+ * in one thread and in all available threads sharing one parser, and the same conversion appended
+ * to a reused StringBuilder w/o intermediate Strings.
+ *
+ * @author Igor Zamiatin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CDateParserBenchmark
+{
+	private static final String FORMAT = "MM/dd/yyyy";
+
+	/**
+	 * Input dates of one shape
+	 */
+	public enum Shape
+	{
+		ISO("1974-04-06", "2020-02-29", "1989-12-31", "2016-1-19"),
+		US_SLASH("2/2/2020", "02/02/2020", "19/1/2016", "10/1/2016"),
+		EU_DOTTED("06.04.1974", "29.02.2020", "31.12.1989", "19.1.2016"),
+		MONTH_NAME("1974-Apr-05", "Jan/2/2020", "5 April 1974", "Dec 2020"),
+		SHORT_YEAR("20-02-02", "98-02-02", "19-04-03", "04/06/67"),
+		YEAR_ONLY("1989", "1974", "2020", "1900"),
+		REJECTED("blabla 1987", "", "1974-05-Apr", "32/32");
+
+		private final String[] inputs;
+
+		Shape(final String... inputs)
+		{
+			this.inputs = inputs;
+		}
+	}
+
+	@Param
+	public Shape shape;
+
+	private CDateParser parser;
+	private String[] inputs;
+
+	@Setup
+	public void setUp()
+	{
+		parser = new CDateParser();
+		inputs = shape.inputs;
+	}
+
+	/**
+	 * Position in inputs, per thread
+	 */
+	@State(Scope.Thread)
+	public static class Cursor
+	{
+		private final StringBuilder builder = new StringBuilder(32);
+		private int index;
+
+		int next(final int length)
+		{
+			index = index + 1 == length ? 0 : index + 1;
+			return index;
+		}
+	}
+
+	@Benchmark
+	@Threads(1)
+	public String getDate(final Cursor cursor)
+	{
+		return parser.getDate(inputs[cursor.next(inputs.length)], FORMAT);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public String getDateMultiThreaded(final Cursor cursor)
+	{
+		return parser.getDate(inputs[cursor.next(inputs.length)], FORMAT);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public int getDateToBuilder(final Cursor cursor)
+	{
+		cursor.builder.setLength(0);
+		return parser.getDate(inputs[cursor.next(inputs.length)], FORMAT, cursor.builder);
+	}
+}
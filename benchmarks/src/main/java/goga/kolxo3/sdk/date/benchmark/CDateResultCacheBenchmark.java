@@ -0,0 +1,92 @@
+package goga.kolxo3.sdk.date.benchmark;
+
+import goga.kolxo3.sdk.date.CDateParser;
+import goga.kolxo3.sdk.date.CDateResultCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * getDate with {@link CDateResultCache} against plain parse for growing number of distinct inputs,
+ * the break-even cardinality is where the cached path stops being faster.
+ * Cache has {@link CDateResultCache#DEFAULT_CAPACITY} entries.
+ *
+ * @author Igor Zamiatin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class CDateResultCacheBenchmark
+{
+	private static final String FORMAT = "MM/dd/yyyy";
+
+	@Param({"16", "1024", "65536", "1048576"})
+	public int cardinality;
+
+	private CDateParser parser;
+	private CDateParser cached;
+	private String[] inputs;
+	private final AtomicInteger threads = new AtomicInteger();
+
+	@Setup
+	public void setUp()
+	{
+		parser = new CDateParser();
+		cached = new CDateParser(new CDateResultCache());
+		inputs = new String[cardinality];
+		for (int i = 0; i < cardinality; i++)
+		{
+			inputs[i] = String.format("%d/%d/%d", 1 + i % 12, 1 + i / 12 % 28, 1900 + i / 336 % 200)
+					+ (i / 67200 > 0 ? " " + i / 67200 : "");
+		}
+	}
+
+	/**
+	 * Position in inputs, per thread: a step coprime with most cardinalities visits all inputs out of order
+	 */
+	@State(Scope.Thread)
+	public static class Cursor
+	{
+		private int index;
+
+		@Setup
+		public void setUp(final CDateResultCacheBenchmark benchmark)
+		{
+			index = benchmark.threads.getAndIncrement() * 7919 % benchmark.cardinality;
+		}
+
+		int next(final int length)
+		{
+			index = (index + 40503) % length;
+			return index;
+		}
+	}
+
+	@Benchmark
+	public String parse(final Cursor cursor)
+	{
+		return parser.getDate(inputs[cursor.next(inputs.length)], FORMAT);
+	}
+
+	@Benchmark
+	public String cached(final Cursor cursor)
+	{
+		return cached.getDate(inputs[cursor.next(inputs.length)], FORMAT);
+	}
+}
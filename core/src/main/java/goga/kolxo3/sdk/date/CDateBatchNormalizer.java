@@ -0,0 +1,531 @@
+package goga.kolxo3.sdk.date;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Incremental normalization of a directory of export files into another directory, see {@link CDateFileNormalizer}.
+ * <p>
+ * Every file has a checkpoint: its size and modification time seen by the last run, input position after the last
+ * normalized row, output position of the same row and CRC32 of up to {@value #FINGERPRINT_SIZE} input bytes at the
+ * start of the file and as many bytes before that position. A run skips files with the same size and modification
+ * time, and for a file which grew with the same fingerprint it truncates output to the checkpoint and normalizes only
+ * the appended tail. Other files (new, shrunk, rewritten at the start or at the checkpoint, or w/o output) are
+ * normalized from the start. So a run costs time of changed data.
+ * <p>
+ * Files are expected to be append-only: bytes between the fingerprinted ranges are not read again, so a file edited
+ * only there keeps the old output of the edited rows. To normalize such a file again touch it and remove its output,
+ * or delete the journal to normalize all files.
+ * <p>
+ * Checkpoints are appended to journal {@value #CHECKPOINT_FILE} of the output directory after every mapped window
+ * and every finished file, always after output is forced to disk. A run killed at any moment resumes from the last
+ * journaled rows: output beyond them is truncated, finished files and windows are not normalized again.
+ * Torn lines of journal are recognized by their checksum and ignored. Every run compacts the journal at the end.
+ * <p>
+ * Files are spread across a work-stealing pool, the largest changes first. A failed file keeps its checkpoint,
+ * other files are finished and the run throws the failure at the end.
+ *
+ * @author Igor Zamiatin
+ */
+public final class CDateBatchNormalizer
+{
+	public static final String CHECKPOINT_FILE = ".date-checkpoints";
+	public static final int FINGERPRINT_SIZE = 4096;
+
+	private final CDateFileNormalizer normalizer;
+	private final int parallelism;
+
+	/**
+	 * Normalizer with one thread per processor
+	 */
+	public CDateBatchNormalizer(final CDateFileNormalizer normalizer)
+	{
+		this(normalizer, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param normalizer - normalizer of one file, with date column, separator and output format
+	 * @param parallelism - number of files normalized at once
+	 */
+	public CDateBatchNormalizer(final CDateFileNormalizer normalizer, final int parallelism)
+	{
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+		}
+		this.normalizer = Objects.requireNonNull(normalizer, "normalizer");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Normalize new and changed files of input directory and its subdirectories into the same paths of output directory
+	 *
+	 * @throws IOException if directories cannot be read, or the first failure of a file
+	 */
+	public Statistics normalize(final Path inputDirectory, final Path outputDirectory) throws IOException
+	{
+		final Path input = inputDirectory.toAbsolutePath().normalize();
+		final Path output = outputDirectory.toAbsolutePath().normalize();
+		if (output.startsWith(input) || input.startsWith(output))
+		{
+			throw new IllegalArgumentException("Input and output directories must not contain each other: "
+					+ input + ", " + output);
+		}
+		final long started = System.nanoTime();
+		Files.createDirectories(output);
+		final Path journal = output.resolve(CHECKPOINT_FILE);
+		final Map<String, Checkpoint> previous = load(journal);
+		compact(journal, previous.values()); // w/o torn line of a killed run, new lines must not stick to it
+		final List<Path> files;
+		try (Stream<Path> walk = Files.walk(input))
+		{
+			files = walk.filter(Files::isRegularFile).toList();
+		}
+
+		final Run run = new Run(journal, previous);
+		final List<FileTask> tasks = new ArrayList<>(files.size());
+		for (final Path file : files)
+		{
+			final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			final String key = input.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+			final Checkpoint checkpoint = previous.get(key);
+			tasks.add(new FileTask(run, file, output.resolve(key), key, attributes.size(),
+					attributes.lastModifiedTime().toMillis(), checkpoint));
+		}
+		// the largest changes first, so small ones fill the gaps at the end
+		tasks.sort(Comparator.comparingLong(FileTask::pending).reversed());
+
+		IOException failure = null;
+		final ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try
+		{
+			for (final Future<Void> future : pool.invokeAll(tasks))
+			{
+				try
+				{
+					future.get();
+				}
+				catch (ExecutionException e)
+				{
+					final IOException cause = e.getCause() instanceof IOException ?
+							(IOException) e.getCause() : new IOException(e.getCause());
+					if (null == failure)
+					{
+						failure = cause;
+					}
+					else
+					{
+						failure.addSuppressed(cause);
+					}
+				}
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted", e);
+		}
+		finally
+		{
+			pool.shutdownNow();
+			run.close();
+		}
+		final List<Checkpoint> checkpoints = new ArrayList<>(tasks.size());
+		for (final FileTask task : tasks)
+		{
+			if (run.checkpoints.containsKey(task.key))
+			{
+				checkpoints.add(run.checkpoints.get(task.key));
+			}
+		}
+		compact(journal, checkpoints); // checkpoints of deleted files are dropped
+		if (null != failure)
+		{
+			throw failure;
+		}
+		return new Statistics(files.size(), run.skipped.get(), run.appended.get(), run.rewritten.get(), run.bytes.get(),
+				run.rows.get(), run.converted.get(), System.nanoTime() - started);
+	}
+
+	/**
+	 * Read checkpoints of the journal, the last line of a file wins
+	 */
+	static Map<String, Checkpoint> load(final Path journal) throws IOException
+	{
+		final Map<String, Checkpoint> checkpoints = new ConcurrentHashMap<>();
+		try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8))
+		{
+			String line;
+			while ((line = reader.readLine()) != null)
+			{
+				final Checkpoint checkpoint = Checkpoint.parse(line);
+				if (null != checkpoint)
+				{
+					checkpoints.put(checkpoint.key, checkpoint);
+				}
+			}
+		}
+		catch (NoSuchFileException e)
+		{
+			// the first run
+		}
+		return checkpoints;
+	}
+
+	/**
+	 * Replace journal by the given checkpoints, atomically
+	 */
+	private static void compact(final Path journal, final Collection<Checkpoint> checkpoints) throws IOException
+	{
+		final StringBuilder text = new StringBuilder(checkpoints.size() * 64);
+		for (final Checkpoint checkpoint : checkpoints)
+		{
+			text.append(checkpoint.toLine()).append('\n');
+		}
+		final Path temporary = journal.resolveSibling(CHECKPOINT_FILE + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			final ByteBuffer bytes = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+			while (bytes.hasRemaining())
+			{
+				channel.write(bytes);
+			}
+			channel.force(true);
+		}
+		Files.move(temporary, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * CRC32 of up to {@value #FINGERPRINT_SIZE} bytes at the start of file and as many bytes before position,
+	 * the ranges do not overlap
+	 */
+	static long fingerprint(final FileChannel in, final long position) throws IOException
+	{
+		final CRC32 crc = new CRC32();
+		final ByteBuffer bytes = ByteBuffer.allocate(FINGERPRINT_SIZE);
+		final long head = Math.min(FINGERPRINT_SIZE, position);
+		final long tail = Math.max(head, position - FINGERPRINT_SIZE);
+		if (!update(crc, in, 0, head, bytes) || !update(crc, in, tail, position, bytes))
+		{
+			return -1; // file is shorter than position
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * Add bytes from..to of the file to CRC, the buffer is as large as the range or larger
+	 * @return false if the file is shorter
+	 */
+	private static boolean update(final CRC32 crc, final FileChannel in, final long from, final long to,
+			final ByteBuffer bytes) throws IOException
+	{
+		bytes.clear().limit((int) (to - from));
+		while (bytes.hasRemaining())
+		{
+			if (in.read(bytes, from + bytes.position()) < 0)
+			{
+				return false;
+			}
+		}
+		crc.update(bytes.flip());
+		return true;
+	}
+
+	/**
+	 * State of one run, shared by its files
+	 */
+	private static final class Run
+	{
+		private final Map<String, Checkpoint> checkpoints = new ConcurrentHashMap<>();
+		private final FileChannel journal;
+		private final AtomicLong skipped = new AtomicLong();
+		private final AtomicLong appended = new AtomicLong();
+		private final AtomicLong rewritten = new AtomicLong();
+		private final AtomicLong bytes = new AtomicLong();
+		private final AtomicLong rows = new AtomicLong();
+		private final AtomicLong converted = new AtomicLong();
+
+		Run(final Path journal, final Map<String, Checkpoint> previous) throws IOException
+		{
+			this.journal = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.APPEND);
+			this.checkpoints.putAll(previous);
+		}
+
+		void save(final Checkpoint checkpoint) throws IOException
+		{
+			final ByteBuffer line = ByteBuffer.wrap((checkpoint.toLine() + '\n').getBytes(StandardCharsets.UTF_8));
+			synchronized (journal)
+			{
+				while (line.hasRemaining())
+				{
+					journal.write(line);
+				}
+				journal.force(false);
+			}
+			checkpoints.put(checkpoint.key, checkpoint);
+		}
+
+		void close() throws IOException
+		{
+			journal.close();
+		}
+	}
+
+	/**
+	 * Normalization of one file
+	 */
+	private final class FileTask implements Callable<Void>
+	{
+		private final Run run;
+		private final Path input;
+		private final Path output;
+		private final String key;
+		private final long size;
+		private final long modified;
+		private final Checkpoint checkpoint;
+
+		FileTask(final Run run, final Path input, final Path output, final String key, final long size,
+				final long modified, final Checkpoint checkpoint)
+		{
+			this.run = run;
+			this.input = input;
+			this.output = output;
+			this.key = key;
+			this.size = size;
+			this.modified = modified;
+			this.checkpoint = checkpoint;
+		}
+
+		/**
+		 * Estimate of bytes to normalize
+		 */
+		long pending()
+		{
+			return null != checkpoint && checkpoint.rowsEnd <= size ? size - checkpoint.rowsEnd : size;
+		}
+
+		@Override
+		public Void call() throws IOException
+		{
+			final long outputSize = Files.exists(output) ? Files.size(output) : -1;
+			if (null != checkpoint && checkpoint.complete && checkpoint.size == size && checkpoint.modified == modified
+					&& outputSize >= checkpoint.outputRowsEnd)
+			{
+				run.skipped.incrementAndGet();
+				return null;
+			}
+			try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ))
+			{
+				long from = 0;
+				long outputFrom = 0;
+				// the same size and start of the file and the same bytes before the checkpoint, not the same rows:
+				// an edit between them is not seen, see the class javadoc
+				if (null != checkpoint && checkpoint.rowsEnd <= size && outputSize >= checkpoint.outputRowsEnd
+						&& fingerprint(in, checkpoint.rowsEnd) == checkpoint.fingerprint)
+				{
+					from = checkpoint.rowsEnd;
+					outputFrom = checkpoint.outputRowsEnd;
+				}
+				Files.createDirectories(output.getParent());
+				try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE))
+				{
+					out.truncate(outputFrom);
+					out.position(outputFrom);
+					final CDateFileNormalizer.Statistics statistics = normalizer.normalize(in, from, size, out, from == 0,
+							(inputEnd, outputEnd) ->
+							{
+								out.force(false);
+								run.save(new Checkpoint(key, size, modified, inputEnd, outputEnd,
+										fingerprint(in, inputEnd), false));
+							});
+					out.force(false);
+					run.save(new Checkpoint(key, size, modified, statistics.getRowsEnd(), statistics.getOutputRowsEnd(),
+							fingerprint(in, statistics.getRowsEnd()), true));
+					run.bytes.addAndGet(statistics.getBytes());
+					run.rows.addAndGet(statistics.getRows());
+					run.converted.addAndGet(statistics.getConverted());
+				}
+				(from > 0 ? run.appended : run.rewritten).incrementAndGet();
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Progress of a file: rows before rowsEnd are normalized into output before outputRowsEnd
+	 */
+	static final class Checkpoint
+	{
+		private static final int FIELDS = 8;
+
+		final String key;
+		final long size;
+		final long modified;
+		final long rowsEnd;
+		final long outputRowsEnd;
+		final long fingerprint;
+		/** the whole file of this size is normalized, the last row w/o line break too */
+		final boolean complete;
+
+		Checkpoint(final String key, final long size, final long modified, final long rowsEnd, final long outputRowsEnd,
+				final long fingerprint, final boolean complete)
+		{
+			this.key = key;
+			this.size = size;
+			this.modified = modified;
+			this.rowsEnd = rowsEnd;
+			this.outputRowsEnd = outputRowsEnd;
+			this.fingerprint = fingerprint;
+			this.complete = complete;
+		}
+
+		/**
+		 * Tab-separated fields, the first one is CRC32 of the rest of line, the path is the last one
+		 */
+		String toLine()
+		{
+			final String fields = size + "\t" + modified + "\t" + rowsEnd + "\t" + outputRowsEnd + "\t" + fingerprint
+					+ "\t" + (complete ? 1 : 0) + "\t" + key;
+			return checksum(fields) + "\t" + fields;
+		}
+
+		/**
+		 * @return checkpoint, or null if line is torn or broken
+		 */
+		static Checkpoint parse(final String line)
+		{
+			final String[] fields = line.split("\t", FIELDS);
+			if (fields.length != FIELDS)
+			{
+				return null;
+			}
+			try
+			{
+				if (Long.parseLong(fields[0]) != checksum(line.substring(fields[0].length() + 1)))
+				{
+					return null;
+				}
+				return new Checkpoint(fields[7], Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+						Long.parseLong(fields[3]), Long.parseLong(fields[4]), Long.parseLong(fields[5]),
+						"1".equals(fields[6]));
+			}
+			catch (NumberFormatException e)
+			{
+				return null;
+			}
+		}
+
+		private static long checksum(final String fields)
+		{
+			final CRC32 crc = new CRC32();
+			crc.update(fields.getBytes(StandardCharsets.UTF_8));
+			return crc.getValue();
+		}
+	}
+
+	/**
+	 * Result of a run
+	 */
+	public static final class Statistics
+	{
+		private final long files;
+		private final long skipped;
+		private final long appended;
+		private final long rewritten;
+		private final long bytes;
+		private final long rows;
+		private final long converted;
+		private final long nanos;
+
+		Statistics(final long files, final long skipped, final long appended, final long rewritten, final long bytes,
+				final long rows, final long converted, final long nanos)
+		{
+			this.files = files;
+			this.skipped = skipped;
+			this.appended = appended;
+			this.rewritten = rewritten;
+			this.bytes = bytes;
+			this.rows = rows;
+			this.converted = converted;
+			this.nanos = nanos;
+		}
+
+		/** number of input files */
+		public long getFiles()
+		{
+			return files;
+		}
+
+		/** number of files w/o changes since the last run */
+		public long getSkipped()
+		{
+			return skipped;
+		}
+
+		/** number of files normalized from their checkpoint: appended tails and resumed files */
+		public long getAppended()
+		{
+			return appended;
+		}
+
+		/** number of files normalized from the start */
+		public long getRewritten()
+		{
+			return rewritten;
+		}
+
+		/** bytes of input normalized by this run */
+		public long getBytes()
+		{
+			return bytes;
+		}
+
+		/** rows normalized by this run, with headers */
+		public long getRows()
+		{
+			return rows;
+		}
+
+		public long getConverted()
+		{
+			return converted;
+		}
+
+		public long getNanos()
+		{
+			return nanos;
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("%d files (%d skipped, %d appended, %d rewritten), %d rows (%d dates converted), "
+					+ "%d bytes in %.3f s", files, skipped, appended, rewritten, rows, converted, bytes, nanos / 1e9);
+		}
+	}
+}
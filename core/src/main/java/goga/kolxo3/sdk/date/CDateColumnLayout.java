@@ -0,0 +1,277 @@
+package goga.kolxo3.sdk.date;
+
+import java.util.Objects;
+
+/**
+ * Layout of a column of dates, inferred once from a sample of its first values.
+ * <p>
+ * A single value like "10/1/2016" does not tell whether day or month is first, so {@link CDateParser}
+ * takes the order from the delimiter. A column is consistent, and values with day 13-31 settle the order
+ * for all of them: the sample votes for MDY or DMY of its dominant delimiter, and the share of the winning
+ * votes is the confidence. Two-digit years of the sample choose the century rule: when they would be split
+ * by the pivot year of the parser ("98", "99", "00" with pivot 2099), the pivot is moved into the largest gap
+ * between them.
+ * <p>
+ * The rest of the column is converted by {@link #getParser()}: it has the decided settings and its own table
+ * of shape plans, so heuristics run once per shape and every row of a known shape only applies the plan.
+ * Rows of other shapes (month names, another delimiter) fall back to the general decision tree.
+ *
+ * @author Igor Zamiatin
+ */
+public final class CDateColumnLayout
+{
+	public static final int DEFAULT_SAMPLE_SIZE = 1000;
+	/** field order is changed only when at least this share of decisive values agree */
+	public static final double DEFAULT_MIN_CONFIDENCE = 0.8;
+
+	private static final int YEARS_IN_CENTURY = 100;
+
+	private final CDateParser parser;
+	private final char delimiter;
+	private final CDateParser.FieldOrder fieldOrder;
+	private final double confidence;
+	private final int sampled;
+	private final int decisive;
+
+	private CDateColumnLayout(final CDateParser parser, final char delimiter, final CDateParser.FieldOrder fieldOrder,
+			final double confidence, final int sampled, final int decisive)
+	{
+		this.parser = parser;
+		this.delimiter = delimiter;
+		this.fieldOrder = fieldOrder;
+		this.confidence = confidence;
+		this.sampled = sampled;
+		this.decisive = decisive;
+	}
+
+	/**
+	 * Infer layout from up to {@value #DEFAULT_SAMPLE_SIZE} first values of the column
+	 */
+	public static CDateColumnLayout infer(final CDateParser parser, final String[] inputs)
+	{
+		return infer(parser, inputs, 0, inputs.length, DEFAULT_SAMPLE_SIZE, DEFAULT_MIN_CONFIDENCE);
+	}
+
+	/**
+	 * @param parser - settings of the column, field order and pivot year are overridden if the sample tells them
+	 * @param inputs - column of input dates
+	 * @param offset - first value of the column
+	 * @param length - number of values in the column
+	 * @param sampleSize - number of first non-null values to sample
+	 * @param minConfidence - share of decisive values (0..1) which must agree to change field order
+	 */
+	public static CDateColumnLayout infer(final CDateParser parser, final String[] inputs, final int offset,
+			final int length, final int sampleSize, final double minConfidence)
+	{
+		Objects.requireNonNull(parser, "parser");
+		Objects.checkFromIndexSize(offset, length, inputs.length);
+		if (sampleSize < 1)
+		{
+			throw new IllegalArgumentException("Sample size must be positive: " + sampleSize);
+		}
+		if (!(minConfidence >= 0 && minConfidence <= 1))
+		{
+			throw new IllegalArgumentException("Min confidence must be in 0..1: " + minConfidence);
+		}
+		final int delimiters = CDateParser.DELIMITERS.length;
+		final int[] fullDates = new int[delimiters];
+		final int[] mdyVotes = new int[delimiters];
+		final int[] dmyVotes = new int[delimiters];
+		final boolean[] shortYears = new boolean[YEARS_IN_CENTURY];
+		final CDateScanner scanner = new CDateScanner();
+		int sampled = 0;
+		for (int i = offset; i < offset + length && sampled < sampleSize; i++)
+		{
+			final String input = inputs[i];
+			if (null == input)
+			{
+				continue;
+			}
+			sampled++;
+			final int resolved = parser.resolve(scanner, input);
+			if (resolved != CDateParser.RESOLVED_FULL && resolved != CDateParser.RESOLVED_MONTH_YEAR)
+			{
+				continue;
+			}
+			final int yearIndex = scanner.yearIndex();
+			if (scanner.is(yearIndex, CDateScanner.FLAG_SHORT_YEAR))
+			{
+				shortYears[scanner.value(yearIndex)] = true;
+			}
+			final int index = CDateParser.delimiterIndex(scanner.delimiter());
+			if (resolved != CDateParser.RESOLVED_FULL || index < 0)
+			{
+				continue;
+			}
+			fullDates[index]++;
+			// only numeric day and month before the year follow field order, and only values > 12 tell it
+			if (yearIndex == 2 && scanner.heuristic() == CDateParser.HEURISTIC_DAY_VALUE)
+			{
+				if (scanner.dayIndex() == 0)
+				{
+					dmyVotes[index]++;
+				} else {
+					mdyVotes[index]++;
+				}
+			}
+		}
+
+		int dominant = -1;
+		for (int i = 0; i < delimiters; i++)
+		{
+			if (fullDates[i] > 0 && (dominant < 0 || fullDates[i] > fullDates[dominant]))
+			{
+				dominant = i;
+			}
+		}
+		final CDateParser.Builder builder = parser.toBuilder();
+		boolean changed = false;
+		char delimiter = 0;
+		CDateParser.FieldOrder order = null;
+		int decisive = 0;
+		double confidence = 0;
+		if (dominant >= 0)
+		{
+			delimiter = CDateParser.DELIMITERS[dominant];
+			order = parser.getFieldOrder(delimiter);
+			decisive = mdyVotes[dominant] + dmyVotes[dominant];
+			if (decisive > 0)
+			{
+				final CDateParser.FieldOrder voted = mdyVotes[dominant] >= dmyVotes[dominant] ?
+						CDateParser.FieldOrder.MDY : CDateParser.FieldOrder.DMY;
+				confidence = (double) Math.max(mdyVotes[dominant], dmyVotes[dominant]) / decisive;
+				if (voted != order && confidence >= minConfidence)
+				{
+					order = voted;
+					builder.fieldOrder(delimiter, order);
+					changed = true;
+				}
+			}
+		}
+		final int pivotYear = inferPivotYear(shortYears, parser.getPivotYear());
+		if (pivotYear != parser.getPivotYear())
+		{
+			builder.pivotYear(pivotYear);
+			changed = true;
+		}
+		// cached results of the original parser may differ, don't share its cache
+		final CDateParser columnParser = changed ? builder.resultCache(null).build() : parser;
+		return new CDateColumnLayout(columnParser, delimiter, order, confidence, sampled, decisive);
+	}
+
+	/**
+	 * Keep pivot year when it does not split two-digit years of the sample, otherwise put it into
+	 * the middle of the largest gap between them, in the century closest to the current pivot
+	 */
+	static int inferPivotYear(final boolean[] shortYears, final int pivotYear)
+	{
+		int gapStart = -1; // the first missing year of the largest gap
+		int gapLength = 0;
+		for (int year = 0; year < YEARS_IN_CENTURY; year++)
+		{
+			if (shortYears[year] && !shortYears[(year + 1) % YEARS_IN_CENTURY])
+			{
+				int length = 1;
+				while (!shortYears[(year + 1 + length) % YEARS_IN_CENTURY])
+				{
+					length++;
+				}
+				if (length > gapLength)
+				{
+					gapStart = (year + 1) % YEARS_IN_CENTURY;
+					gapLength = length;
+				}
+			}
+		}
+		if (gapStart < 0)
+		{
+			return pivotYear; // no two-digit years, or all of them
+		}
+		// window of the pivot starts at two-digit year pivotYear % 100: in the gap, or right after it
+		final int cut = pivotYear % YEARS_IN_CENTURY;
+		if ((cut - gapStart + YEARS_IN_CENTURY) % YEARS_IN_CENTURY <= gapLength)
+		{
+			return pivotYear;
+		}
+		final int middle = (gapStart + gapLength / 2) % YEARS_IN_CENTURY;
+		int best = pivotYear / YEARS_IN_CENTURY * YEARS_IN_CENTURY + middle;
+		for (final int candidate : new int[] {best - YEARS_IN_CENTURY, best + YEARS_IN_CENTURY})
+		{
+			if (candidate >= YEARS_IN_CENTURY && candidate <= 9999
+					&& Math.abs(candidate - pivotYear) < Math.abs(best - pivotYear))
+			{
+				best = candidate;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Convert the whole column with the decided layout, see {@link CDateParser#getDates(String[], String)}
+	 */
+	public String[] getDates(final String[] inputs, final String format)
+	{
+		return parser.getDates(inputs, format);
+	}
+
+	/**
+	 * Parser with the decided settings, the same instance as was sampled if nothing is changed
+	 */
+	public CDateParser getParser()
+	{
+		return parser;
+	}
+
+	/**
+	 * Most frequent delimiter of full dates in the sample, 0 if there are no full dates
+	 */
+	public char getDelimiter()
+	{
+		return delimiter;
+	}
+
+	/**
+	 * Field order of numeric dates with dominant delimiter, null if there are no full dates
+	 */
+	public CDateParser.FieldOrder getFieldOrder()
+	{
+		return fieldOrder;
+	}
+
+	public int getPivotYear()
+	{
+		return parser.getPivotYear();
+	}
+
+	/**
+	 * Share of decisive values (day 13-31 before the year) which agree with the winning field order,
+	 * 0 if no value of the sample tells it
+	 */
+	public double getConfidence()
+	{
+		return confidence;
+	}
+
+	/**
+	 * Number of sampled non-null values
+	 */
+	public int getSampled()
+	{
+		return sampled;
+	}
+
+	/**
+	 * Number of sampled values which tell field order by itself
+	 */
+	public int getDecisive()
+	{
+		return decisive;
+	}
+
+	@Override
+	public String toString()
+	{
+		return fieldOrder + " '" + delimiter + "' pivot " + getPivotYear() + ", confidence " + confidence
+				+ " of " + decisive + "/" + sampled;
+	}
+}
@@ -0,0 +1,205 @@
+package goga.kolxo3.sdk.date;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Off-heap column of dates as epoch days (int, days from 1970-01-01) with a validity bitmap beside them,
+ * filled by {@link CDateParser#parseToColumn(String[], int, int, CDateEpochColumn, int)}.
+ * <p>
+ * The column is one direct or memory-mapped buffer in little-endian order, the same bytes in memory and on disk:
+ * <pre>
+ * 0                   magic "KDC1" (int 0x3143444B)
+ * 4                   version, 1
+ * 8                   number of rows (long)
+ * 16                  epoch days, int per row, 0 for invalid rows
+ * 16 + align8(4 * N)  validity bitmap, bit (row % 64) of long (row / 64) is set for valid rows
+ * </pre>
+ * so other processes (numpy, Arrow readers and so on) may map the file and read it w/o Java heap.
+ * Epoch days of years above 5 881 580 don't fit into int, such dates are invalid here.
+ * <p>
+ * Reading is thread-safe. Rows may be written by several threads when every one writes its own range of
+ * whole 64-row bitmap words, as parseToColumn does.
+ *
+ * @author Igor Zamiatin
+ */
+public final class CDateEpochColumn
+{
+	public static final int MAGIC = 0x3143444B; // "KDC1" in little-endian
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 16;
+
+	private static final int MAGIC_OFFSET = 0;
+	private static final int VERSION_OFFSET = 4;
+	private static final int ROWS_OFFSET = 8;
+
+	private final ByteBuffer buffer;
+	private final int rows;
+	private final int bitmapOffset;
+
+	private CDateEpochColumn(final ByteBuffer buffer, final int rows)
+	{
+		this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+		this.rows = rows;
+		this.bitmapOffset = HEADER_SIZE + align8(4L * rows);
+	}
+
+	/**
+	 * Column in a new direct buffer, all rows are invalid
+	 */
+	public static CDateEpochColumn allocate(final int rows)
+	{
+		final CDateEpochColumn column = new CDateEpochColumn(ByteBuffer.allocateDirect(byteSize(rows)), rows);
+		column.writeHeader();
+		return column;
+	}
+
+	/**
+	 * Create (or truncate) file and map column to it, all rows are invalid.
+	 * Call {@link #force()} when the column is written.
+	 */
+	public static CDateEpochColumn create(final Path file, final int rows) throws IOException
+	{
+		final int size = byteSize(rows);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			final CDateEpochColumn column = new CDateEpochColumn(channel.map(FileChannel.MapMode.READ_WRITE, 0, size), rows);
+			column.writeHeader();
+			return column;
+		}
+	}
+
+	/**
+	 * Map existing column file for reading
+	 * @throws IOException if file is not a column of this version
+	 */
+	public static CDateEpochColumn open(final Path file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+		{
+			final long size = channel.size();
+			if (size < HEADER_SIZE)
+			{
+				throw new IOException("Not a date column: " + file);
+			}
+			final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			final long rows = header.getLong(ROWS_OFFSET);
+			if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION
+					|| rows < 0 || rows > Integer.MAX_VALUE || size != byteSize((int) rows))
+			{
+				throw new IOException("Not a date column of version " + VERSION + ": " + file);
+			}
+			return new CDateEpochColumn(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), (int) rows);
+		}
+	}
+
+	/**
+	 * @return size of column of given rows in bytes, with header
+	 */
+	public static int byteSize(final int rows)
+	{
+		if (rows < 0)
+		{
+			throw new IllegalArgumentException("Rows must not be negative: " + rows);
+		}
+		final long size = HEADER_SIZE + align8(4L * rows) + 8L * ((rows + 63L) / 64);
+		if (size > Integer.MAX_VALUE)
+		{
+			throw new IllegalArgumentException("Too many rows for one buffer: " + rows);
+		}
+		return (int) size;
+	}
+
+	private static int align8(final long size)
+	{
+		return (int) ((size + 7) & ~7L);
+	}
+
+	private void writeHeader()
+	{
+		buffer.putInt(MAGIC_OFFSET, MAGIC);
+		buffer.putInt(VERSION_OFFSET, VERSION);
+		buffer.putLong(ROWS_OFFSET, rows);
+	}
+
+	public int size()
+	{
+		return rows;
+	}
+
+	public boolean isValid(final int row)
+	{
+		final int index = checkRow(row);
+		return (buffer.getLong(bitmapOffset + (index >>> 6) * 8) & (1L << index)) != 0;
+	}
+
+	/**
+	 * @return epoch day, or {@link CDateParser#INVALID_EPOCH_DAY} if row is invalid
+	 */
+	public long getEpochDay(final int row)
+	{
+		return isValid(row) ? buffer.getInt(HEADER_SIZE + row * 4) : CDateParser.INVALID_EPOCH_DAY;
+	}
+
+	/**
+	 * @return number of valid rows
+	 */
+	public int getValidCount()
+	{
+		int count = 0;
+		for (int offset = bitmapOffset; offset < buffer.capacity(); offset += 8)
+		{
+			count += Long.bitCount(buffer.getLong(offset));
+		}
+		return count;
+	}
+
+	/**
+	 * Write epoch day, or mark row invalid
+	 * @return true if row is valid
+	 */
+	boolean set(final int row, final long epochDay)
+	{
+		final int index = checkRow(row);
+		final boolean valid = epochDay >= Integer.MIN_VALUE && epochDay <= Integer.MAX_VALUE;
+		buffer.putInt(HEADER_SIZE + index * 4, valid ? (int) epochDay : 0);
+		final int word = bitmapOffset + (index >>> 6) * 8;
+		final long bits = buffer.getLong(word);
+		buffer.putLong(word, valid ? bits | (1L << index) : bits & ~(1L << index));
+		return valid;
+	}
+
+	/**
+	 * Whole buffer of the column with header, read-only view of it
+	 */
+	public ByteBuffer getBuffer()
+	{
+		return buffer.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Flush written rows of mapped column to its file, nothing to do for other columns
+	 */
+	public void force()
+	{
+		if (buffer instanceof MappedByteBuffer && !buffer.isReadOnly())
+		{
+			((MappedByteBuffer) buffer).force();
+		}
+	}
+
+	private int checkRow(final int row)
+	{
+		if (row < 0 || row >= rows)
+		{
+			throw new IndexOutOfBoundsException("row " + row + ", rows " + rows);
+		}
+		return row;
+	}
+}
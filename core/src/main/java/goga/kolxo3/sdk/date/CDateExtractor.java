@@ -0,0 +1,384 @@
+package goga.kolxo3.sdk.date;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.Objects;
+
+/**
+ * Find dates inside free text - OCR'd catalog records, title pages and so on - in one pass over a
+ * {@link java.io.Reader} or {@link CharBuffer}.
+ * <p>
+ * Text is cut into tokens by a small state machine: a token is a run of letters and digits which is either
+ * a number of 1-4 digits or a month name of {@link CDateParser#getMonthNames()}; runs which mix letters and
+ * digits, longer numbers and other words break the chain. Up to 3 tokens joined by the same single delimiter
+ * ('-', '/' or space) form a candidate, and the longest candidate from the first token which
+ * {@link CDateParser#parse(CharSequence, CDateParseResult)} accepts is emitted - the same validation rules as
+ * getDate, so "13/13/2020" is not a date and "32/32" is not a month. Other candidates slide by one token.
+ * <p>
+ * Memory does not depend on size of text: only the chunk in work and the tail of the current chain are kept.
+ * Instances are immutable and thread-safe, every call keeps its own state.
+ *
+ * @author Igor Zamiatin
+ */
+public final class CDateExtractor
+{
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+	/** the longest token, longer runs are not numbers or month names */
+	private static final int MAX_TOKEN_LENGTH = 32;
+	private static final int MAX_TOKENS = 3;
+	private static final int MAX_NUMBER_LENGTH = 4;
+
+	/**
+	 * Receiver of found dates
+	 */
+	@FunctionalInterface
+	public interface Listener
+	{
+		/**
+		 * @param start - offset of the first char of date in text
+		 * @param end - offset after the last char of date
+		 * @param value - date converted by {@link CDateParser#getDate(String, String)} to the format of extractor
+		 * @param result - fields of date, the holder is reused for the next date
+		 */
+		void onDate(long start, long end, String value, CDateParseResult result);
+	}
+
+	private final CDateParser parser;
+	private final String format;
+	private final CDateParseResult.Precision minPrecision;
+	private final int chunkSize;
+
+	/**
+	 * Extractor of all dates, years alone too
+	 */
+	public CDateExtractor(final CDateParser parser, final String format)
+	{
+		this(parser, format, CDateParseResult.Precision.YEAR, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param parser - parser of candidates, with its month names and field orders
+	 * @param format - pattern of converted dates w/o time fields, see {@link CDateParser#getDate(String, String)}
+	 * @param minPrecision - dates with less fields are skipped, MONTH_YEAR - to skip numbers like "1987" alone
+	 * @param chunkSize - chars read at once
+	 */
+	public CDateExtractor(final CDateParser parser, final String format, final CDateParseResult.Precision minPrecision,
+			final int chunkSize)
+	{
+		if (chunkSize < MAX_TOKENS * (MAX_TOKEN_LENGTH + 1))
+		{
+			throw new IllegalArgumentException("Chunk size is too small: " + chunkSize);
+		}
+		// fail fast on invalid pattern; candidates never have time, formatting it would throw for every date
+		if (CDateParser.getFormatCache().get(format).hasTime())
+		{
+			throw new IllegalArgumentException("Format must not have fields of time or zone: " + format);
+		}
+		this.parser = Objects.requireNonNull(parser, "parser");
+		this.format = format;
+		this.minPrecision = Objects.requireNonNull(minPrecision, "minPrecision");
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Find dates in text, the reader is read to the end but not closed
+	 *
+	 * @return number of found dates
+	 */
+	public long extract(final Reader reader, final Listener listener) throws IOException
+	{
+		return new Scan(listener).run(reader);
+	}
+
+	/**
+	 * Find dates in chars from position to limit of buffer, offsets are counted from its position
+	 *
+	 * @return number of found dates
+	 */
+	public long extract(final CharBuffer buffer, final Listener listener)
+	{
+		try
+		{
+			return new Scan(listener).run(buffer);
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException(e); // never thrown by CharBuffer
+		}
+	}
+
+	/**
+	 * Find dates in a string or another char sequence
+	 *
+	 * @return number of found dates
+	 */
+	public long extract(final CharSequence text, final Listener listener)
+	{
+		return extract(CharBuffer.wrap(text), listener);
+	}
+
+	private static boolean isDelimiter(final char c)
+	{
+		return c == '-' || c == '/' || c == ' ';
+	}
+
+	/**
+	 * State of one pass
+	 */
+	private final class Scan implements CharSequence
+	{
+		private final Listener listener;
+		private final CDateParseResult result = new CDateParseResult();
+		private final char[] buffer = new char[chunkSize];
+		private long base; // offset of buffer[0] in text
+		private long found;
+
+		// current run of letters and digits
+		private int runStart = -1;
+		private boolean runLetters;
+		private boolean runDigits;
+		private boolean skipping;
+
+		// chain of tokens, positions in buffer
+		private final int[] starts = new int[MAX_TOKENS];
+		private final int[] ends = new int[MAX_TOKENS];
+		private int count;
+		private char delimiter; // between tokens of chain, 0 while there is one token
+
+		// candidate, as CharSequence for the parser
+		private int candidateStart;
+		private int candidateLength;
+
+		Scan(final Listener listener)
+		{
+			this.listener = Objects.requireNonNull(listener, "listener");
+		}
+
+		long run(final Readable source) throws IOException
+		{
+			final CharBuffer window = CharBuffer.wrap(buffer);
+			int filled = 0;
+			int position = 0;
+			while (true)
+			{
+				window.limit(buffer.length).position(filled);
+				final int read = source.read(window);
+				if (read < 0)
+				{
+					break;
+				}
+				filled += read;
+				for (; position < filled; position++)
+				{
+					accept(buffer[position], position);
+				}
+				// keep the chain and the run, drop the rest
+				final int keep = count > 0 ? starts[0] : (runStart >= 0 ? runStart : filled);
+				if (keep > 0)
+				{
+					System.arraycopy(buffer, keep, buffer, 0, filled - keep);
+					shift(keep);
+					filled -= keep;
+					position -= keep;
+				}
+			}
+			endRun(filled);
+			flush(count);
+			return found;
+		}
+
+		private void shift(final int by)
+		{
+			base += by;
+			for (int i = 0; i < count; i++)
+			{
+				starts[i] -= by;
+				ends[i] -= by;
+			}
+			if (runStart >= 0)
+			{
+				runStart -= by;
+			}
+		}
+
+		private void accept(final char c, final int position)
+		{
+			final boolean digit = c >= '0' && c <= '9';
+			if (digit || Character.isLetter(c))
+			{
+				if (skipping)
+				{
+					return;
+				}
+				if (runStart < 0)
+				{
+					runStart = position;
+					runLetters = false;
+					runDigits = false;
+				}
+				else if (position - runStart >= MAX_TOKEN_LENGTH)
+				{ // too long for a token, skip the rest of it w/o keeping it in buffer
+					runStart = -1;
+					skipping = true;
+					flush(count);
+					return;
+				}
+				runDigits |= digit;
+				runLetters |= !digit;
+				return;
+			}
+			skipping = false;
+			endRun(position);
+			// the chain continues only with one delimiter right after its last token
+			if (count > 0 && !(ends[count - 1] == position && isDelimiter(c)))
+			{
+				flush(count);
+			}
+		}
+
+		private void endRun(final int end)
+		{
+			if (runStart < 0)
+			{
+				return;
+			}
+			final int start = runStart;
+			runStart = -1;
+			final boolean token = runDigits ? !runLetters && end - start <= MAX_NUMBER_LENGTH
+					: parser.getMonthNames().match(this.view(start, end), 0, end - start) > 0;
+			if (!token)
+			{
+				flush(count);
+				return;
+			}
+			if (count > 0)
+			{
+				final char between = buffer[start - 1];
+				if (count > 1 && between != delimiter)
+				{ // a space ends the chain, and the last token before '-' or '/' starts a new chain
+					flush(between == ' ' ? count : count - 1);
+				}
+				else if (count == MAX_TOKENS)
+				{
+					slide();
+				}
+				if (count > 0)
+				{
+					delimiter = between;
+				}
+			}
+			push(start, end);
+		}
+
+		private void push(final int start, final int end)
+		{
+			if (count == 0)
+			{
+				delimiter = 0;
+			}
+			starts[count] = start;
+			ends[count] = end;
+			count++;
+		}
+
+		/**
+		 * Emit the longest date from the first token and remove its tokens, or remove the first token
+		 */
+		private void slide()
+		{
+			final int matched = match(count);
+			remove(Math.max(matched, 1));
+		}
+
+		/**
+		 * Emit dates of the first tokens of the chain, and remove them
+		 */
+		private void flush(final int tokens)
+		{
+			int rest = tokens;
+			while (rest > 0)
+			{
+				final int removed = Math.max(match(rest), 1);
+				remove(removed);
+				rest -= removed;
+			}
+			if (count == 0)
+			{
+				delimiter = 0;
+			}
+		}
+
+		/**
+		 * @param limit - number of the first tokens to try
+		 * @return number of tokens of the longest date, emitted or skipped for its precision or invalid fields,
+		 * 0 if there is no date
+		 */
+		private int match(final int limit)
+		{
+			for (int tokens = limit; tokens > 0; tokens--)
+			{
+				view(starts[0], ends[tokens - 1]);
+				if (parser.parse(this, result))
+				{
+					if (result.getPrecision().compareTo(minPrecision) >= 0)
+					{
+						final String value = parser.getDate(toString(), format);
+						found++;
+						listener.onDate(base + starts[0], base + ends[tokens - 1], value, result);
+					}
+					return tokens;
+				}
+				if (result.getStatus() == CDateParseResult.Status.INVALID_DATE)
+				{
+					return tokens; // "13/13/2020" is not a date, and its year alone is not one either
+				}
+			}
+			return 0;
+		}
+
+		private void remove(final int tokens)
+		{
+			final int removed = Math.min(tokens, count);
+			System.arraycopy(starts, removed, starts, 0, count - removed);
+			System.arraycopy(ends, removed, ends, 0, count - removed);
+			count -= removed;
+		}
+
+		private Scan view(final int start, final int end)
+		{
+			candidateStart = start;
+			candidateLength = end - start;
+			return this;
+		}
+
+		@Override
+		public int length()
+		{
+			return candidateLength;
+		}
+
+		@Override
+		public char charAt(final int index)
+		{
+			if (index < 0 || index >= candidateLength)
+			{
+				throw new IndexOutOfBoundsException("index " + index + ", length " + candidateLength);
+			}
+			return buffer[candidateStart + index];
+		}
+
+		@Override
+		public CharSequence subSequence(final int start, final int end)
+		{
+			return toString().substring(start, end);
+		}
+
+		@Override
+		public String toString()
+		{
+			return new String(buffer, candidateStart, candidateLength);
+		}
+	}
+}
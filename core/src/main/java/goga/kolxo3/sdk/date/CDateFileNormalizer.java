@@ -0,0 +1,473 @@
+package goga.kolxo3.sdk.date;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Normalize date column of a delimited (CSV, TSV) file.
+ * <p>
+ * Input file is memory-mapped by windows, rows and the date column are found by byte scanning.
+ * Only the date field is rewritten, all other bytes are copied to the output channel in bulk, so a row
+ * which date is kept AS IS costs nothing but scanning. Quoted fields (with separators and line breaks
+ * inside) are supported, a quoted date is written back in quotes. A converted date with the separator,
+ * quotes or line breaks (output pattern "MMMM d, yyyy" of a CSV) is quoted, its quotes are doubled.
+ * Dates which cannot be converted, including invalid ones like "13/13/2020", are kept AS IS.
+ * <p>
+ * Instances are immutable and thread-safe, one instance may normalize several files at once.
+ *
+ * @author Igor Zamiatin
+ */
+public final class CDateFileNormalizer
+{
+	public static final int DEFAULT_WINDOW_SIZE = 1 << 28;
+
+	private static final int OUTPUT_BUFFER_SIZE = 1 << 20;
+	private static final int MAX_DATE_LENGTH = 256;
+	private static final byte QUOTE = '"';
+	private static final byte CR = '\r';
+	private static final byte LF = '\n';
+
+	private final int column;
+	private final byte separator;
+	private final String format;
+	private final boolean header;
+	private final int windowSize;
+	private final CDateParser parser;
+
+	/**
+	 * @param column - index of date column, from 0
+	 * @param separator - field separator, like ',' or '\t'
+	 * @param format - pattern for output dates, see {@link CDateParser#getDate(String, String)}
+	 * @param header - first row is header, it's copied w/o changes
+	 */
+	public CDateFileNormalizer(final int column, final char separator, final String format, final boolean header)
+	{
+		this(column, separator, format, header, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * @param windowSize - size of mapped window, the longest row must fit into it
+	 */
+	public CDateFileNormalizer(final int column, final char separator, final String format, final boolean header,
+			final int windowSize)
+	{
+		this(column, separator, format, header, windowSize, new CDateParser());
+	}
+
+	/**
+	 * @param parser - parser of input dates, for example with month names of other locales
+	 */
+	public CDateFileNormalizer(final int column, final char separator, final String format, final boolean header,
+			final int windowSize, final CDateParser parser)
+	{
+		if (column < 0)
+		{
+			throw new IllegalArgumentException("Column must not be negative: " + column);
+		}
+		if (separator == 0 || separator > 0x7F || separator == QUOTE || separator == CR || separator == LF)
+		{
+			throw new IllegalArgumentException("Separator must be ASCII char, not a quote or line break: " + (int) separator);
+		}
+		if (windowSize < 1)
+		{
+			throw new IllegalArgumentException("Window size must be positive: " + windowSize);
+		}
+		this.column = column;
+		this.separator = (byte) separator;
+		this.format = format;
+		this.header = header;
+		this.windowSize = windowSize;
+		this.parser = Objects.requireNonNull(parser, "parser");
+		CDateFormat.compile(format); // fail fast on invalid pattern
+	}
+
+	/**
+	 * Normalize date column of input file into output file, output file is overwritten
+	 */
+	public Statistics normalize(final Path input, final Path output) throws IOException
+	{
+		try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+			 FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					 StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			return normalize(in, out);
+		}
+	}
+
+	/**
+	 * Normalize date column of the whole input channel, from position 0, into output channel
+	 */
+	public Statistics normalize(final FileChannel in, final FileChannel out) throws IOException
+	{
+		return normalize(in, 0, in.size(), out, true, null);
+	}
+
+	/**
+	 * Normalize rows of input from one position to another, into output from its current position
+	 *
+	 * @param from - start of a row
+	 * @param fromStart - from is the start of file, the first row may be the header
+	 * @param progress - called after every window, when output is written up to the last complete row, or null
+	 */
+	Statistics normalize(final FileChannel in, final long from, final long to, final FileChannel out,
+			final boolean fromStart, final Progress progress) throws IOException
+	{
+		final long started = System.nanoTime();
+		final Job job = new Job(out, CDateParser.getFormatCache().get(format), header && fromStart, from, out.position());
+		long position = from;
+		while (position < to)
+		{
+			final long length = Math.min(windowSize, to - position);
+			final boolean last = position + length == to;
+			final MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, position, length);
+			final int consumed = job.process(window, (int) length, last, position);
+			if (consumed == 0)
+			{
+				throw new IOException("Row at position " + position + " is longer than window size " + windowSize);
+			}
+			position += consumed;
+			if (progress != null && !last)
+			{
+				job.flush();
+				progress.onRows(job.rowsEnd, job.outputRowsEnd);
+			}
+		}
+		job.flush();
+		return new Statistics(job.rows, job.converted, to - from, System.nanoTime() - started, job.rowsEnd,
+				job.outputRowsEnd);
+	}
+
+	/**
+	 * Receiver of progress of a long normalization
+	 */
+	@FunctionalInterface
+	interface Progress
+	{
+		/**
+		 * @param inputEnd - input position after the last line break
+		 * @param outputEnd - output position after the same row, output is written up to it
+		 */
+		void onRows(long inputEnd, long outputEnd) throws IOException;
+	}
+
+	/**
+	 * State of one normalization
+	 */
+	private final class Job
+	{
+		private final FileChannel out;
+		private final CDateFormat compiled;
+		private final ByteBuffer outBuffer = ByteBuffer.allocateDirect(OUTPUT_BUFFER_SIZE);
+		private final CUtf8Sequence field = new CUtf8Sequence();
+		private final char[] chars = new char[MAX_DATE_LENGTH];
+		private final char[] escaped = new char[MAX_DATE_LENGTH * 2 + 2];
+		private final boolean header;
+		private final long outputStart;
+		private long output; // bytes written after outputStart, with buffered ones
+		private long rows;
+		private long converted;
+		private long rowsEnd; // input position after the last line break
+		private long outputRowsEnd;
+
+		Job(final FileChannel out, final CDateFormat compiled, final boolean header, final long inputStart,
+				final long outputStart)
+		{
+			this.out = out;
+			this.compiled = compiled;
+			this.header = header;
+			this.outputStart = outputStart;
+			this.rowsEnd = inputStart;
+			this.outputRowsEnd = outputStart;
+		}
+
+		/**
+		 * Process complete rows of the window
+		 * @param last - window ends at the end of file, so the last row may have no line break
+		 * @param position - position of window in input
+		 * @return number of bytes consumed (all complete rows, or the whole last window)
+		 */
+		int process(final ByteBuffer window, final int length, final boolean last, final long position)
+				throws IOException
+		{
+			int copied = 0; // bytes before this position are already written
+			int rowStart = 0;
+			int fieldStart = 0;
+			int fieldIndex = 0;
+			boolean quoted = false;
+			int dateStart = -1;
+			int dateEnd = -1;
+			for (int i = 0; i <= length; i++)
+			{
+				final byte b;
+				if (i < length)
+				{
+					b = window.get(i);
+				} else if (last && i > rowStart) {
+					b = LF; // the last row w/o line break
+				} else {
+					break;
+				}
+				if (b == QUOTE)
+				{
+					quoted = !quoted;
+					continue;
+				}
+				if (quoted || (b != separator && b != LF))
+				{
+					continue;
+				}
+				if (fieldIndex == column)
+				{
+					int end = i;
+					if (b == LF && end > fieldStart && window.get(end - 1) == CR)
+					{
+						end--;
+					}
+					dateStart = fieldStart;
+					dateEnd = end;
+				}
+				fieldIndex++;
+				fieldStart = i + 1;
+				if (b == LF)
+				{
+					if (dateStart >= 0 && !(header && rows == 0))
+					{
+						copied = convert(window, copied, dateStart, dateEnd);
+					}
+					rows++;
+					if (i < length)
+					{
+						rowsEnd = position + i + 1;
+						outputRowsEnd = outputStart + output + i + 1 - copied;
+					}
+					rowStart = Math.min(i + 1, length);
+					fieldIndex = 0;
+					dateStart = -1;
+				}
+			}
+			// unbalanced quote in the last row: copy it as is
+			final int consumed = last ? length : rowStart;
+			write(window, copied, consumed - copied);
+			return consumed;
+		}
+
+		/**
+		 * Convert date field and write everything before it
+		 * @return position after the last written byte
+		 */
+		private int convert(final ByteBuffer window, final int copied, final int start, final int end) throws IOException
+		{
+			int dateStart = start;
+			int dateEnd = end;
+			if (dateEnd - dateStart >= 2 && window.get(dateStart) == QUOTE && window.get(dateEnd - 1) == QUOTE)
+			{
+				dateStart++;
+				dateEnd--;
+			}
+			if (dateEnd - dateStart > MAX_DATE_LENGTH)
+			{
+				return copied;
+			}
+			final int length = parser.formatTo(field.wrap(window, dateStart, dateEnd - dateStart), format, compiled,
+					chars, 0);
+			field.clear();
+			if (length < 0)
+			{
+				return copied;
+			}
+			write(window, copied, dateStart - copied);
+			if (isSpecial(length))
+			{
+				writeChars(escaped, escape(length, dateStart > start));
+			}
+			else
+			{
+				writeChars(chars, length);
+			}
+			converted++;
+			return dateEnd;
+		}
+
+		/**
+		 * @return true if converted date has chars which break an unquoted field
+		 */
+		private boolean isSpecial(final int length)
+		{
+			for (int i = 0; i < length; i++)
+			{
+				final char c = chars[i];
+				if (c == separator || c == QUOTE || c == CR || c == LF)
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Double quotes of converted date, and put it in quotes unless the field is quoted already
+		 * @return length of escaped date
+		 */
+		private int escape(final int length, final boolean quoted)
+		{
+			int j = 0;
+			if (!quoted)
+			{
+				escaped[j++] = QUOTE;
+			}
+			for (int i = 0; i < length; i++)
+			{
+				if (chars[i] == QUOTE)
+				{
+					escaped[j++] = QUOTE;
+				}
+				escaped[j++] = chars[i];
+			}
+			if (!quoted)
+			{
+				escaped[j++] = QUOTE;
+			}
+			return j;
+		}
+
+		private void write(final ByteBuffer window, final int offset, final int length) throws IOException
+		{
+			if (length <= 0)
+			{
+				return;
+			}
+			output += length;
+			if (length > outBuffer.remaining())
+			{
+				flush();
+				if (length > outBuffer.capacity())
+				{
+					final ByteBuffer slice = window.slice(offset, length);
+					while (slice.hasRemaining())
+					{
+						out.write(slice);
+					}
+					return;
+				}
+			}
+			outBuffer.put(outBuffer.position(), window, offset, length);
+			outBuffer.position(outBuffer.position() + length);
+		}
+
+		private void writeChars(final char[] chars, final int length) throws IOException
+		{
+			boolean ascii = true;
+			for (int i = 0; i < length; i++)
+			{
+				ascii &= chars[i] < 0x80;
+			}
+			if (!ascii)
+			{ // literal text of output pattern
+				final byte[] bytes = new String(chars, 0, length).getBytes(StandardCharsets.UTF_8);
+				write(ByteBuffer.wrap(bytes), 0, bytes.length);
+				return;
+			}
+			output += length;
+			if (length > outBuffer.remaining())
+			{
+				flush();
+			}
+			for (int i = 0; i < length; i++)
+			{
+				outBuffer.put((byte) chars[i]);
+			}
+		}
+
+		void flush() throws IOException
+		{
+			outBuffer.flip();
+			while (outBuffer.hasRemaining())
+			{
+				out.write(outBuffer);
+			}
+			outBuffer.clear();
+		}
+	}
+
+	/**
+	 * Result of normalization
+	 */
+	public static final class Statistics
+	{
+		private final long rows;
+		private final long converted;
+		private final long bytes;
+		private final long nanos;
+		private final long rowsEnd;
+		private final long outputRowsEnd;
+
+		Statistics(final long rows, final long converted, final long bytes, final long nanos, final long rowsEnd,
+				final long outputRowsEnd)
+		{
+			this.rows = rows;
+			this.converted = converted;
+			this.bytes = bytes;
+			this.nanos = nanos;
+			this.rowsEnd = rowsEnd;
+			this.outputRowsEnd = outputRowsEnd;
+		}
+
+		/** number of rows, including header */
+		public long getRows()
+		{
+			return rows;
+		}
+
+		/** number of converted dates, other dates are kept AS IS */
+		public long getConverted()
+		{
+			return converted;
+		}
+
+		/** size of input */
+		public long getBytes()
+		{
+			return bytes;
+		}
+
+		public long getNanos()
+		{
+			return nanos;
+		}
+
+		/** input position after the last line break, where normalization of appended rows starts */
+		long getRowsEnd()
+		{
+			return rowsEnd;
+		}
+
+		/** output position of the same row */
+		long getOutputRowsEnd()
+		{
+			return outputRowsEnd;
+		}
+
+		public double getRowsPerSecond()
+		{
+			return nanos == 0 ? 0 : rows * 1e9 / nanos;
+		}
+
+		public double getBytesPerSecond()
+		{
+			return nanos == 0 ? 0 : bytes * 1e9 / nanos;
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("%d rows (%d dates converted), %d bytes in %.3f s: %.0f rows/s, %.1f MB/s",
+					rows, converted, bytes, nanos / 1e9, getRowsPerSecond(), getBytesPerSecond() / (1 << 20));
+		}
+	}
+}
@@ -0,0 +1,243 @@
+package goga.kolxo3.sdk.date;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Output date pattern compiled once.
+ * <p>
+ * Numeric patterns of three fields {@code MM}, {@code dd} and {@code yyyy} separated by one char
+ * ("MM/dd/yyyy", "dd.MM.yyyy", "yyyy-MM-dd" and so on) are written by hand directly into a char buffer,
+ * all others go through {@link DateTimeFormatter}. Patterns may have fields of time and offset ("yyyy-MM-dd HH:mm:ss XXX"),
+ * they are filled from time of input date, see {@link #format(int, int, int, int, int, int, int, int)}.
+ * Instances are immutable and thread-safe.
+ *
+ * @author Igor Zamiatin
+ */
+public final class CDateFormat
+{
+	private static final char FIELD_YEAR = 'y';
+	private static final char FIELD_MONTH = 'M';
+	private static final char FIELD_DAY = 'd';
+	/** pattern letters of time of day and zone, see {@link DateTimeFormatter} */
+	private static final String TIME_LETTERS = "aBhKkHmsSAnNVvzOXxZ";
+	/** length of dates written by hand */
+	static final int FAST_LENGTH = 10;
+
+	private final String pattern;
+	/** built lazily for fast patterns, they are always valid and rarely need it (racy but idempotent) */
+	private DateTimeFormatter formatter;
+	private final char delimiter;
+	/** order of fields for hand-written writer, null if pattern is not simple numeric one */
+	private final char[] fields;
+	/** pattern has fields of time or zone */
+	private final boolean time;
+
+	private CDateFormat(final String pattern)
+	{
+		this.pattern = pattern;
+		this.delimiter = CDateParser.detectDelimiter(pattern);
+		this.fields = compileFields(pattern);
+		// validates pattern: the first java.time formatter costs milliseconds of class loading
+		this.formatter = fields != null ? null : DateTimeFormatter.ofPattern(pattern, Locale.US);
+		this.time = hasTimeFields(pattern);
+	}
+
+	/**
+	 * Compile pattern w/o caching, use {@link CDateFormatCache} to reuse compiled formats.
+	 * @throws IllegalArgumentException if pattern is invalid
+	 */
+	public static CDateFormat compile(final String pattern)
+	{
+		return new CDateFormat(pattern);
+	}
+
+	public String getPattern()
+	{
+		return pattern;
+	}
+
+	/**
+	 * Delimiter used in this pattern (see {@link CDateParser#detectDelimiter(String)}), 0 if none
+	 */
+	public char getDelimiter()
+	{
+		return delimiter;
+	}
+
+	/**
+	 * @return true if this format is written by hand w/o DateTimeFormatter
+	 */
+	public boolean isFast()
+	{
+		return fields != null;
+	}
+
+	/**
+	 * @return true if pattern has fields of time of day or zone, like "HH:mm" or "XXX"
+	 */
+	public boolean hasTime()
+	{
+		return time;
+	}
+
+	/**
+	 * Format valid date with time, time fields are ignored if pattern has none of them.
+	 * @param offsetSeconds - offset of time from UTC
+	 * @throws java.time.DateTimeException if date or time is not valid
+	 */
+	public String format(final int year, final int month, final int day, final int hour, final int minute,
+			final int second, final int nano, final int offsetSeconds)
+	{
+		if (!time)
+		{
+			return format(year, month, day);
+		}
+		return OffsetDateTime.of(year, month, day, hour, minute, second, nano, ZoneOffset.ofTotalSeconds(offsetSeconds))
+				.format(formatter());
+	}
+
+	public String format(final LocalDate date)
+	{
+		if (fields != null && isFastYear(date.getYear()))
+		{
+			return format(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+		}
+		return date.format(formatter());
+	}
+
+	/**
+	 * Format valid date.
+	 * @throws java.time.DateTimeException if date is not valid
+	 */
+	public String format(final int year, final int month, final int day)
+	{
+		if (fields != null && isFastYear(year))
+		{
+			final char[] buffer = new char[FAST_LENGTH];
+			write(year, month, day, buffer, 0);
+			return new String(buffer);
+		}
+		return LocalDate.of(year, month, day).format(formatter());
+	}
+
+	private DateTimeFormatter formatter()
+	{
+		DateTimeFormatter result = formatter;
+		if (result == null)
+		{
+			result = DateTimeFormatter.ofPattern(pattern, Locale.US);
+			formatter = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Write valid date into char buffer with hand-written writer.
+	 * @return number of written chars, or -1 if this format (or year) is not supported by fast writer
+	 * and {@link #format(int, int, int)} should be used instead
+	 */
+	public int write(final int year, final int month, final int day, final char[] buffer, final int offset)
+	{
+		if (fields == null || !isFastYear(year))
+		{
+			return -1;
+		}
+		int pos = offset;
+		for (int i = 0; i < fields.length; i++)
+		{
+			if (i > 0)
+			{
+				buffer[pos++] = delimiter;
+			}
+			switch (fields[i])
+			{
+				case FIELD_YEAR:
+					buffer[pos++] = (char) ('0' + year / 1000);
+					buffer[pos++] = (char) ('0' + year / 100 % 10);
+					buffer[pos++] = (char) ('0' + year / 10 % 10);
+					buffer[pos++] = (char) ('0' + year % 10);
+					break;
+				case FIELD_MONTH:
+					buffer[pos++] = (char) ('0' + month / 10);
+					buffer[pos++] = (char) ('0' + month % 10);
+					break;
+				default:
+					buffer[pos++] = (char) ('0' + day / 10);
+					buffer[pos++] = (char) ('0' + day % 10);
+					break;
+			}
+		}
+		return pos - offset;
+	}
+
+	/**
+	 * "yyyy" is year of era, it's printed as is only for years 1..9999
+	 */
+	private static boolean isFastYear(final int year)
+	{
+		return year > 0 && year < 10000;
+	}
+
+	private static boolean hasTimeFields(final String pattern)
+	{
+		boolean quoted = false;
+		for (int i = 0; i < pattern.length(); i++)
+		{
+			final char c = pattern.charAt(i);
+			if (c == '\'')
+			{
+				quoted = !quoted;
+			} else if (!quoted && TIME_LETTERS.indexOf(c) >= 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static char[] compileFields(final String pattern)
+	{
+		if (pattern.length() != FAST_LENGTH)
+		{
+			return null;
+		}
+		final char[] fields = new char[3];
+		int count = 0;
+		char separator = 0;
+		int i = 0;
+		while (i < FAST_LENGTH)
+		{
+			final char c = pattern.charAt(i);
+			final int width = c == FIELD_YEAR ? 4 : (c == FIELD_MONTH || c == FIELD_DAY ? 2 : 0);
+			if (width == 0 || count == 3 || i + width > FAST_LENGTH || !pattern.startsWith(Character.toString(c).repeat(width), i))
+			{
+				return null;
+			}
+			for (int k = 0; k < count; k++)
+			{
+				if (fields[k] == c)
+				{
+					return null;
+				}
+			}
+			fields[count++] = c;
+			i += width;
+			if (i < FAST_LENGTH)
+			{
+				final char d = pattern.charAt(i);
+				if ((separator != 0 && d != separator) || Character.isLetter(d) || d == '\'' || d == '[' || d == ']'
+						|| d == '{' || d == '}' || d == '#')
+				{
+					return null;
+				}
+				separator = d;
+				i++;
+			}
+		}
+		// the only one separator, and it must be the delimiter detected in pattern
+		return count == 3 && separator == CDateParser.detectDelimiter(pattern) ? fields : null;
+	}
+}
@@ -0,0 +1,91 @@
+package goga.kolxo3.sdk.date;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded thread-safe registry of compiled output formats keyed by pattern string.
+ * <p>
+ * When registry is full an arbitrary entry is evicted, it's enough for the few dozens patterns
+ * used in practice. Hits and misses are counted for monitoring.
+ *
+ * @author Igor Zamiatin
+ */
+public final class CDateFormatCache
+{
+	public static final int DEFAULT_CAPACITY = 256;
+
+	private final int capacity;
+	private final ConcurrentHashMap<String, CDateFormat> formats;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	public CDateFormatCache()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	public CDateFormatCache(final int capacity)
+	{
+		if (capacity < 1)
+		{
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		this.capacity = capacity;
+		this.formats = new ConcurrentHashMap<>(Math.min(capacity, DEFAULT_CAPACITY));
+	}
+
+	/**
+	 * Return compiled format for the pattern, compile and register it if needed
+	 * @throws IllegalArgumentException if pattern is invalid
+	 * @throws NullPointerException if pattern is null
+	 */
+	public CDateFormat get(final String pattern)
+	{
+		CDateFormat format = formats.get(pattern);
+		if (format != null)
+		{
+			hits.increment();
+			return format;
+		}
+		misses.increment();
+		format = CDateFormat.compile(pattern);
+		if (formats.size() >= capacity)
+		{
+			final Iterator<String> it = formats.keySet().iterator();
+			if (it.hasNext())
+			{
+				it.next();
+				it.remove();
+			}
+		}
+		final CDateFormat previous = formats.putIfAbsent(pattern, format);
+		return previous != null ? previous : format;
+	}
+
+	public long getHitCount()
+	{
+		return hits.sum();
+	}
+
+	public long getMissCount()
+	{
+		return misses.sum();
+	}
+
+	public int size()
+	{
+		return formats.size();
+	}
+
+	public int getCapacity()
+	{
+		return capacity;
+	}
+
+	public void clear()
+	{
+		formats.clear();
+	}
+}
@@ -0,0 +1,384 @@
+package goga.kolxo3.sdk.date;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Strict parser of dates in one fixed-width layout, like "yyyy-MM-dd" or "MM/dd/yyyy",
+ * created by {@link CDateParser#forLayout(String)}.
+ * <p>
+ * There is no shape detection: input must have exactly the length of the layout, digits at offsets of
+ * the fields and the same literal chars between them. Anything else is rejected after the first mismatch,
+ * there is no trimming and no fallback to heuristics. Instances are immutable and thread-safe.
+ * <p>
+ * Bulk conversion of fixed-size records ({@link #parsePacked(byte[], int, int, int, int[], int)}) checks
+ * 8 bytes at once (SWAR): a date of 8..16 chars is covered by two overlapping little-endian longs, literal
+ * chars are compared under a mask, and all digit positions are checked by a couple of arithmetic operations.
+ * Records which fail the check are converted by the heuristics of the parent {@link CDateParser}.
+ *
+ * @author Igor Zamiatin
+ */
+public final class CDateLayoutParser
+{
+	private static final char DIGIT = 0; // template char of field positions
+
+	private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final long HIGH_NIBBLES = 0xF0F0F0F0F0F0F0F0L;
+	private static final long SIXES = 0x0606060606060606L;
+	private static final long THREES = 0x3333333333333333L;
+	private static final long ZEROS = 0x3030303030303030L;
+	/** dates of this length and longer are covered by two longs */
+	private static final int MIN_SWAR_LENGTH = Long.BYTES;
+	private static final int MAX_SWAR_LENGTH = 2 * Long.BYTES;
+
+	private final String layout;
+	/** expected chars of input, {@link #DIGIT} at positions of fields */
+	private final char[] template;
+	private final int yearOffset;
+	private final int yearWidth;
+	private final int monthOffset;
+	private final int dayOffset;
+	private final char delimiter;
+	private final int pivotYear;
+	/** converts records which don't conform to the layout */
+	private final CDateParser parser;
+
+	// SWAR masks of the first and the last 8 chars of the layout, see checkWord
+	private final long[] digitMasks = new long[2];
+	private final long[] literalMasks = new long[2];
+	private final long[] literals = new long[2];
+	/** word (0 or 1) and bit shift in it of every digit: year, month, day */
+	private final int[] digitWords;
+	private final int[] digitShifts;
+
+	CDateLayoutParser(final String layout, final CDateParser parser)
+	{
+		if (null == layout || layout.isEmpty())
+		{
+			throw new IllegalArgumentException("Empty layout");
+		}
+		this.layout = layout;
+		this.parser = parser;
+		this.pivotYear = parser.getPivotYear();
+		template = new char[layout.length()];
+		int year = -1;
+		int yearLength = 0;
+		int month = -1;
+		int day = -1;
+		char firstLiteral = 0;
+		for (int i = 0; i < layout.length(); )
+		{
+			final char c = layout.charAt(i);
+			int end = i;
+			while (end < layout.length() && layout.charAt(end) == c)
+			{
+				end++;
+			}
+			final int width = end - i;
+			if (c == 'y' && year < 0 && (width == 4 || width == 2))
+			{
+				year = i;
+				yearLength = width;
+			} else if (c == 'M' && month < 0 && width == 2) {
+				month = i;
+			} else if (c == 'd' && day < 0 && width == 2) {
+				day = i;
+			} else if (Character.isLetter(c) || c == DIGIT || c == '\'') {
+				throw new IllegalArgumentException("Layout must have fixed-width fields yyyy or yy, MM, dd once: " + layout);
+			} else {
+				for (int j = i; j < end; j++)
+				{
+					template[j] = c;
+				}
+				if (firstLiteral == 0)
+				{
+					firstLiteral = c;
+				}
+			}
+			i = end;
+		}
+		if (year < 0 || month < 0 || day < 0)
+		{
+			throw new IllegalArgumentException("Layout must have fixed-width fields yyyy or yy, MM, dd once: " + layout);
+		}
+		this.yearOffset = year;
+		this.yearWidth = yearLength;
+		this.monthOffset = month;
+		this.dayOffset = day;
+		this.delimiter = firstLiteral;
+
+		final int digits = yearWidth + 4;
+		digitWords = new int[digits];
+		digitShifts = new int[digits];
+		if (template.length >= MIN_SWAR_LENGTH && template.length <= MAX_SWAR_LENGTH)
+		{
+			final int lastWord = template.length - Long.BYTES;
+			for (int i = 0; i < Long.BYTES; i++)
+			{
+				addToWord(0, i, template[i]);
+				addToWord(1, i, template[lastWord + i]);
+			}
+			int digit = 0;
+			for (final int position : new int[] {yearOffset, monthOffset, dayOffset})
+			{
+				final int width = position == yearOffset ? yearWidth : 2;
+				for (int i = position; i < position + width; i++, digit++)
+				{
+					digitWords[digit] = i < Long.BYTES ? 0 : 1;
+					digitShifts[digit] = (i < Long.BYTES ? i : i - lastWord) * Byte.SIZE;
+				}
+			}
+		}
+	}
+
+	private void addToWord(final int word, final int index, final char expected)
+	{
+		final long mask = 0xFFL << (index * Byte.SIZE);
+		if (expected == DIGIT)
+		{
+			digitMasks[word] |= mask;
+		} else {
+			literalMasks[word] |= mask;
+			literals[word] |= ((long) (expected & 0xFF)) << (index * Byte.SIZE);
+		}
+	}
+
+	public String getLayout()
+	{
+		return layout;
+	}
+
+	/**
+	 * Convert input date of this layout, see {@link CDateParser#getDate(String, String)}.
+	 * Unlike it, invalid dates (like "2020-13-13") are returned AS IS instead of throwing DateTimeException.
+	 *
+	 * @param format - patter for output string, "MM/dd/yyyy" or "dd.MM.yyyy" - for example
+	 * @return date in specified format, or input date w/o changes if it does not conform to the layout
+	 */
+	public String getDate(final String sInputDate, final String format)
+	{
+		final int packed = parsePacked(sInputDate);
+		if (packed == CDateParser.INVALID_PACKED_DATE)
+		{
+			return sInputDate;
+		}
+		return CDateParser.getFormatCache().get(format).format(packed / 10000, packed / 100 % 100, packed % 100);
+	}
+
+	/**
+	 * Convert array of input dates, output format is compiled once, see {@link #getDate(String, String)}
+	 *
+	 * @return array of converted dates, the same size as input
+	 */
+	public String[] getDates(final String[] inputs, final String format)
+	{
+		final CDateFormat compiled = CDateParser.getFormatCache().get(format);
+		final String[] output = new String[inputs.length];
+		for (int i = 0; i < inputs.length; i++)
+		{
+			final int packed = parsePacked(inputs[i]);
+			output[i] = packed == CDateParser.INVALID_PACKED_DATE ?
+					inputs[i] : compiled.format(packed / 10000, packed / 100 % 100, packed % 100);
+		}
+		return output;
+	}
+
+	/**
+	 * Convert input date to packed number yyyymmdd, see {@link CDateParser#parsePacked(CharSequence)}
+	 *
+	 * @return packed date, or {@link CDateParser#INVALID_PACKED_DATE} if input is not a valid date of this layout
+	 */
+	public int parsePacked(final CharSequence sInputDate)
+	{
+		if (!matches(sInputDate))
+		{
+			return CDateParser.INVALID_PACKED_DATE;
+		}
+		final int year = year(sInputDate);
+		final int month = digits(sInputDate, monthOffset);
+		final int day = digits(sInputDate, dayOffset);
+		return CDateParser.isValidDate(year, month, day, CDateParser.MAX_PACKED_YEAR) ?
+				year * 10000 + month * 100 + day : CDateParser.INVALID_PACKED_DATE;
+	}
+
+	/**
+	 * Convert many dates of this layout in ASCII bytes to packed numbers yyyymmdd, like 19740406.
+	 * Every record starts with a date, the rest of it (line separator, padding) is ignored.
+	 * Records which don't conform to the layout are converted by the heuristics of the parent parser,
+	 * see {@link CDateParser#parsePacked(byte[], int, int)}. No objects are created.
+	 *
+	 * @param src - records of the same size
+	 * @param offset - first byte of the first record
+	 * @param stride - size of record, at least length of the layout, like 11 for "yyyy-MM-dd" and '\n'.
+	 * The last record may be as short as the layout.
+	 * @param count - number of records
+	 * @param dst - packed dates, {@link CDateParser#INVALID_PACKED_DATE} for invalid ones
+	 * @param dstOffset - position of the first packed date in dst
+	 * @return number of valid dates
+	 */
+	public int parsePacked(final byte[] src, final int offset, final int stride, final int count, final int[] dst,
+			final int dstOffset)
+	{
+		if (stride < template.length)
+		{
+			throw new IllegalArgumentException("Stride " + stride + " is less than length of layout " + layout);
+		}
+		Objects.checkFromIndexSize(dstOffset, count, dst.length);
+		if (count == 0)
+		{
+			return 0;
+		}
+		Objects.checkFromIndexSize(offset, (long) (count - 1) * stride + template.length > Integer.MAX_VALUE ?
+				-1 : (count - 1) * stride + template.length, src.length);
+		final boolean swar = template.length >= MIN_SWAR_LENGTH && template.length <= MAX_SWAR_LENGTH;
+		final int lastWord = template.length - Long.BYTES;
+		final CUtf8Sequence input = swar ? null : new CUtf8Sequence();
+		int valid = 0;
+		for (int i = 0; i < count; i++)
+		{
+			final int record = offset + i * stride;
+			int packed = CDateParser.INVALID_PACKED_DATE;
+			boolean conforms = false;
+			if (swar)
+			{
+				final long first = (long) LONGS.get(src, record);
+				final long last = (long) LONGS.get(src, record + lastWord);
+				if (checkWord(first, 0) && checkWord(last, 1))
+				{
+					conforms = true;
+					packed = toPacked(first, last);
+				}
+			} else if (matches(input.wrap(src, record, template.length))) {
+				conforms = true;
+				packed = parsePacked(input);
+			}
+			if (!conforms)
+			{
+				packed = parser.parsePacked(src, record, Math.min(stride, src.length - record));
+			}
+			dst[dstOffset + i] = packed;
+			if (packed != CDateParser.INVALID_PACKED_DATE)
+			{
+				valid++;
+			}
+		}
+		return valid;
+	}
+
+	/**
+	 * Literal chars of 8 bytes are equal to the layout, and all other bytes are digits '0'..'9':
+	 * high nibble of a digit is 3, and adding 6 does not change it.
+	 */
+	private boolean checkWord(final long word, final int index)
+	{
+		final long digits = (word & digitMasks[index]) | (ZEROS & ~digitMasks[index]);
+		return (word & literalMasks[index]) == literals[index]
+				&& ((digits & HIGH_NIBBLES) | (((digits + SIXES) & HIGH_NIBBLES) >>> 4)) == THREES;
+	}
+
+	/**
+	 * @return packed date of checked words, or INVALID_PACKED_DATE if it's not a valid date
+	 */
+	private int toPacked(final long first, final long last)
+	{
+		int year = 0;
+		int digit = 0;
+		for (; digit < yearWidth; digit++)
+		{
+			year = year * 10 + digitAt(first, last, digit);
+		}
+		if (yearWidth == 2)
+		{
+			year += pivotYear / 100 * 100;
+			year = year >= pivotYear ? year - 100 : year;
+		}
+		final int month = digitAt(first, last, digit) * 10 + digitAt(first, last, digit + 1);
+		final int day = digitAt(first, last, digit + 2) * 10 + digitAt(first, last, digit + 3);
+		return CDateParser.isValidDate(year, month, day, CDateParser.MAX_PACKED_YEAR) ?
+				year * 10000 + month * 100 + day : CDateParser.INVALID_PACKED_DATE;
+	}
+
+	private int digitAt(final long first, final long last, final int digit)
+	{
+		return (int) (((digitWords[digit] == 0 ? first : last) >>> digitShifts[digit]) & 0xF);
+	}
+
+	/**
+	 * Convert input date to number of days from 1970-01-01, see {@link CDateParser#parseToEpochDay(CharSequence)}
+	 *
+	 * @return epoch day, or {@link CDateParser#INVALID_EPOCH_DAY} if input is not a valid date of this layout
+	 */
+	public long parseToEpochDay(final CharSequence sInputDate)
+	{
+		final int packed = parsePacked(sInputDate);
+		return packed == CDateParser.INVALID_PACKED_DATE ? CDateParser.INVALID_EPOCH_DAY :
+				CDateParser.toEpochDay(packed / 10000, packed / 100 % 100, packed % 100);
+	}
+
+	/**
+	 * Parse input date into caller-owned result holder, see {@link CDateParser#parse(CharSequence, CDateParseResult)}.
+	 * Inputs of other layouts are {@link CDateParseResult.Status#NOT_A_DATE}.
+	 */
+	public boolean parse(final CharSequence sInputDate, final CDateParseResult result)
+	{
+		if (!matches(sInputDate))
+		{
+			result.reset();
+			return false;
+		}
+		final int year = year(sInputDate);
+		final int month = digits(sInputDate, monthOffset);
+		final int day = digits(sInputDate, dayOffset);
+		final boolean valid = CDateParser.isValidDate(year, month, day, CDateParser.MAX_YEAR);
+		result.set(valid ? CDateParseResult.Status.OK : CDateParseResult.Status.INVALID_DATE,
+				CDateParseResult.Precision.FULL, CDateParser.HEURISTIC_LAYOUT, delimiter, year, month, day);
+		return valid;
+	}
+
+	/**
+	 * Input has length of the layout, digits at fields and the same chars between them
+	 */
+	private boolean matches(final CharSequence str)
+	{
+		if (null == str || str.length() != template.length)
+		{
+			return false;
+		}
+		for (int i = 0; i < template.length; i++)
+		{
+			final char c = str.charAt(i);
+			final char expected = template[i];
+			if (expected == DIGIT ? (char) (c - '0') > 9 : c != expected)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int year(final CharSequence str)
+	{
+		if (yearWidth == 2)
+		{
+			final int year = pivotYear / 100 * 100 + digits(str, yearOffset);
+			return year >= pivotYear ? year - 100 : year;
+		}
+		return digits(str, yearOffset) * 100 + digits(str, yearOffset + 2);
+	}
+
+	/**
+	 * @return value of 2 digits at offset, they are checked already
+	 */
+	private static int digits(final CharSequence str, final int offset)
+	{
+		return (str.charAt(offset) - '0') * 10 + (str.charAt(offset + 1) - '0');
+	}
+
+	@Override
+	public String toString()
+	{
+		return layout;
+	}
+}
@@ -0,0 +1,355 @@
+package goga.kolxo3.sdk.date;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of parse outcomes and input shapes, plus latency histogram of {@link CDateParser#getDate(String, String)}.
+ * <p>
+ * Shapes are the ones the parser resolves layouts by ("yyyy-nn-nn", "mmm yyyy", see {@link #getShapes()}),
+ * their counters are created on the first input of the shape, so a feed with unexpected layouts shows up
+ * as a new shape. There are at most ~1500 shapes, usually a few dozen.
+ * <p>
+ * Enabled by {@link CDateParser.Builder#metrics(CDateMetrics)}, a parser w/o metrics pays one null check.
+ * All counters are {@link LongAdder}s, so parser threads do not contend on them. Latency is kept in
+ * power-of-two buckets of nanoseconds, percentiles are upper bounds of buckets (at most 2x the real value).
+ * Counters are per call, not per parse: results reused from {@link CDateResultCache} are counted again
+ * with the outcome and shape of their first parse.
+ * Instances are thread-safe, one instance may be shared by several parsers.
+ *
+ * @author Igor Zamiatin
+ */
+public final class CDateMetrics
+{
+	/**
+	 * How input date was handled
+	 */
+	public enum Outcome
+	{
+		/** input is not recognized as a date and returned AS IS */
+		AS_IS,
+		/** year only */
+		YEAR,
+		/** month and year */
+		MONTH_YEAR,
+		/** full date */
+		FULL,
+		/** layout of full date is found, but numbers are not a valid date */
+		INVALID
+	}
+
+	/** latency buckets, the last one collects everything longer than 2^(BUCKETS - 2) ns */
+	public static final int BUCKETS = 40;
+
+	/** stats of input which is not counted, see {@link #record(int)} */
+	static final int NOT_RECORDED = -1;
+
+	/** delimiters of the parser and, at the end, none */
+	private static final char[] DELIMITERS = Arrays.copyOf(CDateParser.DELIMITERS, CDateParser.DELIMITERS.length + 1);
+
+	// stats of one input packed into int: outcome, delimiter and flags
+	private static final int OUTCOME_MASK = 0x7;
+	private static final int DELIMITER_SHIFT = 3;
+	private static final int DELIMITER_MASK = 0x7;
+	private static final int STATS_SHORT_YEAR = 1 << 6;
+	private static final int STATS_MONTH_NAME = 1 << 7;
+	private static final int SHAPE_SHIFT = 8;
+
+	private final LongAdder[] outcomes = adders(Outcome.values().length);
+	private final LongAdder[] delimiters = adders(DELIMITERS.length);
+	private final LongAdder shortYears = new LongAdder();
+	private final LongAdder monthNames = new LongAdder();
+	private final LongAdder[] latencies = adders(BUCKETS);
+	private final LongAdder latencyNanos = new LongAdder();
+	/** by signature of CDateShapePlans, created on the first input of the shape */
+	private final AtomicReferenceArray<Shape> shapes = new AtomicReferenceArray<>(CDateShapePlans.SIGNATURES);
+
+	private static LongAdder[] adders(final int count)
+	{
+		final LongAdder[] adders = new LongAdder[count];
+		for (int i = 0; i < count; i++)
+		{
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+
+	/**
+	 * Count scanned input
+	 * @param resolved one of CDateParser.RESOLVED_* constants
+	 * @param valid false if numbers of full date are not a valid date
+	 * @return stats of input, they are cached with the result and counted on hits by {@link #record(int)}
+	 */
+	int record(final CDateScanner scanner, final int resolved, final boolean valid)
+	{
+		final int stats = stats(scanner, resolved, valid);
+		record(stats);
+		return stats;
+	}
+
+	/**
+	 * Count input once more by the stats of its first parse
+	 */
+	void record(final int stats)
+	{
+		outcomes[stats & OUTCOME_MASK].increment();
+		delimiters[(stats >>> DELIMITER_SHIFT) & DELIMITER_MASK].increment();
+		if ((stats & STATS_SHORT_YEAR) != 0)
+		{
+			shortYears.increment();
+		}
+		if ((stats & STATS_MONTH_NAME) != 0)
+		{
+			monthNames.increment();
+		}
+		shape(stats >>> SHAPE_SHIFT).count.increment();
+	}
+
+	private Shape shape(final int signature)
+	{
+		final Shape shape = shapes.get(signature);
+		if (null != shape)
+		{
+			return shape;
+		}
+		final Shape created = new Shape(CDateShapePlans.describe(signature));
+		return shapes.compareAndSet(signature, null, created) ? created : shapes.get(signature);
+	}
+
+	private static int stats(final CDateScanner scanner, final int resolved, final boolean valid)
+	{
+		final Outcome outcome;
+		switch (resolved)
+		{
+			case CDateParser.RESOLVED_YEAR:
+				outcome = Outcome.YEAR;
+				break;
+			case CDateParser.RESOLVED_MONTH_YEAR:
+				outcome = Outcome.MONTH_YEAR;
+				break;
+			case CDateParser.RESOLVED_FULL:
+				outcome = valid ? Outcome.FULL : Outcome.INVALID;
+				break;
+			default:
+				outcome = Outcome.AS_IS;
+				break;
+		}
+		int stats = outcome.ordinal() | delimiterIndex(scanner.delimiter()) << DELIMITER_SHIFT
+				| CDateShapePlans.signature(scanner) << SHAPE_SHIFT;
+		if (outcome != Outcome.AS_IS && outcome != Outcome.YEAR)
+		{
+			if (scanner.is(scanner.yearIndex(), CDateScanner.FLAG_SHORT_YEAR))
+			{
+				stats |= STATS_SHORT_YEAR;
+			}
+			if (scanner.monthByName())
+			{
+				stats |= STATS_MONTH_NAME;
+			}
+		}
+		return stats;
+	}
+
+	void recordLatency(final long nanos)
+	{
+		latencies[bucket(nanos)].increment();
+		latencyNanos.add(nanos);
+	}
+
+	public long getCount(final Outcome outcome)
+	{
+		return outcomes[outcome.ordinal()].sum();
+	}
+
+	/**
+	 * @param delimiter one of {@link CDateParser#DELIMITERS}, or 0 for inputs w/o delimiter
+	 * @return number of inputs with this delimiter
+	 */
+	public long getDelimiterCount(final char delimiter)
+	{
+		for (int i = 0; i < DELIMITERS.length; i++)
+		{
+			if (DELIMITERS[i] == delimiter)
+			{
+				return delimiters[i].sum();
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @return number of converted dates with two-digit year expanded to four digits
+	 */
+	public long getShortYearCount()
+	{
+		return shortYears.sum();
+	}
+
+	/**
+	 * @return number of converted dates with alphabetic month
+	 */
+	public long getMonthNameCount()
+	{
+		return monthNames.sum();
+	}
+
+	/**
+	 * @return counters of input shapes seen so far, they keep counting after this call
+	 */
+	public List<Shape> getShapes()
+	{
+		final List<Shape> result = new ArrayList<>();
+		for (int i = 0; i < shapes.length(); i++)
+		{
+			final Shape shape = shapes.get(i);
+			if (null != shape)
+			{
+				result.add(shape);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return number of measured calls
+	 */
+	public long getLatencyCount()
+	{
+		long count = 0;
+		for (final LongAdder latency : latencies)
+		{
+			count += latency.sum();
+		}
+		return count;
+	}
+
+	public long getLatencyTotal(final TimeUnit unit)
+	{
+		return unit.convert(latencyNanos.sum(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return number of calls in the bucket, see {@link #getLatencyBucketBound(int)}
+	 */
+	public long getLatencyBucketCount(final int bucket)
+	{
+		return latencies[bucket].sum();
+	}
+
+	/**
+	 * @return upper bound (exclusive) of bucket in nanoseconds, Long.MAX_VALUE for the last one
+	 */
+	public static long getLatencyBucketBound(final int bucket)
+	{
+		return bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+	}
+
+	/**
+	 * @param quantile 0..1, like 0.99
+	 * @return upper bound of latency of this quantile in nanoseconds, 0 if nothing was measured
+	 */
+	public long getLatencyPercentile(final double quantile)
+	{
+		final long[] counts = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			counts[i] = latencies[i].sum();
+			total += counts[i];
+		}
+		if (total == 0)
+		{
+			return 0;
+		}
+		final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			seen += counts[i];
+			if (seen >= rank)
+			{
+				return getLatencyBucketBound(i);
+			}
+		}
+		return getLatencyBucketBound(BUCKETS - 1);
+	}
+
+	/**
+	 * Reset all counters
+	 */
+	public void reset()
+	{
+		for (final LongAdder adder : outcomes) adder.reset();
+		for (final LongAdder adder : delimiters) adder.reset();
+		for (final LongAdder adder : latencies) adder.reset();
+		shortYears.reset();
+		monthNames.reset();
+		latencyNanos.reset();
+		for (int i = 0; i < shapes.length(); i++)
+		{
+			final Shape shape = shapes.get(i);
+			if (null != shape)
+			{
+				shape.count.reset();
+			}
+		}
+	}
+
+	private static int delimiterIndex(final char delimiter)
+	{
+		for (int i = 0; i < DELIMITERS.length - 1; i++)
+		{
+			if (DELIMITERS[i] == delimiter)
+			{
+				return i;
+			}
+		}
+		return DELIMITERS.length - 1; // none, or NUL
+	}
+
+	/**
+	 * Bucket i holds latencies from 2^(i-1) to 2^i - 1 ns
+	 */
+	private static int bucket(final long nanos)
+	{
+		return Math.min(64 - Long.numberOfLeadingZeros(Math.max(0, nanos)), BUCKETS - 1);
+	}
+
+	/**
+	 * Counter of inputs of one shape, see {@link #getShapes()}
+	 */
+	public static final class Shape
+	{
+		private final String name;
+		private final LongAdder count = new LongAdder();
+
+		private Shape(final String name)
+		{
+			this.name = name;
+		}
+
+		/**
+		 * @return classes of parts joined by the delimiter, like "yyyy-nn-dd", "nn/nn/yy" or "mmm yyyy";
+		 * "unsplit" for input which is not 1..3 parts
+		 */
+		public String getName()
+		{
+			return name;
+		}
+
+		public long getCount()
+		{
+			return count.sum();
+		}
+
+		@Override
+		public String toString()
+		{
+			return name + "=" + count.sum();
+		}
+	}
+}
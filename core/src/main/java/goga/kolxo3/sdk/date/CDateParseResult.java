@@ -0,0 +1,248 @@
+package goga.kolxo3.sdk.date;
+
+/**
+ * Reusable holder of parse result, filled by {@link CDateParser#parse(CharSequence, CDateParseResult)}.
+ * <p>
+ * One holder may be reused for any number of inputs, parsing into it allocates nothing.
+ * Instances are mutable and not thread-safe: keep one holder per thread.
+ *
+ * @author Igor Zamiatin
+ */
+public final class CDateParseResult
+{
+	/**
+	 * Outcome of parsing
+	 */
+	public enum Status
+	{
+		/** date is found: year, month and year, or full date, see {@link Precision} */
+		OK,
+		/** input is not recognized as a date, {@link CDateParser#getDate(String, String)} returns it AS IS */
+		NOT_A_DATE,
+		/**
+		 * layout is found, but numbers are not a valid date, like "13/13/2020" or "32/32".
+		 * Note that getDate checks full dates only, "32/32" is converted to "32/1932" there.
+		 */
+		INVALID_DATE
+	}
+
+	/**
+	 * Which fields of date are known
+	 */
+	public enum Precision
+	{
+		NONE,
+		/** year only, like "1989" */
+		YEAR,
+		/** month and year, like "1974-06" */
+		MONTH_YEAR,
+		/** day, month and year */
+		FULL
+	}
+
+	/**
+	 * Rule which decided positions of year, month and day
+	 */
+	public enum Heuristic
+	{
+		NONE,
+		/** the only part is a year */
+		YEAR_ONLY,
+		/** month is given by name, like "Apr" */
+		MONTH_NAME,
+		/** day is known by its value 13-31, so the other number is month */
+		DAY_VALUE,
+		/** fields follow the year in fixed order: year first, or month right before year at the end */
+		POSITION,
+		/** both day and month are 01-12, order is taken from field order of the delimiter (MDY or DMY) */
+		FIELD_ORDER,
+		/** fields are at fixed offsets of a known layout, see {@link CDateParser#forLayout(String)} */
+		LAYOUT
+	}
+
+	private static final Heuristic[] HEURISTICS = Heuristic.values();
+
+	private Status status = Status.NOT_A_DATE;
+	private Precision precision = Precision.NONE;
+	private Heuristic heuristic = Heuristic.NONE;
+	private int year;
+	private int month;
+	private int day;
+	private char delimiter;
+	private boolean time;
+	private int hour;
+	private int minute;
+	private int second;
+	private int nano;
+	private boolean offset;
+	private int offsetSeconds;
+
+	/**
+	 * Clear result, as if input is not a date
+	 */
+	public CDateParseResult reset()
+	{
+		status = Status.NOT_A_DATE;
+		precision = Precision.NONE;
+		heuristic = Heuristic.NONE;
+		year = 0;
+		month = 0;
+		day = 0;
+		delimiter = 0;
+		clearTime();
+		return this;
+	}
+
+	void set(final Status status, final Precision precision, final int heuristic, final char delimiter,
+			final int year, final int month, final int day)
+	{
+		this.status = status;
+		this.precision = precision;
+		this.heuristic = HEURISTICS[heuristic];
+		this.delimiter = delimiter;
+		this.year = year;
+		this.month = month;
+		this.day = day;
+		clearTime();
+	}
+
+	/**
+	 * Set time of day after {@link #set}
+	 * @param offsetSeconds - offset from UTC, CDateScanner.NO_OFFSET if there is none
+	 */
+	void setTime(final int hour, final int minute, final int second, final int nano, final int offsetSeconds)
+	{
+		this.time = true;
+		this.hour = hour;
+		this.minute = minute;
+		this.second = second;
+		this.nano = nano;
+		this.offset = offsetSeconds != CDateScanner.NO_OFFSET;
+		this.offsetSeconds = offset ? offsetSeconds : 0;
+	}
+
+	private void clearTime()
+	{
+		time = false;
+		hour = 0;
+		minute = 0;
+		second = 0;
+		nano = 0;
+		offset = false;
+		offsetSeconds = 0;
+	}
+
+	public Status getStatus()
+	{
+		return status;
+	}
+
+	/**
+	 * @return true if status is {@link Status#OK}
+	 */
+	public boolean isValid()
+	{
+		return status == Status.OK;
+	}
+
+	public Precision getPrecision()
+	{
+		return precision;
+	}
+
+	public Heuristic getHeuristic()
+	{
+		return heuristic;
+	}
+
+	/**
+	 * @return year, 0 if unknown
+	 */
+	public int getYear()
+	{
+		return year;
+	}
+
+	/**
+	 * @return month 1..12, 0 if unknown
+	 */
+	public int getMonth()
+	{
+		return month;
+	}
+
+	/**
+	 * @return day 1..31, 0 if unknown
+	 */
+	public int getDay()
+	{
+		return day;
+	}
+
+	/**
+	 * @return delimiter of input date, 0 if there is none
+	 */
+	public char getDelimiter()
+	{
+		return delimiter;
+	}
+
+	/**
+	 * @return true if input has time of day after the date
+	 */
+	public boolean hasTime()
+	{
+		return time;
+	}
+
+	/**
+	 * @return hour 0..23, 0 if there is no time
+	 */
+	public int getHour()
+	{
+		return hour;
+	}
+
+	public int getMinute()
+	{
+		return minute;
+	}
+
+	public int getSecond()
+	{
+		return second;
+	}
+
+	/**
+	 * @return fraction of second in nanoseconds
+	 */
+	public int getNano()
+	{
+		return nano;
+	}
+
+	/**
+	 * @return true if time has offset from UTC, like "Z" or "+03:00"
+	 */
+	public boolean hasOffset()
+	{
+		return offset;
+	}
+
+	/**
+	 * @return offset from UTC in seconds, 0 if there is none
+	 */
+	public int getOffsetSeconds()
+	{
+		return offsetSeconds;
+	}
+
+	@Override
+	public String toString()
+	{
+		return status + " " + precision + " " + year + "-" + month + "-" + day
+				+ (time ? String.format(" %02d:%02d:%02d.%09d", hour, minute, second, nano) : "")
+				+ (offset ? " " + offsetSeconds + "s" : "")
+				+ " by " + heuristic + (delimiter != 0 ? " '" + delimiter + "'" : "");
+	}
+}
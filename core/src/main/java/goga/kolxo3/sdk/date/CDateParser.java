@@ -0,0 +1,1834 @@
+package goga.kolxo3.sdk.date;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @author Igor Zamiatin
+ */
+public class CDateParser {
+	public static final String[] MONTHS = {
+			"January", "February", "March", "April", "May", "June",
+			"July", "August", "September", "October", "November", "December"
+	};
+	public static final char[] DELIMITERS = {'.', '-', '/', ' '};
+	
+	/** delimiter of short output dates (month and year) when output pattern has no delimiter */
+	public static final char DEFAULT_DELIMITER = '/';
+	/** two-digit numbers "00".."12", precomputed instead of formatting */
+	private static final String[] TWO_DIGITS = {
+			"00", "01", "02", "03", "04", "05", "06", "07", "08", "09", "10", "11", "12"
+	};
+	
+	static final int RESOLVED_NONE = 0; // input date is returned AS IS
+	static final int RESOLVED_YEAR = 1;
+	static final int RESOLVED_MONTH_YEAR = 2;
+	static final int RESOLVED_FULL = 3;
+	
+	// rules resolving the layout, ordinals of CDateParseResult.Heuristic
+	static final int HEURISTIC_NONE = 0;
+	static final int HEURISTIC_YEAR_ONLY = 1;
+	static final int HEURISTIC_MONTH_NAME = 2;
+	static final int HEURISTIC_DAY_VALUE = 3;
+	static final int HEURISTIC_POSITION = 4;
+	static final int HEURISTIC_FIELD_ORDER = 5;
+	static final int HEURISTIC_LAYOUT = 6;
+	
+	/** returned by {@link #parseToEpochDay(CharSequence)} when input is not a full valid date */
+	public static final long INVALID_EPOCH_DAY = Long.MIN_VALUE;
+	/** returned by {@link #parseToEpochSecond(CharSequence)} when input is not a full valid date */
+	public static final long INVALID_EPOCH_SECOND = Long.MIN_VALUE;
+	/** returned by {@link #parseToEpochMilli(CharSequence)} when input is not a full valid date */
+	public static final long INVALID_EPOCH_MILLI = Long.MIN_VALUE;
+	/** returned by {@link #parsePacked(CharSequence)} when input is not a valid date */
+	public static final int INVALID_PACKED_DATE = -1;
+	
+	static final int MAX_YEAR = 999_999_999; // the same as LocalDate
+	static final int MAX_PACKED_YEAR = 214_748; // yyyymmdd still fits into int
+	private static final long DAYS_0000_TO_1970 = 719_528L;
+	private static final long SECONDS_PER_DAY = 86_400L;
+	private static final byte[] DAYS_IN_MONTH = {0, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+	
+	static final CDateParseResult.Precision[] PRECISIONS = CDateParseResult.Precision.values(); // by RESOLVED_*
+	private static final int NONE_PLAN = CDateShapePlans.encode(RESOLVED_NONE, -1, -1, -1, false, HEURISTIC_NONE);
+	
+	private static final CDateFormatCache FORMATS = new CDateFormatCache();
+	// anonymous classes, not lambdas: the first lambda of a JVM costs milliseconds of bootstrap at class init
+	private static final ThreadLocal<CDateScanner> SCANNER = new ThreadLocal<CDateScanner>()
+	{
+		@Override
+		protected CDateScanner initialValue()
+		{
+			return new CDateScanner();
+		}
+	};
+	private static final ThreadLocal<BytesContext> BYTES = new ThreadLocal<BytesContext>()
+	{
+		@Override
+		protected BytesContext initialValue()
+		{
+			return new BytesContext();
+		}
+	};
+	private static final int MAX_BYTES_OUTPUT = 256;
+	
+	/** returned by methods writing into a buffer when input date should be kept AS IS */
+	public static final int NOT_CONVERTED = -1;
+	/** returned by methods writing into a buffer when converted date does not fit into it */
+	public static final int BUFFER_TOO_SMALL = -2;
+	
+	/** batches up to this size are converted in the caller thread */
+	public static final int DEFAULT_BATCH_THRESHOLD = 8192;
+	
+	/** field order of full dates with numeric day and month, used when the values do not tell it */
+	public enum FieldOrder
+	{
+		/** month, day, year - "04/06/1974" */
+		MDY,
+		/** day, month, year - "06 04 1974" */
+		DMY
+	}
+	
+	/** field order per delimiter of {@link #DELIMITERS}, dates with '.' are split by primitive methods only, not by getDate */
+	private static final FieldOrder[] DEFAULT_FIELD_ORDERS = {FieldOrder.DMY, FieldOrder.MDY, FieldOrder.MDY, FieldOrder.MDY};
+	private static final CDateShapePlans DEFAULT_PLANS = new CDateShapePlans();
+	
+	private final CDateResultCache resultCache;
+	private final CMonthNames monthNames;
+	/** null - default time zone, resolved with the pivot year, see {@link #getPivotYear()} */
+	private final Clock clock;
+	/** 0 till the first two-digit year, set once (racy but idempotent, as {@link String#hashCode()}) */
+	private int pivotYear;
+	private final FieldOrder[] fieldOrders;
+	private final char defaultDelimiter;
+	private final CDateShapePlans plans;
+	private final CDateMetrics metrics;
+	private final CDateRejections rejections;
+	
+	/**
+	 * Parser with default settings, see {@link Builder}
+	 */
+	public CDateParser()
+	{
+		this(builder());
+	}
+	
+	/**
+	 * @param resultCache cache of results for repeated input dates, null - do not cache
+	 */
+	public CDateParser(final CDateResultCache resultCache)
+	{
+		this(builder().resultCache(resultCache));
+	}
+	
+	/**
+	 * @param resultCache cache of results for repeated input dates, null - do not cache.
+	 * Don't share one cache between parsers with different month names.
+	 * @param monthNames month names to recognize, {@link CMonthNames#ENGLISH} by default
+	 */
+	public CDateParser(final CDateResultCache resultCache, final CMonthNames monthNames)
+	{
+		this(builder().resultCache(resultCache).monthNames(monthNames));
+	}
+	
+	private CDateParser(final Builder builder)
+	{
+		this.resultCache = builder.resultCache;
+		this.monthNames = builder.monthNames;
+		this.clock = builder.clock;
+		this.pivotYear = builder.pivotYear;
+		this.fieldOrders = builder.fieldOrders.clone();
+		this.defaultDelimiter = builder.defaultDelimiter;
+		// plans depend on field orders, parsers with default orders share them
+		this.plans = Arrays.equals(fieldOrders, DEFAULT_FIELD_ORDERS) ? DEFAULT_PLANS : new CDateShapePlans();
+		this.metrics = builder.metrics;
+		this.rejections = builder.rejections;
+	}
+	
+	/**
+	 * Builder of parser with custom settings, like
+	 * {@code CDateParser.builder().pivotYear(2000).fieldOrder('/', FieldOrder.DMY).build()}
+	 */
+	public static Builder builder()
+	{
+		return new Builder();
+	}
+	
+	/**
+	 * Builder with settings of this parser, to derive a parser which differs in some of them.
+	 * Set another result cache (or null) when derived parser converts dates differently.
+	 */
+	public Builder toBuilder()
+	{
+		final Builder builder = builder().resultCache(resultCache).monthNames(monthNames)
+				.defaultDelimiter(defaultDelimiter).metrics(metrics).rejections(rejections);
+		builder.clock = clock;
+		builder.pivotYear = pivotYear;
+		System.arraycopy(fieldOrders, 0, builder.fieldOrders, 0, fieldOrders.length);
+		return builder;
+	}
+	
+	/**
+	 * Strict parser of one fixed layout, like {@code CDateParser.forLayout("yyyy-MM-dd")}.
+	 * It checks digits at fixed offsets only, inputs of any other shape are not converted.
+	 * Two-digit years ({@code yy}) are resolved by the current year, see {@link Builder#pivotYear(int)}.
+	 *
+	 * @param layout - fields {@code yyyy} or {@code yy}, {@code MM} and {@code dd} with any non-letter chars between
+	 * @throws IllegalArgumentException if layout is not a fixed-width one
+	 */
+	public static CDateLayoutParser forLayout(final String layout)
+	{
+		return new CDateParser().withLayout(layout);
+	}
+	
+	/**
+	 * Strict parser of one fixed layout, see {@link #forLayout(String)}. Two-digit years are resolved by pivot year
+	 * of this parser, and this parser converts records of bulk input which don't conform to the layout.
+	 */
+	public CDateLayoutParser withLayout(final String layout)
+	{
+		return new CDateLayoutParser(layout, this);
+	}
+	
+	/**
+	 * Month names recognized by this parser
+	 */
+	public CMonthNames getMonthNames()
+	{
+		return monthNames;
+	}
+	
+	/**
+	 * Two-digit years are years from pivotYear - 100 till pivotYear - 1
+	 */
+	public int getPivotYear()
+	{
+		int year = pivotYear;
+		if (year == 0)
+		{
+			// the current year is resolved lazily: time zone rules are not loaded by parsers of 4-digit years
+			year = LocalDate.now(null != clock ? clock : Clock.systemDefaultZone()).getYear();
+			pivotYear = year;
+		}
+		return year;
+	}
+	
+	/**
+	 * Field order of full numeric dates with this delimiter, null if such dates are not converted
+	 */
+	public FieldOrder getFieldOrder(final char delimiter)
+	{
+		final int index = delimiterIndex(delimiter);
+		return index >= 0 ? fieldOrders[index] : null;
+	}
+	
+	public char getDefaultDelimiter()
+	{
+		return defaultDelimiter;
+	}
+	
+	/**
+	 * Metrics of this parser, null if they are disabled
+	 */
+	public CDateMetrics getMetrics()
+	{
+		return metrics;
+	}
+	
+	/**
+	 * Samples of rejected input dates, null if they are disabled
+	 */
+	public CDateRejections getRejections()
+	{
+		return rejections;
+	}
+	
+	/**
+	 * Convert any input date to date with needed pattern if possible
+	 *
+	 * Input date may be followed by time of day, like "1974-04-06T10:15:30Z" or "02/02/2020 10:15".
+	 * Time fields of format ("yyyy-MM-dd HH:mm XXX") are filled from it, UTC if time has no offset.
+	 * Full date w/o time can't fill them: UnsupportedTemporalTypeException is thrown, as it always was.
+	 * Formats w/o time fields drop time of input.
+	 *
+	 * @param sInputDate - input date as string in various formats
+	 * @param format - patter for output string, "MM/dd/yyyy" or "dd.MM.yyyy" - for example
+	 * @return string with date in specified format if possible, on any error return input date w/o changes
+	 */
+	public String getDate(final String sInputDate, final String format)
+	{
+		return convert(sInputDate, format, null);
+	}
+	
+	/**
+	 * Convert array of input dates, see {@link #getDate(String, String)}.
+	 * Output format is compiled once per batch, large batches are split across common ForkJoinPool.
+	 *
+	 * @return array of converted dates, the same size as input
+	 */
+	public String[] getDates(final String[] inputs, final String format)
+	{
+		final String[] output = new String[inputs.length];
+		getDates(inputs, 0, inputs.length, format, output, 0);
+		return output;
+	}
+	
+	/**
+	 * Convert range of input dates into caller-supplied output array
+	 *
+	 * @param inputs - column of input dates
+	 * @param offset - first input date to convert
+	 * @param length - number of dates to convert
+	 * @param format - patter for output string
+	 * @param output - array for converted dates
+	 * @param outputOffset - position of the first converted date in output
+	 */
+	public void getDates(final String[] inputs, final int offset, final int length, final String format,
+			final String[] output, final int outputOffset)
+	{
+		getDates(inputs, offset, length, format, output, outputOffset, ForkJoinPool.commonPool(), DEFAULT_BATCH_THRESHOLD);
+	}
+	
+	/**
+	 * Convert range of input dates into caller-supplied output array
+	 *
+	 * @param pool - pool to run parts of large batch
+	 * @param threshold - batches up to this size are converted in the caller thread w/o splitting
+	 */
+	public void getDates(final String[] inputs, final int offset, final int length, final String format,
+			final String[] output, final int outputOffset, final ForkJoinPool pool, final int threshold)
+	{
+		Objects.checkFromIndexSize(offset, length, inputs.length);
+		Objects.checkFromIndexSize(outputOffset, length, output.length);
+		if (threshold < 1)
+		{
+			throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+		}
+		final CDateFormat compiled = compileFormat(format);
+		final BatchTask task = new BatchTask(this, inputs, offset, offset + length, format, compiled,
+				output, outputOffset - offset, threshold);
+		if (length <= threshold)
+		{
+			task.compute();
+		} else {
+			pool.invoke(task);
+		}
+	}
+	
+	/**
+	 * @param compiled - compiled format, or null to get it from registry when needed
+	 */
+	private String convert(final String sInputDate, final String format, final CDateFormat compiled)
+	{
+		if (null == metrics)
+		{
+			return lookup(sInputDate, format, compiled);
+		}
+		final long started = System.nanoTime();
+		try
+		{
+			return lookup(sInputDate, format, compiled);
+		}
+		finally
+		{
+			metrics.recordLatency(System.nanoTime() - started);
+		}
+	}
+	
+	/**
+	 * Get result from cache, or parse date
+	 */
+	private String lookup(final String sInputDate, final String format, final CDateFormat compiled)
+	{
+		if (null != resultCache && null != sInputDate)
+		{
+			final CDateResultCache.Entry entry = resultCache.find(sInputDate, format);
+			if (null != entry)
+			{
+				if (null != metrics && entry.stats != CDateMetrics.NOT_RECORDED)
+				{
+					metrics.record(entry.stats);
+				}
+				return entry.result;
+			}
+			final String result = parseDate(sInputDate, format, compiled);
+			resultCache.put(sInputDate, format, result, null != metrics ? SCANNER.get().stats() : CDateMetrics.NOT_RECORDED);
+			return result;
+		}
+		return parseDate(sInputDate, format, compiled);
+	}
+	
+	private String parseDate(final String sInputDate, final String format, final CDateFormat compiled)
+	{
+		if (null != sInputDate)
+		{
+			final CDateScanner scanner = SCANNER.get();
+			final int resolved = resolve(scanner, sInputDate);
+			if (null != metrics && resolved != RESOLVED_FULL)
+			{
+				scanner.stats(metrics.record(scanner, resolved, true));
+			}
+			switch (resolved)
+			{
+				case RESOLVED_YEAR: // when date is year only
+					final int start = scanner.start(0);
+					final int end = scanner.end(0);
+					return (start == 0 && end == sInputDate.length()) ? sInputDate : sInputDate.substring(start, end);
+				case RESOLVED_MONTH_YEAR:
+					final char formatDelimiter = detectDelimiter(format); // use delimiter from input format!
+					final StringBuilder sb = new StringBuilder(sInputDate.length() + 4);
+					appendMonth(sb, scanner).append(formatDelimiter != 0 ? formatDelimiter : defaultDelimiter);
+					return appendYear(sb, scanner).toString();
+				case RESOLVED_FULL:
+					return formatFullDate(scanner, sInputDate, format, compiled);
+				default:
+					if (null != rejections)
+					{
+						rejections.record(sInputDate, rejectedLayout(scanner));
+					}
+					break;
+			}
+		}
+		return sInputDate; // return input data AS IS
+	}
+	
+	/**
+	 * Write converted date into char buffer. Unlike {@link #getDate(String, String)} no String is created
+	 * for the numeric output formats, and invalid dates (like "13/13/2020") are not converted instead of
+	 * throwing DateTimeException.
+	 *
+	 * @param compiled - compiled format, or null to get it from registry when needed
+	 * @return number of written chars, {@link #NOT_CONVERTED} if input date should be kept AS IS,
+	 * or {@link #BUFFER_TOO_SMALL}
+	 */
+	int formatTo(final CharSequence sInputDate, final String format, final CDateFormat compiled,
+			final char[] dst, final int offset)
+	{
+		if (null == sInputDate)
+		{
+			return NOT_CONVERTED;
+		}
+		final CDateScanner scanner = SCANNER.get();
+		final int resolved = resolve(scanner, sInputDate);
+		if (null != metrics && resolved != RESOLVED_FULL)
+		{
+			metrics.record(scanner, resolved, true);
+		}
+		switch (resolved)
+		{
+			case RESOLVED_YEAR: // when date is year only
+			{
+				final int length = scanner.copyPart(0, dst, offset);
+				return length < 0 ? BUFFER_TOO_SMALL : length;
+			}
+			case RESOLVED_MONTH_YEAR:
+			{
+				final int monthLength = writeMonth(scanner, dst, offset);
+				if (monthLength < 0 || offset + monthLength >= dst.length)
+				{
+					return BUFFER_TOO_SMALL;
+				}
+				final char formatDelimiter = null != compiled ? compiled.getDelimiter() : detectDelimiter(format);
+				dst[offset + monthLength] = formatDelimiter != 0 ? formatDelimiter : defaultDelimiter;
+				final int yearLength = writeYear(scanner, dst, offset + monthLength + 1);
+				return yearLength < 0 ? BUFFER_TOO_SMALL : monthLength + 1 + yearLength;
+			}
+			case RESOLVED_FULL:
+			{
+				final long year = getYear(scanner);
+				final long month = getMonth(scanner);
+				final long day = getDay(scanner);
+				final boolean valid = isValidDate(year, month, day, MAX_YEAR);
+				if (null != metrics)
+				{
+					metrics.record(scanner, RESOLVED_FULL, valid);
+				}
+				if (!valid)
+				{
+					if (null != rejections)
+					{
+						rejections.record(sInputDate, rejectedDate(year, month, day));
+					}
+					return NOT_CONVERTED;
+				}
+				final CDateFormat outputFormat = null != compiled ? compiled : FORMATS.get(format);
+				if (outputFormat.hasTime() && !scanner.hasTime())
+				{
+					return NOT_CONVERTED; // no time to fill the pattern, getDate throws here
+				}
+				if (dst.length - offset >= CDateFormat.FAST_LENGTH)
+				{
+					final int length = outputFormat.write((int) year, (int) month, (int) day, dst, offset);
+					if (length >= 0)
+					{
+						return length;
+					}
+				}
+				final String date = format(outputFormat, scanner, (int) year, (int) month, (int) day);
+				if (dst.length - offset < date.length())
+				{
+					return BUFFER_TOO_SMALL;
+				}
+				date.getChars(0, date.length(), dst, offset);
+				return date.length();
+			}
+			default:
+				if (null != rejections)
+				{
+					rejections.record(sInputDate, rejectedLayout(scanner));
+				}
+				return NOT_CONVERTED;
+		}
+	}
+	
+	/**
+	 * Compile output format once for the batch. Invalid pattern is not an error here,
+	 * it fails only when a full date has to be formatted - the same as for single date.
+	 */
+	private static CDateFormat compileFormat(final String format)
+	{
+		if (null == format)
+		{
+			return null;
+		}
+		try
+		{
+			return FORMATS.get(format);
+		}
+		catch (IllegalArgumentException e)
+		{
+			return null;
+		}
+	}
+	
+	/**
+	 * Convert full input date (day, month, and year) to number of days from 1970-01-01,
+	 * the same value as {@link LocalDate#toEpochDay()} of the date {@link #getDate(String, String)} detects.
+	 * Like all primitive methods it parses dotted dates too ("06.04.1974"), getDate returns them AS IS.
+	 * No objects are created.
+	 *
+	 * @param sInputDate - input date in various formats
+	 * @return epoch day, or {@link #INVALID_EPOCH_DAY} if input is not a full valid date
+	 */
+	public long parseToEpochDay(final CharSequence sInputDate)
+	{
+		if (null != sInputDate)
+		{
+			final CDateScanner scanner = SCANNER.get();
+			if (resolve(scanner, sInputDate, true) == RESOLVED_FULL)
+			{
+				final long year = getYear(scanner);
+				final long month = getMonth(scanner);
+				final long day = getDay(scanner);
+				if (isValidDate(year, month, day, MAX_YEAR))
+				{
+					return toEpochDay((int) year, (int) month, (int) day);
+				}
+			}
+		}
+		return INVALID_EPOCH_DAY;
+	}
+	
+	/**
+	 * Convert full input date with optional time of day ("1974-04-06T10:15:30+03:00", "02/02/2020 10:15")
+	 * to seconds from 1970-01-01T00:00Z. Time w/o offset is in UTC, date w/o time is midnight.
+	 * Dotted dates are parsed too ("06.04.1974 10:15:30 +0300"), see {@link #parseToEpochDay(CharSequence)}.
+	 * No objects are created.
+	 *
+	 * @return epoch second, or {@link #INVALID_EPOCH_SECOND} if input is not a full valid date
+	 */
+	public long parseToEpochSecond(final CharSequence sInputDate)
+	{
+		final long epochDay = parseToEpochDay(sInputDate);
+		return epochDay != INVALID_EPOCH_DAY ? toEpochSecond(epochDay, SCANNER.get()) : INVALID_EPOCH_SECOND;
+	}
+	
+	/**
+	 * Convert full input date with optional time of day to milliseconds from 1970-01-01T00:00Z,
+	 * see {@link #parseToEpochSecond(CharSequence)}. Fraction of second is truncated to milliseconds.
+	 *
+	 * @return epoch millisecond, or {@link #INVALID_EPOCH_MILLI} if input is not a full valid date
+	 * or it does not fit into long
+	 */
+	public long parseToEpochMilli(final CharSequence sInputDate)
+	{
+		final long epochDay = parseToEpochDay(sInputDate);
+		if (epochDay == INVALID_EPOCH_DAY)
+		{
+			return INVALID_EPOCH_MILLI;
+		}
+		final CDateScanner scanner = SCANNER.get();
+		final long seconds = toEpochSecond(epochDay, scanner);
+		if (seconds > Long.MAX_VALUE / 1000 - 1 || seconds < Long.MIN_VALUE / 1000 + 1)
+		{
+			return INVALID_EPOCH_MILLI;
+		}
+		return seconds * 1000 + (scanner.hasTime() ? scanner.nano() / 1_000_000 : 0);
+	}
+	
+	private static long toEpochSecond(final long epochDay, final CDateScanner scanner)
+	{
+		long seconds = epochDay * SECONDS_PER_DAY;
+		if (scanner.hasTime())
+		{
+			seconds += scanner.hour() * 3600 + scanner.minute() * 60 + scanner.second();
+			if (scanner.offsetSeconds() != CDateScanner.NO_OFFSET)
+			{
+				seconds -= scanner.offsetSeconds();
+			}
+		}
+		return seconds;
+	}
+	
+	/**
+	 * Convert range of input dates to epoch days in off-heap column, see {@link #parseToEpochDay(CharSequence)}.
+	 * No strings are created, large ranges are split across common ForkJoinPool.
+	 *
+	 * @param inputs - column of input dates
+	 * @param offset - first input date to convert
+	 * @param length - number of dates to convert
+	 * @param column - off-heap column for epoch days, rows of dates which are not full valid ones are invalid
+	 * @param row - row of the first converted date in column
+	 * @return number of valid dates
+	 */
+	public int parseToColumn(final String[] inputs, final int offset, final int length, final CDateEpochColumn column,
+			final int row)
+	{
+		return parseToColumn(inputs, offset, length, column, row, ForkJoinPool.commonPool(), DEFAULT_BATCH_THRESHOLD);
+	}
+	
+	/**
+	 * Convert range of input dates to epoch days in off-heap column
+	 *
+	 * @param pool - pool to run parts of large range
+	 * @param threshold - ranges up to this size are converted in the caller thread w/o splitting
+	 */
+	public int parseToColumn(final String[] inputs, final int offset, final int length, final CDateEpochColumn column,
+			final int row, final ForkJoinPool pool, final int threshold)
+	{
+		Objects.checkFromIndexSize(offset, length, inputs.length);
+		Objects.checkFromIndexSize(row, length, column.size());
+		if (threshold < 1)
+		{
+			throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+		}
+		final ColumnTask task = new ColumnTask(this, inputs, row, row + length, offset - row, column, threshold);
+		if (length <= threshold)
+		{
+			task.compute();
+		} else {
+			pool.invoke(task);
+		}
+		return task.valid;
+	}
+	
+	/**
+	 * Convert input date to packed number yyyymmdd, like 19740406 for "1974-04-06".
+	 * Short dates are packed with zero day (197406 -> 19740600), year only - with zero month and day (19740000).
+	 * Dotted dates are parsed too ("06.04.1974"), see {@link #parseToEpochDay(CharSequence)}.
+	 * No objects are created.
+	 *
+	 * @param sInputDate - input date in various formats
+	 * @return packed date, or {@link #INVALID_PACKED_DATE} if input is not a valid date
+	 */
+	public int parsePacked(final CharSequence sInputDate)
+	{
+		if (null != sInputDate)
+		{
+			final CDateScanner scanner = SCANNER.get();
+			switch (resolve(scanner, sInputDate, true))
+			{
+				case RESOLVED_YEAR:
+					return scanner.value(0) * 10000;
+				case RESOLVED_MONTH_YEAR:
+				{
+					final long year = getYear(scanner);
+					final long month = getMonth(scanner);
+					if (isValidDate(year, month, 1, MAX_PACKED_YEAR))
+					{
+						return (int) (year * 10000 + month * 100);
+					}
+					break;
+				}
+				case RESOLVED_FULL:
+				{
+					final long year = getYear(scanner);
+					final long month = getMonth(scanner);
+					final long day = getDay(scanner);
+					if (isValidDate(year, month, day, MAX_PACKED_YEAR))
+					{
+						return (int) (year * 10000 + month * 100 + day);
+					}
+					break;
+				}
+				default:
+					break;
+			}
+		}
+		return INVALID_PACKED_DATE;
+	}
+	
+	/**
+	 * Convert input date in ASCII/UTF-8 bytes to packed number yyyymmdd, see {@link #parsePacked(CharSequence)}
+	 *
+	 * @param buf - bytes of input date
+	 * @param off - first byte of input date
+	 * @param len - length of input date
+	 */
+	public int parsePacked(final byte[] buf, final int off, final int len)
+	{
+		final CUtf8Sequence input = BYTES.get().wrap(buf, off, len);
+		final int packed = parsePacked(input);
+		input.clear();
+		return packed;
+	}
+	
+	/**
+	 * Parse input date into caller-owned result holder. Unlike {@link #getDate(String, String)} the outcome
+	 * is explicit: year-only input like "1989" is {@link CDateParseResult.Status#OK}, not echoed back,
+	 * and invalid dates like "13/13/2020" are {@link CDateParseResult.Status#INVALID_DATE} w/o exception,
+	 * dotted dates like "06.04.1974" are parsed with {@link FieldOrder} of '.' (DMY by default).
+	 * No objects are created.
+	 *
+	 * @param sInputDate - input date in various formats, null is not a date
+	 * @param result - holder to fill, it's reused for every call
+	 * @return true if date is found, the same as {@link CDateParseResult#isValid()}
+	 */
+	public boolean parse(final CharSequence sInputDate, final CDateParseResult result)
+	{
+		if (null == sInputDate)
+		{
+			result.reset();
+			return false;
+		}
+		final CDateScanner scanner = SCANNER.get();
+		final int resolved = resolve(scanner, sInputDate, true);
+		final char delimiter = scanner.delimiter();
+		long year = 0;
+		long month = 0;
+		long day = 0;
+		boolean valid = true;
+		switch (resolved)
+		{
+			case RESOLVED_YEAR:
+				year = scanner.value(0);
+				break;
+			case RESOLVED_MONTH_YEAR:
+				year = getYear(scanner);
+				month = getMonth(scanner);
+				valid = isValidDate(year, month, 1, MAX_YEAR);
+				break;
+			case RESOLVED_FULL:
+				year = getYear(scanner);
+				month = getMonth(scanner);
+				day = getDay(scanner);
+				valid = isValidDate(year, month, day, MAX_YEAR);
+				break;
+			default:
+				if (null != metrics)
+				{
+					metrics.record(scanner, resolved, true);
+				}
+				result.set(CDateParseResult.Status.NOT_A_DATE, CDateParseResult.Precision.NONE, HEURISTIC_NONE,
+						delimiter, 0, 0, 0);
+				return false;
+		}
+		if (null != metrics)
+		{
+			metrics.record(scanner, resolved, valid);
+		}
+		result.set(valid ? CDateParseResult.Status.OK : CDateParseResult.Status.INVALID_DATE, PRECISIONS[resolved],
+				scanner.heuristic(), delimiter, toInt(year), toInt(month), toInt(day));
+		if (scanner.hasTime())
+		{
+			result.setTime(scanner.hour(), scanner.minute(), scanner.second(), scanner.nano(), scanner.offsetSeconds());
+		}
+		return valid;
+	}
+	
+	/**
+	 * @return value, or 0 if it's not a number or does not fit into int
+	 */
+	private static int toInt(final long value)
+	{
+		return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE && value != CDateScanner.NOT_A_NUMBER ?
+				(int) value : 0;
+	}
+	
+	/**
+	 * Convert input date in ASCII/UTF-8 bytes, w/o decoding it to String. ASCII input is not decoded at all,
+	 * input with non-ASCII month names ("06 février 1974") is decoded into a reused char buffer.
+	 * Converted date is written into caller-supplied buffer, nothing is written if input date should be kept AS IS.
+	 *
+	 * @param buf - bytes of input date
+	 * @param off - first byte of input date
+	 * @param len - length of input date
+	 * @param format - patter for output date, "MM/dd/yyyy" or "dd.MM.yyyy" - for example
+	 * @param dst - buffer for converted date (UTF-8)
+	 * @param dstOff - position of converted date in dst
+	 * @return number of written bytes, {@link #NOT_CONVERTED} or {@link #BUFFER_TOO_SMALL}
+	 */
+	public int getDate(final byte[] buf, final int off, final int len, final String format, final byte[] dst, final int dstOff)
+	{
+		Objects.checkFromIndexSize(off, len, buf.length);
+		Objects.checkIndex(dstOff, dst.length + 1);
+		final BytesContext context = BYTES.get();
+		final int length = formatTo(context.input.wrap(buf, off, len), format, null, context.output, 0);
+		context.input.clear();
+		if (length < 0)
+		{
+			return length;
+		}
+		if (!isAscii(context.output, length))
+		{
+			final byte[] bytes = new String(context.output, 0, length).getBytes(StandardCharsets.UTF_8);
+			if (dst.length - dstOff < bytes.length)
+			{
+				return BUFFER_TOO_SMALL;
+			}
+			System.arraycopy(bytes, 0, dst, dstOff, bytes.length);
+			return bytes.length;
+		}
+		if (dst.length - dstOff < length)
+		{
+			return BUFFER_TOO_SMALL;
+		}
+		for (int i = 0; i < length; i++)
+		{
+			dst[dstOff + i] = (byte) context.output[i];
+		}
+		return length;
+	}
+	
+	/**
+	 * Convert input date from bytes between position and limit of the buffer (heap or direct),
+	 * see {@link #getDate(byte[], int, int, String, byte[], int)}. Position of src is not changed,
+	 * converted date is put into dst at its position.
+	 *
+	 * @return number of written bytes, {@link #NOT_CONVERTED} or {@link #BUFFER_TOO_SMALL}
+	 */
+	public int getDate(final ByteBuffer src, final String format, final ByteBuffer dst)
+	{
+		final BytesContext context = BYTES.get();
+		final int length = formatTo(context.input.wrap(src, src.position(), src.remaining()), format, null, context.output, 0);
+		context.input.clear();
+		if (length < 0)
+		{
+			return length;
+		}
+		if (!isAscii(context.output, length))
+		{
+			final byte[] bytes = new String(context.output, 0, length).getBytes(StandardCharsets.UTF_8);
+			if (dst.remaining() < bytes.length)
+			{
+				return BUFFER_TOO_SMALL;
+			}
+			dst.put(bytes);
+			return bytes.length;
+		}
+		if (dst.remaining() < length)
+		{
+			return BUFFER_TOO_SMALL;
+		}
+		for (int i = 0; i < length; i++)
+		{
+			dst.put((byte) context.output[i]);
+		}
+		return length;
+	}
+	
+	/**
+	 * Convert input date into caller-supplied char buffer. No String is created for numeric output formats,
+	 * nothing is written if input date should be kept AS IS. Unlike {@link #getDate(String, String)} invalid
+	 * dates (like "13/13/2020") are not converted instead of throwing DateTimeException.
+	 *
+	 * @param sInputDate - input date in various formats
+	 * @param format - patter for output date, "MM/dd/yyyy" or "dd.MM.yyyy" - for example
+	 * @param dst - buffer for converted date
+	 * @param dstOff - position of converted date in dst
+	 * @return number of written chars, {@link #NOT_CONVERTED} or {@link #BUFFER_TOO_SMALL}
+	 */
+	public int getDate(final CharSequence sInputDate, final String format, final char[] dst, final int dstOff)
+	{
+		Objects.checkIndex(dstOff, dst.length + 1);
+		return formatTo(sInputDate, format, null, dst, dstOff);
+	}
+	
+	/**
+	 * Append converted date to the builder, see {@link #getDate(CharSequence, String, char[], int)}
+	 *
+	 * @return number of appended chars, {@link #NOT_CONVERTED} or {@link #BUFFER_TOO_SMALL}
+	 * if converted date is longer than {@value #MAX_BYTES_OUTPUT} chars
+	 */
+	public int getDate(final CharSequence sInputDate, final String format, final StringBuilder dst)
+	{
+		final char[] output = BYTES.get().output;
+		final int length = formatTo(sInputDate, format, null, output, 0);
+		if (length > 0)
+		{
+			dst.append(output, 0, length);
+		}
+		return length;
+	}
+	
+	/**
+	 * Append converted date to the writer or another Appendable, see {@link #getDate(CharSequence, String, char[], int)}
+	 *
+	 * @return number of appended chars, {@link #NOT_CONVERTED} or {@link #BUFFER_TOO_SMALL}
+	 * if converted date is longer than {@value #MAX_BYTES_OUTPUT} chars
+	 */
+	public int getDate(final CharSequence sInputDate, final String format, final Appendable dst) throws IOException
+	{
+		if (dst instanceof StringBuilder)
+		{
+			return getDate(sInputDate, format, (StringBuilder) dst);
+		}
+		final char[] output = BYTES.get().output;
+		final int length = formatTo(sInputDate, format, null, output, 0);
+		if (dst instanceof Writer)
+		{
+			if (length > 0)
+			{
+				((Writer) dst).write(output, 0, length);
+			}
+			return length;
+		}
+		for (int i = 0; i < length; i++)
+		{
+			dst.append(output[i]);
+		}
+		return length;
+	}
+	
+	private static boolean isAscii(final char[] chars, final int length)
+	{
+		for (int i = 0; i < length; i++)
+		{
+			if (chars[i] >= 0x80)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Scan input date and find positions of year, month and day.
+	 * Layout is stored in the scanner, nothing is allocated here.
+	 * Resolved layouts are memoized per input shape, see {@link CDateShapePlans}.
+	 * <p>
+	 * Differences from the old split-based code: when year is first and alphabetic month
+	 * is last ("1974-05-Apr") the old code failed with ArrayIndexOutOfBoundsException,
+	 * now such input is returned AS IS; valid time of day after a date ("02/02/2020 10:15") is recognized.
+	 * Both are accepted by CDateDifferentialTest, any other difference fails it.
+	 *
+	 * @return one of RESOLVED_* constants
+	 */
+	int resolve(final CDateScanner scanner, final CharSequence sInputDate)
+	{
+		return resolve(scanner, sInputDate, false);
+	}
+	
+	/**
+	 * @param dots true - dates with '.' are split like others ("06.04.1974 10:15:30 +0300"),
+	 * with DMY field order by default; getDate keeps returning them AS IS
+	 */
+	private int resolve(final CDateScanner scanner, final CharSequence sInputDate, final boolean dots)
+	{
+		final int resolved = resolve(scanner, scanner.scan(sInputDate, monthNames, true, dots));
+		if (resolved == RESOLVED_NONE && scanner.hasTime())
+		{
+			// time after something which is not a date: the whole input is scanned as before,
+			// "4 4:43" is month and year "4:43" as legacy code had it
+			return resolve(scanner, scanner.scan(sInputDate, monthNames, false, dots));
+		}
+		return resolved;
+	}
+	
+	/**
+	 * @param parts number of parts found by the scanner
+	 */
+	private int resolve(final CDateScanner scanner, final int parts)
+	{
+		if (parts == 1 && scanner.is(0, CDateScanner.FLAG_LONG_YEAR)) // when date is year only
+		{
+			scanner.layout(0, -1, -1, false, HEURISTIC_YEAR_ONLY);
+			return RESOLVED_YEAR;
+		} else if (parts != 2 && parts != 3) {
+			return RESOLVED_NONE; // return input data AS IS
+		}
+		// heuristics below depend on the shape of input only, run them once per shape
+		final int signature = CDateShapePlans.signature(scanner);
+		int plan = plans.get(signature);
+		if (plan == 0)
+		{
+			plan = resolveLayout(scanner);
+			plans.put(signature, plan);
+		}
+		return CDateShapePlans.apply(plan, scanner);
+	}
+	
+	/**
+	 * Decision tree over scanned parts (2 or 3 of them)
+	 * @return plan of the layout, see CDateShapePlans.encode
+	 */
+	private int resolveLayout(final CDateScanner scanner)
+	{
+		final int parts = scanner.parts();
+		final boolean dateIsFull = parts == 3; // date is full when is has all 3 parts - day, month, and year
+		final char delimiter = scanner.delimiter();
+		
+		// get year position
+		final int iYearIndex = getYearIndex(scanner, delimiter);
+		
+		// try to get day position
+		int iDayIndex = foundDayIndex(scanner, iYearIndex);
+		boolean isFoundDay = iDayIndex != -1 && iDayIndex != iYearIndex;
+		final boolean isDayByValue = isFoundDay;
+		boolean isByFieldOrder = false;
+		
+		// try to get month position
+		int iMonthIndex = foundAlphabeticalMonthIndex(scanner);
+		boolean isFoundMonth = iMonthIndex != -1 && iMonthIndex != iYearIndex;
+		boolean isMonthByName = isFoundMonth;
+		
+		if (iYearIndex == 0) // year at begin of the date
+		{
+			if (!isFoundMonth)
+			{
+				iMonthIndex = iYearIndex + 1; // month is next after year
+				isFoundMonth = true;
+			}
+			if (!isFoundDay && dateIsFull)
+			{ // day is next after month
+				iDayIndex = iMonthIndex + 1;
+				if (iDayIndex >= parts)
+				{
+					return NONE_PLAN;
+				}
+				isFoundDay = true;
+			}
+		} else if (iYearIndex == parts - 1) { // year is the last part of the date
+			// position of month depends on day and delimiter
+			if (!isFoundDay && dateIsFull)
+			{
+				if (!isFoundMonth)
+				{ // month still not found
+					final FieldOrder order = getFieldOrder(delimiter);
+					if (order == FieldOrder.MDY)
+					{
+						iMonthIndex = 0;
+						iDayIndex = 1;
+						isFoundMonth = true;
+						isFoundDay = true;
+						isByFieldOrder = true;
+					} else if (order == FieldOrder.DMY) {
+						iDayIndex = 0;
+						iMonthIndex = 1;
+						isFoundMonth = true;
+						isFoundDay = true;
+						isByFieldOrder = true;
+					}
+				} else {
+					iDayIndex = iMonthIndex == 0 ? 1 : 0; // month was found before
+					isFoundDay = true;
+				}
+			} else if (isFoundDay && dateIsFull) {
+				if (!isFoundMonth) { // month still NOT found
+					iMonthIndex = iDayIndex == 0 ? 1 : 0; // day is the first, so month is next
+					isFoundMonth = true;
+				}
+			}
+			if (!isFoundMonth) // month still NOT found
+			{
+				iMonthIndex = iYearIndex - 1;
+				isFoundMonth = scanner.is(iMonthIndex, CDateScanner.FLAG_NUMERIC_MONTH) || scanner.month(iMonthIndex) > 0;
+			}
+		}
+		
+		if (!isFoundMonth || (dateIsFull && !isFoundDay)) // found year only, or not enough parts for full date
+		{
+			return NONE_PLAN;
+		}
+		final int heuristic;
+		if (isMonthByName)
+		{
+			heuristic = HEURISTIC_MONTH_NAME;
+		} else if (isDayByValue && dateIsFull) {
+			heuristic = HEURISTIC_DAY_VALUE;
+		} else if (isByFieldOrder) {
+			heuristic = HEURISTIC_FIELD_ORDER;
+		} else {
+			heuristic = HEURISTIC_POSITION;
+		}
+		return CDateShapePlans.encode(dateIsFull ? RESOLVED_FULL : RESOLVED_MONTH_YEAR,
+				iYearIndex, iMonthIndex, dateIsFull ? iDayIndex : -1, isMonthByName, heuristic);
+	}
+	
+	/**
+	 * Return index of a year in date parts
+	 * @param scanner scanned parts of the date
+	 * @param delimiter current delimiter uses in this date string
+	 * @return -1 if not found
+	 */
+	private static int getYearIndex(final CDateScanner scanner, final char delimiter) {
+		int iYearIndex = -1;
+		final int parts = scanner.parts();
+		//where is year?
+		for (int i = 0; i < parts; i++)
+		{
+			if (scanner.is(i, CDateScanner.FLAG_LONG_YEAR))
+			{
+				return i;
+			}
+		}
+		for (int i = 0; i < parts; i++)
+		{
+			// Example: "67-03-02" or "04-06-67" - year is 67
+			if (scanner.is(i, CDateScanner.FLAG_SHORT_YEAR)
+					&& !scanner.is(i, CDateScanner.FLAG_NUMERIC_MONTH) && !scanner.is(i, CDateScanner.FLAG_NUMERIC_DAY))
+			{
+				return i;
+			}
+		}
+		// heuristic assumption by delimiter:
+		// if delimiter is '-'  and year still does not detect - year is first
+		// other delimiters - year is last
+		if (delimiter == '-')
+		{
+			iYearIndex = 0;
+		}
+		else
+		{
+			iYearIndex = parts - 1;
+		}
+		return iYearIndex;
+	}
+	
+	/**
+	 * Try to found index of a day in date parts
+	 * @param iYearIndex except index of year - because it's already found
+	 * @return -1 if not found
+	 */
+	private static int foundDayIndex(final CDateScanner scanner, final int iYearIndex)
+	{
+		for (int i = 0; i < scanner.parts(); i++)
+		{
+			if (i == iYearIndex) break;
+			if (scanner.is(i, CDateScanner.FLAG_NUMERIC_DAY) && !scanner.is(i, CDateScanner.FLAG_NUMERIC_MONTH))
+			{ // if we have day like 26 - obviously this cannot be the number of the month
+				return i;
+			}
+		}
+		return -1;
+	}
+	private static int foundAlphabeticalMonthIndex(final CDateScanner scanner)
+	{
+		for (int i = 0; i < scanner.parts(); i++)
+		{
+			if (scanner.month(i) > 0)
+			{
+				return i; // index of part with alphabetical month
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Detect which delimiter uses in this date string - slash '/', dot '.', minus '-' or space ' '
+	 * @param str input date string
+	 * @return delimiter
+	 */
+	public static char detectDelimiter(final String str)
+	{
+		if (null != str && !str.trim().isEmpty())
+		{
+			for (final char d : DELIMITERS)
+			{
+				if (checkDelimiter(str, d))
+				{
+					return d;
+				}
+			}
+		}
+		return 0;
+	}
+	
+	/**
+	 * Detect delimiter in bytes of date, see {@link #detectDelimiter(String)}
+	 */
+	public static char detectDelimiter(final byte[] buf, final int off, final int len)
+	{
+		return null != buf ? detectDelimiter(BYTES.get().wrap(buf, off, len)) : 0;
+	}
+	
+	/**
+	 * Detect delimiter in bytes of date between position and limit of the buffer, see {@link #detectDelimiter(String)}
+	 */
+	public static char detectDelimiter(final ByteBuffer buf)
+	{
+		return null != buf ? detectDelimiter(BYTES.get().wrap(buf)) : 0;
+	}
+	
+	private static char detectDelimiter(final CUtf8Sequence str)
+	{
+		int begin = 0;
+		int end = str.length();
+		while (begin < end && str.charAt(begin) <= ' ') begin++;
+		while (end > begin && str.charAt(end - 1) <= ' ') end--;
+		char delimiter = 0;
+		if (begin < end)
+		{
+			for (final char d : DELIMITERS)
+			{
+				for (int i = 0; i < str.length(); i++)
+				{
+					if (str.charAt(i) == d)
+					{
+						delimiter = d;
+						break;
+					}
+				}
+				if (delimiter != 0)
+				{
+					break;
+				}
+			}
+		}
+		str.clear();
+		return delimiter;
+	}
+	
+	/**
+	 * Year in valid format with 4 characters like 1974
+	 */
+	public static boolean isValidLongYear(final String str)
+	{
+		return null != str && str.length() == 4
+				&& (str.startsWith("19") || str.startsWith("20")) && twoDigits(str, 2) >= 0;
+	}
+	
+	public static boolean isShortYear(final String str)
+	{
+		return null != str && str.length() == 2 && twoDigits(str, 0) >= 0;
+	}
+	
+	public static boolean isNumericMonth(final String str)
+	{
+		return getNumericMonth(str) != 0;
+	}
+	
+	/**
+	 * Month as 2 digits in bytes, see {@link #isNumericMonth(String)}
+	 */
+	public static boolean isNumericMonth(final byte[] buf, final int off, final int len)
+	{
+		final int value = null != buf ? twoDigits(BYTES.get().wrap(buf, off, len)) : -1;
+		return value > 0 && value < 13;
+	}
+	
+	/**
+	 * Month as 2 digits in bytes between position and limit of the buffer, see {@link #isNumericMonth(String)}
+	 */
+	public static boolean isNumericMonth(final ByteBuffer buf)
+	{
+		final int value = null != buf ? twoDigits(BYTES.get().wrap(buf)) : -1;
+		return value > 0 && value < 13;
+	}
+	
+	/**
+	 * @return month of exactly 2 ASCII digits 01..12, 0 otherwise
+	 */
+	public static int getNumericMonth(final String str)
+	{
+		final int value = null != str && str.length() == 2 ? twoDigits(str, 0) : -1;
+		return value > 0 && value < 13 ? value : 0;
+	}
+	
+	/**
+	 * Day as exactly 2 ASCII digits 01..31
+	 */
+	public static boolean isNumericDay(final String str)
+	{
+		final int value = null != str && str.length() == 2 ? twoDigits(str, 0) : -1;
+		return value > 0 && value < 32;
+	}
+	
+	/**
+	 * Day as 2 digits in bytes, see {@link #isNumericDay(String)}
+	 */
+	public static boolean isNumericDay(final byte[] buf, final int off, final int len)
+	{
+		final int value = null != buf ? twoDigits(BYTES.get().wrap(buf, off, len)) : -1;
+		return value > 0 && value < 32;
+	}
+	
+	/**
+	 * Day as 2 digits in bytes between position and limit of the buffer, see {@link #isNumericDay(String)}
+	 */
+	public static boolean isNumericDay(final ByteBuffer buf)
+	{
+		final int value = null != buf ? twoDigits(BYTES.get().wrap(buf)) : -1;
+		return value > 0 && value < 32;
+	}
+	
+	/**
+	 * @return value of 2 ASCII digits at the index, -1 otherwise
+	 */
+	private static int twoDigits(final String str, final int index)
+	{
+		final char c0 = str.charAt(index);
+		final char c1 = str.charAt(index + 1);
+		return c0 >= '0' && c0 <= '9' && c1 >= '0' && c1 <= '9' ? (c0 - '0') * 10 + (c1 - '0') : -1;
+	}
+	
+	/**
+	 * @return value of exactly 2 ASCII digits, -1 otherwise
+	 */
+	private static int twoDigits(final CUtf8Sequence str)
+	{
+		int value = -1;
+		if (str.length() == 2)
+		{
+			final char c0 = str.charAt(0);
+			final char c1 = str.charAt(1);
+			if (c0 >= '0' && c0 <= '9' && c1 >= '0' && c1 <= '9')
+			{
+				value = (c0 - '0') * 10 + (c1 - '0');
+			}
+		}
+		str.clear();
+		return value;
+	}
+	
+	/**
+	 * Alphabetic month in bytes, see {@link #getAlphabeticMonth(String)}
+	 */
+	public static int getAlphabeticMonth(final byte[] buf, final int off, final int len)
+	{
+		return null != buf ? getAlphabeticMonth(BYTES.get().wrap(buf, off, len)) : 0;
+	}
+	
+	/**
+	 * Alphabetic month in bytes between position and limit of the buffer, see {@link #getAlphabeticMonth(String)}
+	 */
+	public static int getAlphabeticMonth(final ByteBuffer buf)
+	{
+		return null != buf ? getAlphabeticMonth(BYTES.get().wrap(buf)) : 0;
+	}
+	
+	private static int getAlphabeticMonth(final CUtf8Sequence str)
+	{
+		final int month = CMonthNames.ENGLISH.match(str, 0, str.length());
+		str.clear();
+		return month;
+	}
+	
+	/**
+	 * English month by its name or prefix (3 chars at least), see {@link CMonthNames}
+	 * @return number of month 1..12, or 0 if str is not a month name
+	 */
+	public static int getAlphabeticMonth(final String str)
+	{
+		return CMonthNames.ENGLISH.match(str);
+	}
+	
+	public static String getNumericMonthByIndex(final int index)
+	{
+		return (index > 0 && index <= MONTHS.length) ? TWO_DIGITS[index] : "";
+	}
+	
+	public static boolean isSingleDigit(final String str)
+	{
+		return (str != null && (str.length() == 1 && Character.isDigit(str.charAt(0))));
+	}
+	private static boolean checkDelimiter(final String str, final char cDelimiter)
+	{
+		return (str != null && (str.indexOf(cDelimiter) != -1));
+	}
+	
+	private static String convertToFullMonthFormat(final String inputMonth)
+	{
+		// any Unicode digit, as Integer.parseInt accepted it
+		return isSingleDigit(inputMonth) ? TWO_DIGITS[Character.digit(inputMonth.charAt(0), 10)] : inputMonth;
+	}
+	
+	/**
+	 * Convert year like 02 to 4 digits format like 2002
+	 * @param inputYear year as 2 digits number
+	 * @return year as 4 digits number
+	 */
+	private int convertToFullYearFormat(final int inputYear)
+	{
+		final int pivot = getPivotYear();
+		final int nInputYear = pivot / 100 * 100 + inputYear;
+		return nInputYear >= pivot ? nInputYear - 100 : nInputYear;
+	}
+	
+	private StringBuilder appendYear(final StringBuilder sb, final CDateScanner scanner)
+	{
+		final int index = scanner.yearIndex();
+		return scanner.is(index, CDateScanner.FLAG_SHORT_YEAR) ?
+				appendDigits(sb, convertToFullYearFormat(scanner.value(index)), 4) : scanner.appendPart(sb, index);
+	}
+	
+	private static StringBuilder appendMonth(final StringBuilder sb, final CDateScanner scanner)
+	{
+		final int index = scanner.monthIndex();
+		return scanner.monthByName() ? appendDigits(sb, scanner.month(index), 2) : scanner.appendPart(sb, index);
+	}
+	
+	/**
+	 * @return number of written chars, or -1 if buffer is too small
+	 */
+	private int writeYear(final CDateScanner scanner, final char[] dst, final int offset)
+	{
+		final int index = scanner.yearIndex();
+		return scanner.is(index, CDateScanner.FLAG_SHORT_YEAR) ?
+				writeDigits(dst, offset, convertToFullYearFormat(scanner.value(index)), 4) : scanner.copyPart(index, dst, offset);
+	}
+	
+	/**
+	 * @return number of written chars, or -1 if buffer is too small
+	 */
+	private static int writeMonth(final CDateScanner scanner, final char[] dst, final int offset)
+	{
+		final int index = scanner.monthIndex();
+		return scanner.monthByName() ? writeDigits(dst, offset, scanner.month(index), 2) : scanner.copyPart(index, dst, offset);
+	}
+	
+	/**
+	 * Write number 0..9999 with leading zeros
+	 * @return width, or -1 if buffer is too small
+	 */
+	private static int writeDigits(final char[] dst, final int offset, final int value, final int width)
+	{
+		if (dst.length - offset < width)
+		{
+			return -1;
+		}
+		int rest = value;
+		for (int i = offset + width - 1; i >= offset; i--)
+		{
+			dst[i] = (char) ('0' + rest % 10);
+			rest /= 10;
+		}
+		return width;
+	}
+	
+	/**
+	 * Append non-negative number with leading zeros, like "%02d" or "%04d"
+	 */
+	private static StringBuilder appendDigits(final StringBuilder sb, final int value, final int width)
+	{
+		for (int divider = width == 4 ? 1000 : 10; divider > 1 && value < divider; divider /= 10)
+		{
+			sb.append('0');
+		}
+		return sb.append(value);
+	}
+	
+	/**
+	 * @return year, or CDateScanner.NOT_A_NUMBER
+	 */
+	private long getYear(final CDateScanner scanner)
+	{
+		final int index = scanner.yearIndex();
+		return scanner.is(index, CDateScanner.FLAG_SHORT_YEAR) ?
+				convertToFullYearFormat(scanner.value(index)) : scanner.parseInt(index);
+	}
+	
+	/**
+	 * @return month, or CDateScanner.NOT_A_NUMBER
+	 */
+	private static long getMonth(final CDateScanner scanner)
+	{
+		final int index = scanner.monthIndex();
+		return scanner.monthByName() ? scanner.month(index) : scanner.parseInt(index);
+	}
+	
+	/**
+	 * @return day, or CDateScanner.NOT_A_NUMBER
+	 */
+	private static long getDay(final CDateScanner scanner)
+	{
+		return scanner.parseInt(scanner.dayIndex());
+	}
+	
+	/**
+	 * Check date by table of days in months, w/o LocalDate
+	 */
+	static boolean isValidDate(final long year, final long month, final long day, final int maxYear)
+	{
+		if (year < 0 || year > maxYear || month < 1 || month > 12 || day < 1)
+		{
+			return false;
+		}
+		final int daysInMonth = (month == 2 && isLeapYear(year)) ? 29 : DAYS_IN_MONTH[(int) month];
+		return day <= daysInMonth;
+	}
+	
+	private static boolean isLeapYear(final long year)
+	{
+		return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+	}
+	
+	/**
+	 * The same calculation as {@link LocalDate#toEpochDay()} for non-negative years
+	 */
+	static long toEpochDay(final int year, final int month, final int day)
+	{
+		long total = 365L * year;
+		total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+		total += (367 * month - 362) / 12;
+		total += day - 1;
+		if (month > 2)
+		{
+			total--;
+			if (!isLeapYear(year))
+			{
+				total--;
+			}
+		}
+		return total - DAYS_0000_TO_1970;
+	}
+	
+	/**
+	 * @return reason of input date returned AS IS by {@link #resolve(CDateScanner, CharSequence)}
+	 */
+	private static CDateRejections.Reason rejectedLayout(final CDateScanner scanner)
+	{
+		final int parts = scanner.parts();
+		return parts == 2 || parts == 3 ? CDateRejections.Reason.LAYOUT : CDateRejections.Reason.PARTS;
+	}
+	
+	/**
+	 * @return reason of full date which is not valid
+	 */
+	private static CDateRejections.Reason rejectedDate(final long year, final long month, final long day)
+	{
+		return year == CDateScanner.NOT_A_NUMBER || month == CDateScanner.NOT_A_NUMBER || day == CDateScanner.NOT_A_NUMBER
+				? CDateRejections.Reason.NOT_A_NUMBER : CDateRejections.Reason.INVALID_DATE;
+	}
+	
+	/**
+	 * Note: values out of range (like "13/13/2020") throw DateTimeException from LocalDate.of,
+	 * the same as it always did.
+	 * @return input date AS IS if some part is not a number
+	 */
+	private String formatFullDate(final CDateScanner scanner, final String sInputDate, final String format,
+			final CDateFormat compiled)
+	{
+		final long year = getYear(scanner);
+		final long month = getMonth(scanner);
+		final long day = getDay(scanner);
+		final boolean valid = isValidDate(year, month, day, MAX_YEAR);
+		if (null != metrics)
+		{
+			scanner.stats(metrics.record(scanner, RESOLVED_FULL, valid));
+		}
+		if (!valid && null != rejections)
+		{
+			rejections.record(sInputDate, rejectedDate(year, month, day));
+		}
+		if (year == CDateScanner.NOT_A_NUMBER || month == CDateScanner.NOT_A_NUMBER || day == CDateScanner.NOT_A_NUMBER)
+		{
+			return sInputDate;
+		}
+		if (!valid)
+		{
+			return formatLocalDate(LocalDate.of((int) year, (int) month, (int) day), format);
+		}
+		return format(null != compiled ? compiled : FORMATS.get(format), scanner, (int) year, (int) month, (int) day);
+	}
+	
+	/**
+	 * Format full valid date, with time of input when pattern has time fields.
+	 * Pattern with time fields and input w/o time ("dd.mm.yyyy" is minutes) fail with
+	 * UnsupportedTemporalTypeException from LocalDate.format, the same as it always did.
+	 */
+	private static String format(final CDateFormat outputFormat, final CDateScanner scanner, final int year,
+			final int month, final int day)
+	{
+		if (!outputFormat.hasTime() || !scanner.hasTime())
+		{
+			return outputFormat.format(year, month, day);
+		}
+		final int offset = scanner.offsetSeconds();
+		return outputFormat.format(year, month, day, scanner.hour(), scanner.minute(), scanner.second(), scanner.nano(),
+				offset != CDateScanner.NO_OFFSET ? offset : 0);
+	}
+	
+	/**
+	 * Registry of compiled output formats used by {@link #getDate(String, String)} and {@link #formatLocalDate(LocalDate, String)}
+	 */
+	public static CDateFormatCache getFormatCache()
+	{
+		return FORMATS;
+	}
+	
+	public static String formatLocalDate(final LocalDate date, final String pattern)
+	{
+		return FORMATS.get(pattern).format(date);
+	}
+	
+	/**
+	 * Part of a batch: splits itself in halves until the part is small enough
+	 */
+	private static final class BatchTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final CDateParser parser;
+		private final String[] inputs;
+		private final int from;
+		private final int to;
+		private final String format;
+		private final CDateFormat compiled;
+		private final String[] output;
+		private final int shift; // output index minus input index
+		private final int threshold;
+		
+		BatchTask(final CDateParser parser, final String[] inputs, final int from, final int to, final String format,
+				final CDateFormat compiled, final String[] output, final int shift, final int threshold)
+		{
+			this.parser = parser;
+			this.inputs = inputs;
+			this.from = from;
+			this.to = to;
+			this.format = format;
+			this.compiled = compiled;
+			this.output = output;
+			this.shift = shift;
+			this.threshold = threshold;
+		}
+		
+		@Override
+		protected void compute()
+		{
+			if (to - from <= threshold)
+			{
+				for (int i = from; i < to; i++)
+				{
+					output[i + shift] = parser.convert(inputs[i], format, compiled);
+				}
+				return;
+			}
+			final int middle = (from + to) >>> 1;
+			invokeAll(new BatchTask(parser, inputs, from, middle, format, compiled, output, shift, threshold),
+					new BatchTask(parser, inputs, middle, to, format, compiled, output, shift, threshold));
+		}
+	}
+	
+	/**
+	 * Part of a column: splits itself in halves at bitmap words (64 rows), so parts never write the same word
+	 */
+	private static final class ColumnTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		private static final int WORD_ROWS = 64;
+		
+		private final CDateParser parser;
+		private final String[] inputs;
+		private final int from; // rows of column
+		private final int to;
+		private final int shift; // input index minus row
+		private final CDateEpochColumn column;
+		private final int threshold;
+		int valid;
+		
+		ColumnTask(final CDateParser parser, final String[] inputs, final int from, final int to, final int shift,
+				final CDateEpochColumn column, final int threshold)
+		{
+			this.parser = parser;
+			this.inputs = inputs;
+			this.from = from;
+			this.to = to;
+			this.shift = shift;
+			this.column = column;
+			this.threshold = threshold;
+		}
+		
+		@Override
+		protected void compute()
+		{
+			final int middle = ((from + to) >>> 1) & -WORD_ROWS;
+			if (to - from <= threshold || middle <= from)
+			{
+				for (int row = from; row < to; row++)
+				{
+					if (column.set(row, parser.parseToEpochDay(inputs[row + shift])))
+					{
+						valid++;
+					}
+				}
+				return;
+			}
+			final ColumnTask first = new ColumnTask(parser, inputs, from, middle, shift, column, threshold);
+			final ColumnTask second = new ColumnTask(parser, inputs, middle, to, shift, column, threshold);
+			invokeAll(first, second);
+			valid = first.valid + second.valid;
+		}
+	}
+	
+	/**
+	 * @return index of delimiter in {@link #DELIMITERS}, -1 if it's not there
+	 */
+	static int delimiterIndex(final char delimiter)
+	{
+		for (int i = 0; i < DELIMITERS.length; i++)
+		{
+			if (DELIMITERS[i] == delimiter)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Settings of parser, all of them but the current year are resolved once when parser is built.
+	 * Built parser is immutable and thread-safe, one instance may be shared by all threads.
+	 */
+	public static final class Builder
+	{
+		private CDateResultCache resultCache;
+		private CMonthNames monthNames = CMonthNames.ENGLISH;
+		private Clock clock;
+		private int pivotYear;
+		private final FieldOrder[] fieldOrders = DEFAULT_FIELD_ORDERS.clone();
+		private char defaultDelimiter = DEFAULT_DELIMITER;
+		private CDateMetrics metrics;
+		private CDateRejections rejections;
+		
+		private Builder()
+		{
+		}
+		
+		/**
+		 * @param resultCache cache of results for repeated input dates, null - do not cache.
+		 * Don't share one cache between parsers with different settings.
+		 */
+		public Builder resultCache(final CDateResultCache resultCache)
+		{
+			this.resultCache = resultCache;
+			return this;
+		}
+		
+		/**
+		 * @param monthNames month names to recognize, {@link CMonthNames#ENGLISH} by default
+		 */
+		public Builder monthNames(final CMonthNames monthNames)
+		{
+			this.monthNames = Objects.requireNonNull(monthNames, "monthNames");
+			return this;
+		}
+		
+		/**
+		 * @param clock clock to get the current year once, at the first two-digit year, the system clock by default.
+		 * Two-digit years are the last 100 years before it: in 2024 "23" is 2023 and "24" is 1924.
+		 */
+		public Builder clock(final Clock clock)
+		{
+			this.clock = Objects.requireNonNull(clock, "clock");
+			this.pivotYear = 0;
+			return this;
+		}
+		
+		/**
+		 * @param pivotYear two-digit years are years from pivotYear - 100 till pivotYear - 1,
+		 * current year by default
+		 */
+		public Builder pivotYear(final int pivotYear)
+		{
+			if (pivotYear < 100 || pivotYear > 9999)
+			{
+				throw new IllegalArgumentException("Pivot year must be in 100..9999: " + pivotYear);
+			}
+			this.pivotYear = pivotYear;
+			return this;
+		}
+		
+		/**
+		 * @param delimiter one of {@link CDateParser#DELIMITERS}
+		 * @param order order of day and month when both of them are 01-12, like in "04/06/1974".
+		 * MDY by default, DMY for '.'
+		 */
+		public Builder fieldOrder(final char delimiter, final FieldOrder order)
+		{
+			final int index = delimiterIndex(delimiter);
+			if (index < 0)
+			{
+				throw new IllegalArgumentException("Unknown delimiter: '" + delimiter + "'");
+			}
+			fieldOrders[index] = Objects.requireNonNull(order, "order");
+			return this;
+		}
+		
+		/**
+		 * @param delimiter delimiter of short output dates (month and year) when output pattern has none,
+		 * {@link CDateParser#DEFAULT_DELIMITER} by default
+		 */
+		public Builder defaultDelimiter(final char delimiter)
+		{
+			if (delimiter == 0)
+			{
+				throw new IllegalArgumentException("Default delimiter must not be 0");
+			}
+			this.defaultDelimiter = delimiter;
+			return this;
+		}
+		
+		/**
+		 * @param metrics metrics to count outcomes and latency of parsing, null (default) - disabled
+		 */
+		public Builder metrics(final CDateMetrics metrics)
+		{
+			this.metrics = metrics;
+			return this;
+		}
+		
+		/**
+		 * @param rejections samples of input dates returned AS IS by getDate, null (default) - disabled
+		 */
+		public Builder rejections(final CDateRejections rejections)
+		{
+			this.rejections = rejections;
+			return this;
+		}
+		
+		public CDateParser build()
+		{
+			return new CDateParser(this);
+		}
+	}
+	
+	/**
+	 * Per thread buffers of byte API
+	 */
+	private static final class BytesContext
+	{
+		final CUtf8Sequence input = new CUtf8Sequence();
+		final char[] output = new char[MAX_BYTES_OUTPUT];
+		
+		CUtf8Sequence wrap(final byte[] buf, final int off, final int len)
+		{
+			Objects.checkFromIndexSize(off, len, buf.length);
+			return input.wrap(buf, off, len);
+		}
+		
+		CUtf8Sequence wrap(final ByteBuffer buf)
+		{
+			return input.wrap(buf, buf.position(), buf.remaining());
+		}
+	}
+	
+}
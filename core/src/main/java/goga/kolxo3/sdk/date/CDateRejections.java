@@ -0,0 +1,284 @@
+package goga.kolxo3.sdk.date;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Samples of input dates which {@link CDateParser#getDate(String, String)} returned AS IS (or rejected),
+ * with the reason, for diagnostics of bad feeds.
+ * <p>
+ * Enabled by {@link CDateParser.Builder#rejections(CDateRejections)}, a parser w/o it pays one null check.
+ * Every rejection is counted by reason in a {@link LongAdder}, but only a few per second are sampled
+ * into a ring buffer of fixed capacity, so the cost stays the same on days when most rows fail:
+ * over the rate limit a rejection is a counter increment, a volatile read and a thread-local random number.
+ * Nothing here takes a lock, the oldest samples are overwritten when nobody drains them.
+ * {@link #drain(int)} groups samples by reason and shape of input ("1974-NaN-NaN" is "9999-aaa-aaa"),
+ * call it periodically from a background thread and log the top shapes.
+ * Rejections of results found in {@link CDateResultCache} are not recorded again.
+ * Instances are thread-safe, one instance may be shared by several parsers.
+ *
+ * @author Igor Zamiatin
+ */
+public final class CDateRejections
+{
+	/**
+	 * Which check of the input failed
+	 */
+	public enum Reason
+	{
+		/** input is not 2 or 3 parts, and not a year alone */
+		PARTS,
+		/** positions of year, month and day are not found in the parts */
+		LAYOUT,
+		/** layout of full date is found, but some part of it is not a number */
+		NOT_A_NUMBER,
+		/** numbers are not a valid date, like "13/13/2020" */
+		INVALID_DATE
+	}
+
+	public static final int DEFAULT_CAPACITY = 1024;
+	public static final int DEFAULT_SAMPLES_PER_SECOND = 100;
+	/** longer inputs are sampled truncated, and their shapes too */
+	public static final int MAX_SAMPLE_LENGTH = 64;
+
+	private static final long WINDOW_NANOS = 1_000_000_000L;
+	private static final long LOW_BITS = 0xFFFF_FFFFL;
+	/** when the window is full, the clock is read by one rejection of 64 on average */
+	private static final int CLOCK_CHECK_MASK = 63;
+
+	private final AtomicReferenceArray<Sample> samples;
+	private final int mask;
+	private final int samplesPerSecond;
+	private final AtomicLong sequence = new AtomicLong();
+	/** rate limiter: number of the current one-second window in high bits, samples taken in it in low ones */
+	private final AtomicLong window = new AtomicLong();
+	private final long origin = System.nanoTime();
+	private final LongAdder[] counts = new LongAdder[Reason.values().length];
+	private final LongAdder sampled = new LongAdder();
+
+	public CDateRejections()
+	{
+		this(DEFAULT_CAPACITY, DEFAULT_SAMPLES_PER_SECOND);
+	}
+
+	/**
+	 * @param capacity number of kept samples, rounded up to a power of two
+	 * @param samplesPerSecond how many rejections per second are sampled at most
+	 */
+	public CDateRejections(final int capacity, final int samplesPerSecond)
+	{
+		if (capacity < 1 || capacity > 1 << 20)
+		{
+			throw new IllegalArgumentException("Capacity must be in 1..2^20: " + capacity);
+		}
+		if (samplesPerSecond < 1)
+		{
+			throw new IllegalArgumentException("Samples per second must be positive: " + samplesPerSecond);
+		}
+		final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		this.samples = new AtomicReferenceArray<>(size);
+		this.mask = size - 1;
+		this.samplesPerSecond = samplesPerSecond;
+		for (int i = 0; i < counts.length; i++)
+		{
+			counts[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Count rejected input, and sample it if the rate allows
+	 */
+	void record(final CharSequence input, final Reason reason)
+	{
+		counts[reason.ordinal()].increment();
+		if (tryAcquire())
+		{
+			sampled.increment();
+			final int length = Math.min(input.length(), MAX_SAMPLE_LENGTH);
+			final Sample sample = new Sample(input.subSequence(0, length).toString(), reason);
+			samples.lazySet((int) (sequence.getAndIncrement() & mask), sample);
+		}
+	}
+
+	/**
+	 * @return true if one more sample fits into the current one-second window
+	 */
+	private boolean tryAcquire()
+	{
+		long state = window.get();
+		if ((state & LOW_BITS) >= samplesPerSecond && (ThreadLocalRandom.current().nextInt() & CLOCK_CHECK_MASK) != 0)
+		{
+			return false; // the common case of a bad feed: the window is full, look at the clock now and then
+		}
+		final long current = (System.nanoTime() - origin) / WINDOW_NANOS;
+		while (true)
+		{
+			final long next;
+			if (state >>> 32 == current)
+			{
+				if ((state & LOW_BITS) >= samplesPerSecond)
+				{
+					return false;
+				}
+				next = state + 1;
+			} else {
+				next = current << 32 | 1;
+			}
+			if (window.compareAndSet(state, next))
+			{
+				return true;
+			}
+			state = window.get();
+		}
+	}
+
+	/**
+	 * @return number of rejected inputs with this reason, sampled or not
+	 */
+	public long getCount(final Reason reason)
+	{
+		return counts[reason.ordinal()].sum();
+	}
+
+	/**
+	 * @return number of sampled rejections, some of them may be overwritten before drained
+	 */
+	public long getSampledCount()
+	{
+		return sampled.sum();
+	}
+
+	public int getCapacity()
+	{
+		return samples.length();
+	}
+
+	/**
+	 * Take all samples out of the buffer and group them by reason and shape.
+	 * Parser threads are not blocked, samples recorded meanwhile go to this result or to the next one.
+	 * @param top how many shapes to return at most
+	 * @return the most frequent shapes first
+	 */
+	public List<Shape> drain(final int top)
+	{
+		final Map<String, Shape> shapes = new HashMap<>();
+		for (int i = 0; i < samples.length(); i++)
+		{
+			final Sample sample = samples.getAndSet(i, null);
+			if (null != sample)
+			{
+				final String shape = shape(sample.input);
+				final Shape group = shapes.computeIfAbsent(sample.reason.ordinal() + shape,
+						key -> new Shape(sample.reason, shape, sample.input));
+				group.count++;
+			}
+		}
+		final List<Shape> result = new ArrayList<>(shapes.values());
+		result.sort((a, b) -> a.count != b.count ? Long.compare(b.count, a.count) : a.shape.compareTo(b.shape));
+		return result.size() > top ? new ArrayList<>(result.subList(0, Math.max(0, top))) : result;
+	}
+
+	/**
+	 * Reset all counters and drop the samples
+	 */
+	public void reset()
+	{
+		for (final LongAdder count : counts) count.reset();
+		sampled.reset();
+		for (int i = 0; i < samples.length(); i++)
+		{
+			samples.set(i, null);
+		}
+	}
+
+	/**
+	 * Shape of input: digits are '9', letters are 'a', whitespace is ' ', other chars are kept
+	 */
+	static String shape(final CharSequence input)
+	{
+		final char[] shape = new char[input.length()];
+		for (int i = 0; i < shape.length; i++)
+		{
+			final char c = input.charAt(i);
+			if (Character.isDigit(c))
+			{
+				shape[i] = '9';
+			} else if (Character.isLetter(c)) {
+				shape[i] = 'a';
+			} else if (Character.isWhitespace(c)) {
+				shape[i] = ' ';
+			} else {
+				shape[i] = c;
+			}
+		}
+		return new String(shape);
+	}
+
+	private static final class Sample
+	{
+		private final String input;
+		private final Reason reason;
+
+		private Sample(final String input, final Reason reason)
+		{
+			this.input = input;
+			this.reason = reason;
+		}
+	}
+
+	/**
+	 * Rejected inputs of the same reason and shape, see {@link #drain(int)}
+	 */
+	public static final class Shape
+	{
+		private final Reason reason;
+		private final String shape;
+		private final String example;
+		private long count;
+
+		private Shape(final Reason reason, final String shape, final String example)
+		{
+			this.reason = reason;
+			this.shape = shape;
+			this.example = example;
+		}
+
+		public Reason getReason()
+		{
+			return reason;
+		}
+
+		public String getShape()
+		{
+			return shape;
+		}
+
+		/**
+		 * @return the first sampled input of this shape
+		 */
+		public String getExample()
+		{
+			return example;
+		}
+
+		/**
+		 * @return number of samples of this shape (not of all rejections, see {@link CDateRejections#getCount(Reason)})
+		 */
+		public long getCount()
+		{
+			return count;
+		}
+
+		@Override
+		public String toString()
+		{
+			return reason + " " + count + " x \"" + shape + "\", like \"" + example + "\"";
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package goga.kolxo3.sdk.date;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of {@link CDateParser#getDate(String, String)} results keyed by input date and output format.
+ * <p>
+ * Cache is a set-associative table: every key may live in one of {@value #WAYS} slots of its set, and the
+ * victim inside a set is chosen by CLOCK (second chance) policy. New entries start w/o reference bit,
+ * so values seen once are evicted first. There are no locks: entries are immutable and published through
+ * final fields, a lost update of a slot only costs one more parse.
+ * <p>
+ * Memory is bounded by number of entries: inputs longer than {@value #MAX_INPUT_LENGTH} chars and results longer
+ * than {@value #MAX_RESULT_LENGTH} chars (long text or literal fields of the format) are not cached.
+ * Entries of a parser with {@link CDateMetrics} keep the stats of the first parse, so hits are counted as well.
+ *
+ * @author Igor Zamiatin
+ */
+public final class CDateResultCache
+{
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+	public static final int MAX_INPUT_LENGTH = 64;
+	public static final int MAX_RESULT_LENGTH = 64;
+	/**
+	 * upper estimate of heap used by one entry with input and result strings of max length, UTF-16 ones too:
+	 * entry 32, two strings of 24 + 16 + 128, slot 5 bytes. The format is shared by entries and not counted.
+	 */
+	public static final int MAX_ENTRY_BYTES = 384;
+
+	private static final int WAYS = 4;
+	private static final int MAX_CAPACITY = 1 << 28;
+
+	private final Entry[] entries;
+	private final byte[] referenced;
+	private final byte[] hands;
+	private final int setMask;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public CDateResultCache()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity max number of entries, rounded up to power of two
+	 */
+	public CDateResultCache(final int capacity)
+	{
+		if (capacity < 1 || capacity > MAX_CAPACITY)
+		{
+			throw new IllegalArgumentException("Capacity must be in range 1.." + MAX_CAPACITY + ": " + capacity);
+		}
+		final int sets = Math.max(1, Integer.highestOneBit(Math.max(WAYS, capacity) * 2 - 1) / WAYS);
+		entries = new Entry[sets * WAYS];
+		referenced = new byte[sets * WAYS];
+		hands = new byte[sets];
+		setMask = sets - 1;
+	}
+
+	/**
+	 * Create cache which takes no more than given number of bytes of heap
+	 */
+	public static CDateResultCache withMemoryLimit(final long bytes)
+	{
+		final long capacity = Math.min(MAX_CAPACITY, bytes / MAX_ENTRY_BYTES);
+		if (capacity < WAYS)
+		{
+			throw new IllegalArgumentException("Memory limit is too small: " + bytes);
+		}
+		// round down, so the limit is never exceeded
+		return new CDateResultCache(Integer.highestOneBit((int) capacity));
+	}
+
+	/**
+	 * @return cached result or null
+	 */
+	public String get(final String input, final String format)
+	{
+		final Entry entry = find(input, format);
+		return entry != null ? entry.result : null;
+	}
+
+	/**
+	 * @return cached entry with result and stats, or null
+	 */
+	Entry find(final String input, final String format)
+	{
+		if (input.length() > MAX_INPUT_LENGTH)
+		{
+			return null;
+		}
+		final int hash = hash(input, format);
+		final int base = (hash & setMask) * WAYS;
+		for (int i = base; i < base + WAYS; i++)
+		{
+			final Entry entry = entries[i];
+			if (entry != null && entry.hash == hash && entry.input.equals(input) && Objects.equals(entry.format, format))
+			{
+				if (referenced[i] == 0)
+				{
+					referenced[i] = 1;
+				}
+				hits.increment();
+				return entry;
+			}
+		}
+		misses.increment();
+		return null;
+	}
+
+	public void put(final String input, final String format, final String result)
+	{
+		put(input, format, result, CDateMetrics.NOT_RECORDED);
+	}
+
+	/**
+	 * @param stats counted stats of the parse, see {@link CDateMetrics#record(int)}
+	 */
+	void put(final String input, final String format, final String result, final int stats)
+	{
+		if (input.length() > MAX_INPUT_LENGTH || result == null || result.length() > MAX_RESULT_LENGTH)
+		{
+			return;
+		}
+		final int hash = hash(input, format);
+		final int set = hash & setMask;
+		final int base = set * WAYS;
+		int hand = hands[set];
+		int victim = -1;
+		for (int step = 0; step <= WAYS; step++)
+		{
+			final int i = base + hand;
+			hand = (hand + 1) & (WAYS - 1);
+			if (entries[i] == null || referenced[i] == 0)
+			{
+				victim = i;
+				break;
+			}
+			referenced[i] = 0; // second chance
+		}
+		if (victim == -1)
+		{ // all entries were referenced again by other threads meanwhile
+			victim = base + hand;
+		}
+		hands[set] = (byte) hand;
+		if (entries[victim] != null)
+		{
+			evictions.increment();
+		}
+		referenced[victim] = 0;
+		entries[victim] = new Entry(hash, input, format, result, stats);
+	}
+
+	public long getHitCount()
+	{
+		return hits.sum();
+	}
+
+	public long getMissCount()
+	{
+		return misses.sum();
+	}
+
+	public long getEvictionCount()
+	{
+		return evictions.sum();
+	}
+
+	public double getHitRate()
+	{
+		final long h = hits.sum();
+		final long total = h + misses.sum();
+		return total == 0 ? 0 : (double) h / total;
+	}
+
+	public int getCapacity()
+	{
+		return entries.length;
+	}
+
+	private static int hash(final String input, final String format)
+	{
+		final int h = input.hashCode() * 31 + (format != null ? format.hashCode() : 0);
+		return h ^ (h >>> 16);
+	}
+
+	static final class Entry
+	{
+		final int hash;
+		final String input;
+		final String format;
+		final String result;
+		/** {@link CDateMetrics#NOT_RECORDED} if parser has no metrics */
+		final int stats;
+
+		Entry(final int hash, final String input, final String format, final String result, final int stats)
+		{
+			this.hash = hash;
+			this.input = input;
+			this.format = format;
+			this.result = result;
+			this.stats = stats;
+		}
+	}
+}
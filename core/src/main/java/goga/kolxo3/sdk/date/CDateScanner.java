@@ -0,0 +1,597 @@
+package goga.kolxo3.sdk.date;
+
+/**
+ * Reusable single-pass tokenizer behind {@link CDateParser#getDate(String, String)}.
+ * <p>
+ * One pass over the trimmed input finds the delimiter (with the same priority as
+ * {@link CDateParser#detectDelimiter(String)}) and the boundaries of at most three parts,
+ * exactly as {@code String.split} would have produced them. Each part is then classified
+ * in place - digit values, year/month/day predicates and month name (see {@link CMonthNames}) - so nothing is
+ * allocated until the caller builds its output.
+ * <p>
+ * Optional time of day after the date - "1974-04-06T10:15:30.5Z", "02/02/2020 10:15", "2020-02-02 10:15:30 +0300" -
+ * is recognized by the same scanner: the first ':' marks the hour, the time is parsed up to the end of input,
+ * and only the part before it is split into date parts. Input with ':' which is not a valid time is scanned
+ * as a whole, the same as before, and so is input with time after something which is not a date (see
+ * {@link CDateParser#resolve(CDateScanner, CharSequence)}).
+ * <p>
+ * Instances are mutable and not thread-safe, keep one per thread.
+ *
+ * @author Igor Zamiatin
+ */
+final class CDateScanner
+{
+	static final int MAX_PARTS = 3;
+
+	static final int FLAG_LONG_YEAR = 1;
+	static final int FLAG_SHORT_YEAR = 1 << 1;
+	static final int FLAG_NUMERIC_MONTH = 1 << 2;
+	static final int FLAG_NUMERIC_DAY = 1 << 3;
+	/** part is a single digit, legacy code extended it to two digits ("5" -> "05") */
+	static final int FLAG_PADDED = 1 << 4;
+
+	/** returned by {@link #parseInt(int)} when the part is not a number */
+	static final long NOT_A_NUMBER = Long.MIN_VALUE;
+	/** offset of time w/o zone, see {@link #offsetSeconds()} */
+	static final int NO_OFFSET = Integer.MIN_VALUE;
+
+	private static final int MAX_OFFSET_SECONDS = 18 * 3600;
+	private static final int MAX_FRACTION_DIGITS = 9;
+
+	private CharSequence source;
+	private CMonthNames monthNames;
+	private char delimiter;
+	private int parts;
+	private final int[] starts = new int[MAX_PARTS];
+	private final int[] ends = new int[MAX_PARTS];
+	private final int[] flags = new int[MAX_PARTS];
+	private final int[] values = new int[MAX_PARTS];
+	private final int[] months = new int[MAX_PARTS];
+
+	// layout resolved by CDateParser heuristics
+	private int yearIndex;
+	private int monthIndex;
+	private int dayIndex;
+	private boolean monthByName;
+	private int heuristic;
+
+	// time of day, when hasTime
+	private boolean hasTime;
+	private int hour;
+	private int minute;
+	private int second;
+	private int nano;
+	private int offsetSeconds;
+	private int dateEnd;
+
+	/** counted metrics of the last getDate, cached with its result, see CDateMetrics#record(int) */
+	private int stats;
+
+	/**
+	 * Scan input date.
+	 * @param str input date, not null
+	 * @param names dictionary of month names
+	 * @return number of parts, 0 when input is blank or cannot be split (dotted dates);
+	 * parts are classified only when there are 1 to 3 of them
+	 */
+	int scan(final CharSequence str, final CMonthNames names)
+	{
+		return scan(str, names, true);
+	}
+
+	/**
+	 * @param time false - don't look for time of day, scan the whole input as date
+	 */
+	int scan(final CharSequence str, final CMonthNames names, final boolean time)
+	{
+		return scan(str, names, time, false);
+	}
+
+	/**
+	 * @param dots true - '.' is a delimiter with the highest priority ("06.04.1974"),
+	 * false - input with '.' cannot be split, as legacy split(".") had it
+	 */
+	int scan(final CharSequence str, final CMonthNames names, final boolean time, final boolean dots)
+	{
+		source = str;
+		monthNames = names;
+		delimiter = 0;
+		parts = 0;
+
+		int begin = 0;
+		int end = str.length();
+		while (begin < end && str.charAt(begin) <= ' ') begin++;
+		while (end > begin && str.charAt(end - 1) <= ' ') end--;
+		hasTime = false;
+		if (begin == end)
+		{
+			return 0;
+		}
+		if (time)
+		{
+			end = scanTime(str, begin, end);
+		}
+		dateEnd = end;
+
+		int rank = 0;
+		int count = 0;
+		int countAtLastOther = 0;
+		boolean sawOther = false;
+		int pos0 = -1, pos1 = -1, pos2 = -1;
+		for (int i = begin; i < end; i++)
+		{
+			final char c = str.charAt(i);
+			if (c == '.' && !dots)
+			{
+				// legacy split(".") is a regex matching every char: no parts at all
+				delimiter = '.';
+				return 0;
+			}
+			final int r = delimiterRank(c);
+			if (r > rank)
+			{ // delimiter with higher priority - everything before it is a single part
+				rank = r;
+				delimiter = c;
+				count = 0;
+				countAtLastOther = 0;
+				sawOther = i > begin;
+			}
+			if (r != 0 && r == rank)
+			{
+				switch (count)
+				{
+					case 0: pos0 = i; break;
+					case 1: pos1 = i; break;
+					case 2: pos2 = i; break;
+					default: break;
+				}
+				count++;
+			} else {
+				sawOther = true;
+				countAtLastOther = count;
+			}
+		}
+
+		if (rank == 0)
+		{
+			parts = 1;
+		} else {
+			// split() drops trailing empty parts
+			parts = sawOther ? countAtLastOther + 1 : 0;
+		}
+		if (parts == 0 || parts > MAX_PARTS)
+		{
+			return parts;
+		}
+		for (int i = 0; i < parts; i++)
+		{
+			final int start = i == 0 ? begin : (i == 1 ? pos0 : pos1) + 1;
+			final int stop = i < count ? (i == 0 ? pos0 : (i == 1 ? pos1 : pos2)) : end;
+			starts[i] = start;
+			ends[i] = stop;
+			classify(i, start, stop);
+		}
+		return parts;
+	}
+
+	/**
+	 * Find time at the end of input: hour of 1-2 digits after 'T' or space, ":mm", optional ":ss",
+	 * optional fraction of second after '.' or ',' and optional offset "Z", "+03", "+0300" or "+03:00".
+	 * @return end of the date part, trailing spaces excluded, or end if there is no valid time
+	 */
+	private int scanTime(final CharSequence str, final int begin, final int end)
+	{
+		int colon = begin;
+		while (colon < end && str.charAt(colon) != ':')
+		{
+			colon++;
+		}
+		if (colon == end || colon - begin < 3 || asciiDigit(str.charAt(colon - 1)) < 0)
+		{
+			return end;
+		}
+		final int hourStart = asciiDigit(str.charAt(colon - 2)) >= 0 ? colon - 2 : colon - 1;
+		final int separator = hourStart - 1;
+		if (separator <= begin || (str.charAt(separator) != 'T' && str.charAt(separator) != ' '))
+		{
+			return end;
+		}
+		int i = colon + 1;
+		final int h = hourStart == colon - 2 ? twoDigits(str, hourStart, colon) : asciiDigit(str.charAt(hourStart));
+		final int m = twoDigits(str, i, end);
+		if (h > 23 || m < 0 || m > 59)
+		{
+			return end;
+		}
+		i += 2;
+		int s = 0;
+		int n = 0;
+		if (i < end && str.charAt(i) == ':')
+		{
+			s = twoDigits(str, i + 1, end);
+			if (s < 0 || s > 59)
+			{
+				return end;
+			}
+			i += 3;
+			if (i < end && (str.charAt(i) == '.' || str.charAt(i) == ','))
+			{
+				final int fractionStart = ++i;
+				int scale = 100_000_000;
+				while (i < end && asciiDigit(str.charAt(i)) >= 0 && i - fractionStart < MAX_FRACTION_DIGITS)
+				{
+					n += asciiDigit(str.charAt(i++)) * scale;
+					scale /= 10;
+				}
+				if (i == fractionStart)
+				{
+					return end;
+				}
+			}
+		}
+		while (i < end && str.charAt(i) == ' ')
+		{
+			i++;
+		}
+		int offset = NO_OFFSET;
+		if (i < end)
+		{
+			final char sign = str.charAt(i);
+			if ((sign == 'Z' || sign == 'z') && i + 1 == end)
+			{
+				offset = 0;
+			} else if (sign == '+' || sign == '-') {
+				offset = parseOffset(str, i + 1, end);
+				if (offset == NO_OFFSET)
+				{
+					return end;
+				}
+				offset = sign == '-' ? -offset : offset;
+			} else {
+				return end;
+			}
+		}
+		hasTime = true;
+		hour = h;
+		minute = m;
+		second = s;
+		nano = n;
+		offsetSeconds = offset;
+		int dateEnd = separator;
+		while (dateEnd > begin && str.charAt(dateEnd - 1) <= ' ')
+		{
+			dateEnd--;
+		}
+		return dateEnd;
+	}
+
+	/**
+	 * @return seconds of "HH", "HHmm" or "HH:mm" up to the end, or NO_OFFSET
+	 */
+	private static int parseOffset(final CharSequence str, final int start, final int end)
+	{
+		final int hours = twoDigits(str, start, end);
+		int minutes = 0;
+		final int rest = end - start - 2;
+		if (rest == 2)
+		{
+			minutes = twoDigits(str, start + 2, end);
+		} else if (rest == 3 && str.charAt(start + 2) == ':') {
+			minutes = twoDigits(str, start + 3, end);
+		} else if (rest != 0) {
+			return NO_OFFSET;
+		}
+		final int seconds = hours * 3600 + minutes * 60;
+		return hours < 0 || minutes < 0 || minutes > 59 || seconds > MAX_OFFSET_SECONDS ? NO_OFFSET : seconds;
+	}
+
+	/**
+	 * @return value of 2 ASCII digits at start, -1 if they are not there
+	 */
+	private static int twoDigits(final CharSequence str, final int start, final int end)
+	{
+		if (end - start < 2)
+		{
+			return -1;
+		}
+		final int d0 = asciiDigit(str.charAt(start));
+		final int d1 = asciiDigit(str.charAt(start + 1));
+		return d0 >= 0 && d1 >= 0 ? d0 * 10 + d1 : -1;
+	}
+
+	private void classify(final int index, final int start, final int end)
+	{
+		final CharSequence str = source;
+		final int len = end - start;
+		int flag = 0;
+		int value = -1;
+		int month = 0;
+		if (len == 1)
+		{
+			final char c = str.charAt(start);
+			if (Character.isDigit(c))
+			{
+				value = Character.digit(c, 10);
+				flag = FLAG_PADDED | FLAG_SHORT_YEAR | (value > 0 ? FLAG_NUMERIC_MONTH | FLAG_NUMERIC_DAY : 0);
+			}
+		} else if (len == 2) {
+			final int d0 = asciiDigit(str.charAt(start));
+			final int d1 = asciiDigit(str.charAt(start + 1));
+			if (d0 >= 0 && d1 >= 0)
+			{
+				value = d0 * 10 + d1;
+				flag = FLAG_SHORT_YEAR;
+				if (value > 0 && value < 13) flag |= FLAG_NUMERIC_MONTH;
+				if (value > 0 && value < 32) flag |= FLAG_NUMERIC_DAY;
+			}
+		} else if (len == 4) {
+			final char c0 = str.charAt(start);
+			final char c1 = str.charAt(start + 1);
+			final int d2 = asciiDigit(str.charAt(start + 2));
+			final int d3 = asciiDigit(str.charAt(start + 3));
+			if (((c0 == '1' && c1 == '9') || (c0 == '2' && c1 == '0')) && d2 >= 0 && d3 >= 0)
+			{
+				value = (c0 - '0') * 1000 + (c1 - '0') * 100 + d2 * 10 + d3;
+				flag = FLAG_LONG_YEAR;
+			}
+		}
+		if (len >= 3 && flag == 0)
+		{
+			month = monthNames.match(str, start, end);
+		}
+		flags[index] = flag;
+		values[index] = value;
+		months[index] = month;
+	}
+
+	void layout(final int iYearIndex, final int iMonthIndex, final int iDayIndex, final boolean isMonthByName,
+			final int rule)
+	{
+		yearIndex = iYearIndex;
+		monthIndex = iMonthIndex;
+		dayIndex = iDayIndex;
+		monthByName = isMonthByName;
+		heuristic = rule;
+	}
+
+	/**
+	 * @return rule which resolved the layout, one of CDateParser.HEURISTIC_* constants
+	 */
+	int heuristic()
+	{
+		return heuristic;
+	}
+
+	int yearIndex()
+	{
+		return yearIndex;
+	}
+
+	int monthIndex()
+	{
+		return monthIndex;
+	}
+
+	int dayIndex()
+	{
+		return dayIndex;
+	}
+
+	boolean monthByName()
+	{
+		return monthByName;
+	}
+
+	/**
+	 * @return true if input has time of day after the date
+	 */
+	boolean hasTime()
+	{
+		return hasTime;
+	}
+
+	int hour()
+	{
+		return hour;
+	}
+
+	int minute()
+	{
+		return minute;
+	}
+
+	int second()
+	{
+		return second;
+	}
+
+	int nano()
+	{
+		return nano;
+	}
+
+	/**
+	 * @return offset of time from UTC in seconds, {@link #NO_OFFSET} if input has no offset
+	 */
+	int offsetSeconds()
+	{
+		return offsetSeconds;
+	}
+
+	/**
+	 * @return end of the scanned date: time of day and spaces before it are excluded
+	 */
+	int dateEnd()
+	{
+		return dateEnd;
+	}
+
+	int stats()
+	{
+		return stats;
+	}
+
+	void stats(final int stats)
+	{
+		this.stats = stats;
+	}
+
+	char delimiter()
+	{
+		return delimiter;
+	}
+
+	int parts()
+	{
+		return parts;
+	}
+
+	CharSequence source()
+	{
+		return source;
+	}
+
+	int start(final int index)
+	{
+		return starts[index];
+	}
+
+	int end(final int index)
+	{
+		return ends[index];
+	}
+
+	boolean is(final int index, final int flag)
+	{
+		return (flags[index] & flag) != 0;
+	}
+
+	/**
+	 * @return value of 1, 2 or 4 digits part (after extension of single digit), -1 otherwise
+	 */
+	int value(final int index)
+	{
+		return values[index];
+	}
+
+	/**
+	 * @return number of alphabetic month 1..12, or 0 if part is not a month name
+	 */
+	int month(final int index)
+	{
+		return months[index];
+	}
+
+	/**
+	 * Parse part as {@link Integer#parseInt(String)} does: optional sign, any Unicode digits.
+	 * @return value or {@link #NOT_A_NUMBER}
+	 */
+	long parseInt(final int index)
+	{
+		if (values[index] >= 0)
+		{
+			return values[index];
+		}
+		final CharSequence str = source;
+		int i = starts[index];
+		final int end = ends[index];
+		if (i >= end)
+		{
+			return NOT_A_NUMBER;
+		}
+		boolean negative = false;
+		final char first = str.charAt(i);
+		if (first == '-' || first == '+')
+		{
+			negative = first == '-';
+			if (++i == end)
+			{
+				return NOT_A_NUMBER;
+			}
+		}
+		long result = 0;
+		for (; i < end; i++)
+		{
+			final int digit = Character.digit(str.charAt(i), 10);
+			if (digit < 0)
+			{
+				return NOT_A_NUMBER;
+			}
+			result = result * 10 + digit;
+			if (result > (long) Integer.MAX_VALUE + 1)
+			{
+				return NOT_A_NUMBER;
+			}
+		}
+		if (negative)
+		{
+			return -result;
+		}
+		return result > Integer.MAX_VALUE ? NOT_A_NUMBER : result;
+	}
+
+	/**
+	 * Append part text as legacy code saw it: single digit is extended with leading zero
+	 */
+	StringBuilder appendPart(final StringBuilder sb, final int index)
+	{
+		if (is(index, FLAG_PADDED))
+		{
+			return sb.append('0').append((char) ('0' + values[index]));
+		}
+		return sb.append(source, starts[index], ends[index]);
+	}
+
+	/**
+	 * Copy part text as legacy code saw it into the buffer
+	 * @return number of copied chars, or -1 if buffer is too small
+	 */
+	int copyPart(final int index, final char[] dst, final int offset)
+	{
+		if (is(index, FLAG_PADDED))
+		{
+			if (dst.length - offset < 2)
+			{
+				return -1;
+			}
+			dst[offset] = '0';
+			dst[offset + 1] = (char) ('0' + values[index]);
+			return 2;
+		}
+		final int start = starts[index];
+		final int length = ends[index] - start;
+		if (dst.length - offset < length)
+		{
+			return -1;
+		}
+		final CharSequence str = source;
+		for (int i = 0; i < length; i++)
+		{
+			dst[offset + i] = str.charAt(start + i);
+		}
+		return length;
+	}
+
+	/**
+	 * Order is the same as {@link CDateParser#DELIMITERS}; NUL comes last because legacy code
+	 * split input by {@code "\0"} when no delimiter was detected.
+	 */
+	private static int delimiterRank(final char c)
+	{
+		switch (c)
+		{
+			case '.': return 5; // only when dots are delimiters, see scan
+			case '-': return 4;
+			case '/': return 3;
+			case ' ': return 2;
+			case 0: return 1;
+			default: return 0;
+		}
+	}
+
+	private static int asciiDigit(final char c)
+	{
+		return c >= '0' && c <= '9' ? c - '0' : -1;
+	}
+
+}
@@ -0,0 +1,156 @@
+package goga.kolxo3.sdk.date;
+
+/**
+ * Memoized layouts (which part is year, month and day) per input shape.
+ * <p>
+ * Shape signature is made of the delimiter, number of parts and the class of every part as the scanner
+ * sees it: long year, month name, two digits 01-12, 13-31, 00 or 32-99, anything else.
+ * Classes of two digits parts already carry the values the heuristics check ("19/1/2016" and "10/1/2016"
+ * have different signatures), so a plan found by signature is exactly the result of the heuristics
+ * and they are run only once per shape.
+ * <p>
+ * Signature fits into 14 bits, so plans are kept in a plain int array: bounded, lock-free,
+ * and a racy write of the same value from different threads is harmless. Plans depend on field orders
+ * of the parser, so parsers with the same field orders share one instance.
+ *
+ * @author Igor Zamiatin
+ */
+final class CDateShapePlans
+{
+	static final int CLASS_OTHER = 0;
+	static final int CLASS_LONG_YEAR = 1;
+	static final int CLASS_MONTH_NAME = 2;
+	static final int CLASS_MONTH_OR_DAY = 3; // 01-12
+	static final int CLASS_DAY = 4; // 13-31
+	static final int CLASS_SHORT_YEAR = 5; // 00, 32-99
+
+	private static final int SIGNATURE_BITS = 14;
+	/** number of signatures, all of them are less than it */
+	static final int SIGNATURES = 1 << SIGNATURE_BITS;
+	/** signature of input which is not split into 1..3 parts */
+	static final int UNSPLIT = 0;
+	private static final String[] CLASS_NAMES = {"x", "yyyy", "mmm", "nn", "dd", "yy"};
+	private static final char[] DELIMITER_CHARS = {0, 0, ' ', '/', '-', '.'}; // by delimiterCode
+	private static final int UNKNOWN = 0;
+
+	private final int[] plans = new int[SIGNATURES];
+
+	/**
+	 * @return signature of scanned input with 1..3 parts, {@link #UNSPLIT} for others
+	 */
+	static int signature(final CDateScanner scanner)
+	{
+		final int parts = scanner.parts();
+		if (parts < 1 || parts > CDateScanner.MAX_PARTS)
+		{
+			return UNSPLIT;
+		}
+		int signature = delimiterCode(scanner.delimiter()) | parts << 3;
+		for (int i = 0; i < parts; i++)
+		{
+			signature |= partClass(scanner, i) << (5 + 3 * i);
+		}
+		return signature;
+	}
+
+	/**
+	 * Readable shape of the signature: classes of parts joined by the delimiter, like "yyyy-nn-dd" or "mmm yyyy".
+	 * Classes are "yyyy", "yy" (00, 32-99), "nn" (01-12), "dd" (13-31), "mmm" (month name) and "x" (other).
+	 */
+	static String describe(final int signature)
+	{
+		final int parts = signature >> 3 & 3;
+		if (parts == 0)
+		{
+			return "unsplit";
+		}
+		final char delimiter = DELIMITER_CHARS[signature & 7];
+		final StringBuilder shape = new StringBuilder();
+		for (int i = 0; i < parts; i++)
+		{
+			if (i > 0 && delimiter != 0)
+			{
+				shape.append(delimiter);
+			}
+			shape.append(CLASS_NAMES[signature >> (5 + 3 * i) & 7]);
+		}
+		return shape.toString();
+	}
+
+	/**
+	 * @return plan for the signature, or 0 if this shape was not resolved yet
+	 */
+	int get(final int signature)
+	{
+		return plans[signature];
+	}
+
+	void put(final int signature, final int plan)
+	{
+		plans[signature] = plan;
+	}
+
+	/**
+	 * Pack result of heuristics, never returns 0
+	 * @param resolved one of CDateParser.RESOLVED_* constants
+	 * @param heuristic one of CDateParser.HEURISTIC_* constants
+	 */
+	static int encode(final int resolved, final int iYearIndex, final int iMonthIndex, final int iDayIndex,
+			final boolean isMonthByName, final int heuristic)
+	{
+		return heuristic << 13 | 1 << 12 | resolved << 9 | (iYearIndex + 1) << 6 | (iMonthIndex + 1) << 3
+				| (iDayIndex + 1) << 1 | (isMonthByName ? 1 : 0);
+	}
+
+	/**
+	 * Store layout of the plan into the scanner
+	 * @return one of CDateParser.RESOLVED_* constants
+	 */
+	static int apply(final int plan, final CDateScanner scanner)
+	{
+		final int resolved = plan >> 9 & 7;
+		if (resolved != CDateParser.RESOLVED_NONE)
+		{
+			scanner.layout((plan >> 6 & 7) - 1, (plan >> 3 & 7) - 1, (plan >> 1 & 3) - 1, (plan & 1) != 0, plan >> 13);
+		}
+		return resolved;
+	}
+
+	static int partClass(final CDateScanner scanner, final int index)
+	{
+		if (scanner.is(index, CDateScanner.FLAG_LONG_YEAR))
+		{
+			return CLASS_LONG_YEAR;
+		}
+		if (scanner.month(index) > 0)
+		{
+			return CLASS_MONTH_NAME;
+		}
+		if (scanner.is(index, CDateScanner.FLAG_NUMERIC_MONTH))
+		{
+			return CLASS_MONTH_OR_DAY;
+		}
+		if (scanner.is(index, CDateScanner.FLAG_NUMERIC_DAY))
+		{
+			return CLASS_DAY;
+		}
+		if (scanner.is(index, CDateScanner.FLAG_SHORT_YEAR))
+		{
+			return CLASS_SHORT_YEAR;
+		}
+		return CLASS_OTHER;
+	}
+
+	private static int delimiterCode(final char delimiter)
+	{
+		switch (delimiter)
+		{
+			case '.': return 5;
+			case '-': return 4;
+			case '/': return 3;
+			case ' ': return 2;
+			case 0: return 1;
+			default: return 0;
+		}
+	}
+}
@@ -0,0 +1,211 @@
+package goga.kolxo3.sdk.date;
+
+import java.text.Normalizer;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Dictionary of month names compiled once into a case-folded trie.
+ * <p>
+ * A word is a month when it's a prefix (3 chars at least) of a full or abbreviated month name, the same rule
+ * as {@link CDateParser#getAlphabeticMonth(String)} always had. English names are always included, other
+ * locales add their full, standalone and abbreviated names; names with diacritics are added also
+ * w/o them ("fevrier" for "février"). When a prefix is shared by different months (French "jui" - juin
+ * and juillet) the earlier month wins, like the first match in {@link CDateParser#MONTHS}.
+ * <p>
+ * Matching takes O(length of word) and creates no objects. Instances are immutable and thread-safe.
+ *
+ * @author Igor Zamiatin
+ */
+public final class CMonthNames
+{
+	/** English month names only, the default dictionary */
+	public static final CMonthNames ENGLISH = new CMonthNames(new Locale[0]);
+
+	private static final int MIN_PREFIX_LENGTH = 3;
+	private static final TextStyle[] STYLES = {
+			TextStyle.FULL, TextStyle.FULL_STANDALONE, TextStyle.SHORT, TextStyle.SHORT_STANDALONE
+	};
+
+	private final Locale[] locales;
+	// trie: edges of node n are edgeChars/edgeTargets[firstEdge[n] .. firstEdge[n + 1])
+	private final int[] firstEdge;
+	private final char[] edgeChars;
+	private final int[] edgeTargets;
+	private final byte[] months;
+
+	private CMonthNames(final Locale[] locales)
+	{
+		this.locales = locales.clone();
+		final Node root = new Node();
+		// English names from the table, not from locale data: loading CLDR costs tens of ms at startup
+		for (int month = 1; month <= CDateParser.MONTHS.length; month++)
+		{
+			add(root, CDateParser.MONTHS[month - 1], month);
+		}
+		for (final Locale locale : locales)
+		{
+			for (final Month month : Month.values())
+			{
+				for (final TextStyle style : STYLES)
+				{
+					final String name = month.getDisplayName(style, locale);
+					add(root, name, month.getValue());
+					add(root, stripDiacritics(name), month.getValue());
+				}
+			}
+		}
+		final List<Node> nodes = new ArrayList<>();
+		root.collect(nodes);
+		int edges = 0;
+		for (final Node node : nodes)
+		{
+			edges += node.children.size();
+		}
+		firstEdge = new int[nodes.size() + 1];
+		edgeChars = new char[edges];
+		edgeTargets = new int[edges];
+		months = new byte[nodes.size()];
+		int edge = 0;
+		for (int n = 0; n < nodes.size(); n++)
+		{
+			final Node node = nodes.get(n);
+			firstEdge[n] = edge;
+			months[n] = (byte) node.month;
+			for (final var child : node.children.entrySet())
+			{
+				edgeChars[edge] = child.getKey();
+				edgeTargets[edge] = child.getValue().index;
+				edge++;
+			}
+		}
+		firstEdge[nodes.size()] = edge;
+	}
+
+	/**
+	 * Dictionary of English month names and month names of given locales
+	 */
+	public static CMonthNames of(final Locale... locales)
+	{
+		final Set<Locale> unique = new LinkedHashSet<>(List.of(locales));
+		return unique.isEmpty() ? ENGLISH : new CMonthNames(unique.toArray(new Locale[0]));
+	}
+
+	/**
+	 * Locales of this dictionary, except English
+	 */
+	public Locale[] getLocales()
+	{
+		return locales.clone();
+	}
+
+	/**
+	 * @return number of month 1..12, or 0 if word is not a month name
+	 */
+	public int match(final CharSequence str)
+	{
+		return null != str ? match(str, 0, str.length()) : 0;
+	}
+
+	/**
+	 * @return number of month 1..12, or 0 if chars from start to end are not a month name
+	 */
+	public int match(final CharSequence str, final int start, final int end)
+	{
+		if (end - start < MIN_PREFIX_LENGTH)
+		{
+			return 0;
+		}
+		int node = 0;
+		for (int i = start; i < end; i++)
+		{
+			final char c = fold(str.charAt(i));
+			int next = -1;
+			for (int e = firstEdge[node]; e < firstEdge[node + 1]; e++)
+			{
+				if (edgeChars[e] == c)
+				{
+					next = edgeTargets[e];
+					break;
+				}
+			}
+			if (next < 0)
+			{
+				return 0;
+			}
+			node = next;
+		}
+		return months[node];
+	}
+
+	/**
+	 * Locale independent lower case. Non-ASCII chars which lower case is ASCII (like Kelvin sign or
+	 * dotted capital I) are not folded, so English names are matched exactly as before.
+	 */
+	private static char fold(final char c)
+	{
+		if (c < 0x80)
+		{
+			return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+		}
+		final char lower = Character.toLowerCase(c);
+		return lower < 0x80 ? c : lower;
+	}
+
+	private static void add(final Node root, final String name, final int month)
+	{
+		Node node = root;
+		int depth = 0;
+		for (int i = 0; i < name.length(); i++)
+		{
+			final char c = fold(name.charAt(i));
+			if (c == '.')
+			{
+				break; // abbreviation mark
+			}
+			Node child = node.children.get(c);
+			if (child == null)
+			{
+				child = new Node();
+				node.children.put(c, child);
+			}
+			node = child;
+			depth++;
+			if (depth >= MIN_PREFIX_LENGTH && (node.month == 0 || node.month > month))
+			{
+				node.month = month;
+			}
+		}
+	}
+
+	private static String stripDiacritics(final String name)
+	{
+		return Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+	}
+
+	/**
+	 * Node of trie while it's built
+	 */
+	private static final class Node
+	{
+		final TreeMap<Character, Node> children = new TreeMap<>();
+		int month;
+		int index;
+
+		void collect(final List<Node> nodes)
+		{
+			index = nodes.size();
+			nodes.add(this);
+			for (final Node child : children.values())
+			{
+				child.collect(nodes);
+			}
+		}
+	}
+}
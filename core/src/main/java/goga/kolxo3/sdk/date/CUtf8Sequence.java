@@ -0,0 +1,181 @@
+package goga.kolxo3.sdk.date;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reusable char view over a range of UTF-8 bytes.
+ * <p>
+ * ASCII bytes (all numeric dates) are chars as is, w/o decoding. A range with multibyte sequences - month names
+ * like "février" or "января" - is decoded once into a reused char buffer, malformed sequences become U+FFFD.
+ * <p>
+ * Instances are mutable and not thread-safe.
+ *
+ * @author Igor Zamiatin
+ */
+final class CUtf8Sequence implements CharSequence
+{
+	private static final char REPLACEMENT = '\uFFFD';
+
+	private byte[] array;
+	private ByteBuffer buffer;
+	private int start;
+	private int length;
+	/** chars of range with non-ASCII bytes, null for ASCII range */
+	private char[] decoded;
+	private char[] chars = new char[0];
+
+	CUtf8Sequence wrap(final byte[] bytes, final int offset, final int len)
+	{
+		array = bytes;
+		buffer = null;
+		start = offset;
+		length = len;
+		return decodeIfNeeded();
+	}
+
+	/**
+	 * Wrap range of buffer by absolute positions, position and limit of buffer are not used
+	 */
+	CUtf8Sequence wrap(final ByteBuffer bytes, final int offset, final int len)
+	{
+		if (bytes.hasArray())
+		{
+			return wrap(bytes.array(), bytes.arrayOffset() + offset, len);
+		}
+		array = null;
+		buffer = bytes;
+		start = offset;
+		length = len;
+		return decodeIfNeeded();
+	}
+
+	private CUtf8Sequence decodeIfNeeded()
+	{
+		decoded = null;
+		for (int i = 0; i < length; i++)
+		{
+			if (byteAt(i) < 0)
+			{
+				decode(i);
+				break;
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Decode UTF-8 bytes of the range, the first non-ASCII byte is at ascii
+	 */
+	private void decode(final int ascii)
+	{
+		if (chars.length < length)
+		{
+			chars = new char[Math.max(length, chars.length * 2)];
+		}
+		int n = 0;
+		for (; n < ascii; n++)
+		{
+			chars[n] = (char) byteAt(n);
+		}
+		int i = ascii;
+		while (i < length)
+		{
+			final int b = byteAt(i) & 0xFF;
+			final int need;
+			int code;
+			if (b < 0x80)
+			{
+				chars[n++] = (char) b;
+				i++;
+				continue;
+			} else if (b >= 0xC2 && b <= 0xDF) {
+				need = 1;
+				code = b & 0x1F;
+			} else if (b >= 0xE0 && b <= 0xEF) {
+				need = 2;
+				code = b & 0x0F;
+			} else if (b >= 0xF0 && b <= 0xF4) {
+				need = 3;
+				code = b & 0x07;
+			} else {
+				chars[n++] = REPLACEMENT;
+				i++;
+				continue;
+			}
+			int read = 1;
+			while (read <= need && i + read < length && (byteAt(i + read) & 0xC0) == 0x80)
+			{
+				code = code << 6 | (byteAt(i + read) & 0x3F);
+				read++;
+			}
+			i += read;
+			if (read <= need || (need == 2 && (code < 0x800 || Character.isSurrogate((char) code)))
+					|| (need == 3 && (code < 0x10000 || code > Character.MAX_CODE_POINT)))
+			{
+				chars[n++] = REPLACEMENT;
+			} else if (need == 3) {
+				chars[n++] = Character.highSurrogate(code);
+				chars[n++] = Character.lowSurrogate(code);
+			} else {
+				chars[n++] = (char) code;
+			}
+		}
+		decoded = chars;
+		length = n;
+	}
+
+	private byte byteAt(final int index)
+	{
+		return array != null ? array[start + index] : buffer.get(start + index);
+	}
+
+	/**
+	 * Release wrapped bytes
+	 */
+	void clear()
+	{
+		array = null;
+		buffer = null;
+		decoded = null;
+		length = 0;
+	}
+
+	@Override
+	public int length()
+	{
+		return length;
+	}
+
+	@Override
+	public char charAt(final int index)
+	{
+		if (index < 0 || index >= length)
+		{
+			throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+		}
+		return decoded != null ? decoded[index] : (char) (byteAt(index) & 0xFF);
+	}
+
+	@Override
+	public CharSequence subSequence(final int from, final int to)
+	{
+		return toString().substring(from, to);
+	}
+
+	@Override
+	public String toString()
+	{
+		if (decoded != null)
+		{
+			return new String(decoded, 0, length);
+		}
+		if (array != null)
+		{
+			return new String(array, start, length, StandardCharsets.ISO_8859_1);
+		}
+		final byte[] bytes = new byte[length];
+		buffer.get(start, bytes);
+		return new String(bytes, StandardCharsets.ISO_8859_1);
+	}
+}
@@ -0,0 +1,185 @@
+package goga.kolxo3.sdk.date;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CDateBatchNormalizerTest {
+
+	private static final String FORMAT = "MM/dd/yyyy";
+
+	@TempDir
+	Path directory;
+
+	private final CDateFileNormalizer normalizer = new CDateFileNormalizer(1, ',', FORMAT, true, 64);
+
+	private static String rows(final int from, final int to)
+	{
+		final StringBuilder rows = new StringBuilder();
+		for (int i = from; i < to; i++)
+		{
+			rows.append(i).append(',').append(1900 + i % 100).append('-').append(1 + i % 12).append("-1,title ")
+					.append(i).append('\n');
+		}
+		return rows.toString();
+	}
+
+	private String expected(final Path input) throws IOException
+	{
+		final Path output = directory.resolve("expected.csv");
+		new CDateFileNormalizer(1, ',', FORMAT, true).normalize(input, output);
+		return Files.readString(output);
+	}
+
+	@Test
+	@DisplayName("Test unchanged files are skipped and appended tails are normalized alone")
+	public void testIncremental() throws IOException
+	{
+		final Path input = Files.createDirectories(directory.resolve("in/sub"));
+		final Path output = directory.resolve("out");
+		final Path first = Files.writeString(input.resolve("first.csv"), "id,date,title\n" + rows(0, 100));
+		final Path second = Files.writeString(input.resolve("second.csv"), "id,date,title\n" + rows(100, 110));
+		final CDateBatchNormalizer batch = new CDateBatchNormalizer(normalizer, 2);
+
+		CDateBatchNormalizer.Statistics statistics = batch.normalize(directory.resolve("in"), output);
+		assertThat(statistics.getFiles()).isEqualTo(2);
+		assertThat(statistics.getRewritten()).isEqualTo(2);
+		assertThat(statistics.getRows()).isEqualTo(112);
+		assertThat(Files.readString(output.resolve("sub/first.csv"))).isEqualTo(expected(first));
+		assertThat(Files.readString(output.resolve("sub/second.csv"))).isEqualTo(expected(second));
+
+		statistics = batch.normalize(directory.resolve("in"), output);
+		assertThat(statistics.getSkipped()).isEqualTo(2);
+		assertThat(statistics.getBytes()).isZero();
+
+		Files.writeString(first, rows(200, 203), StandardOpenOption.APPEND);
+		statistics = batch.normalize(directory.resolve("in"), output);
+		assertThat(statistics.getSkipped()).isEqualTo(1);
+		assertThat(statistics.getAppended()).isEqualTo(1);
+		assertThat(statistics.getRows()).isEqualTo(3);
+		assertThat(statistics.getBytes()).isEqualTo(rows(200, 203).length());
+		assertThat(Files.readString(output.resolve("sub/first.csv"))).isEqualTo(expected(first));
+	}
+
+	@Test
+	@DisplayName("Test the last row w/o line break is normalized again when it grows")
+	public void testUnfinishedRow() throws IOException
+	{
+		final Path input = Files.createDirectories(directory.resolve("in"));
+		final Path output = directory.resolve("out");
+		final Path file = Files.writeString(input.resolve("file.csv"), "id,date,title\n1,1974-Apr-05,First\n2,2/2/20");
+		final CDateBatchNormalizer batch = new CDateBatchNormalizer(normalizer, 1);
+		batch.normalize(input, output);
+		assertThat(Files.readString(output.resolve("file.csv"))).isEqualTo(expected(file));
+
+		Files.writeString(file, "20,Second\n3,19/1/2016,Third\n", StandardOpenOption.APPEND);
+		final CDateBatchNormalizer.Statistics statistics = batch.normalize(input, output);
+		assertThat(statistics.getAppended()).isEqualTo(1);
+		assertThat(statistics.getRows()).isEqualTo(2);
+		assertThat(Files.readString(output.resolve("file.csv")))
+				.isEqualTo("id,date,title\n1,04/05/1974,First\n2,02/02/2020,Second\n3,01/19/2016,Third\n");
+	}
+
+	@Test
+	@DisplayName("Test rewritten file is normalized from the start")
+	public void testRewritten() throws IOException
+	{
+		final Path input = Files.createDirectories(directory.resolve("in"));
+		final Path output = directory.resolve("out");
+		final Path file = Files.writeString(input.resolve("file.csv"), "id,date,title\n" + rows(0, 50));
+		final CDateBatchNormalizer batch = new CDateBatchNormalizer(normalizer, 1);
+		batch.normalize(input, output);
+
+		// the same size, other bytes
+		Files.writeString(file, "id,date,title\n" + rows(0, 50).replace("title", "TITLE"));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 5000));
+		CDateBatchNormalizer.Statistics statistics = batch.normalize(input, output);
+		assertThat(statistics.getRewritten()).isEqualTo(1);
+		assertThat(Files.readString(output.resolve("file.csv"))).isEqualTo(expected(file));
+
+		// shrunk
+		Files.writeString(file, "id,date,title\n" + rows(0, 5));
+		statistics = batch.normalize(input, output);
+		assertThat(statistics.getRewritten()).isEqualTo(1);
+		assertThat(Files.readString(output.resolve("file.csv"))).isEqualTo(expected(file));
+	}
+
+	@Test
+	@DisplayName("Test grown file edited at the start is normalized from the start")
+	public void testEditedHead() throws IOException
+	{
+		final Path input = Files.createDirectories(directory.resolve("in"));
+		final Path output = directory.resolve("out");
+		final String text = "id,date,title\n" + rows(0, 1000);
+		final Path file = Files.writeString(input.resolve("file.csv"), text);
+		final CDateBatchNormalizer batch = new CDateBatchNormalizer(normalizer, 1);
+		batch.normalize(input, output);
+
+		// far from the checkpoint, the bytes before it are the same
+		assertThat(text.length()).isGreaterThan(2 * CDateBatchNormalizer.FINGERPRINT_SIZE);
+		Files.writeString(file, text.replace("\n1,1901-2-1,", "\n1,1901-3-1,") + rows(1000, 1010));
+		final CDateBatchNormalizer.Statistics statistics = batch.normalize(input, output);
+		assertThat(statistics.getRewritten()).isEqualTo(1);
+		assertThat(statistics.getRows()).isEqualTo(1011);
+		assertThat(Files.readString(output.resolve("file.csv"))).isEqualTo(expected(file)).contains("\n1,03/01/1901,");
+	}
+
+	@Test
+	@DisplayName("Test killed run resumes from its last journaled rows")
+	public void testResume() throws IOException
+	{
+		final Path input = Files.createDirectories(directory.resolve("in"));
+		final Path output = Files.createDirectories(directory.resolve("out"));
+		final String text = "id,date,title\n" + rows(0, 100);
+		final Path file = Files.writeString(input.resolve("file.csv"), text);
+		final String expected = expected(file);
+
+		// the run was killed after 40 rows: output has some more bytes, the journal ends with a torn line
+		final int rowsEnd = text.indexOf("\n40,") + 1;
+		final int outputRowsEnd = expected.indexOf("\n40,") + 1;
+		final String checkpoint;
+		try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ))
+		{
+			checkpoint = new CDateBatchNormalizer.Checkpoint("file.csv", text.length(),
+					Files.getLastModifiedTime(file).toMillis(), rowsEnd, outputRowsEnd,
+					CDateBatchNormalizer.fingerprint(in, rowsEnd), false).toLine();
+		}
+		Files.writeString(output.resolve(CDateBatchNormalizer.CHECKPOINT_FILE),
+				checkpoint + "\n" + checkpoint.substring(0, 20));
+		Files.writeString(output.resolve("file.csv"), expected.substring(0, outputRowsEnd + 7));
+
+		final CDateBatchNormalizer.Statistics statistics = new CDateBatchNormalizer(normalizer, 1).normalize(input, output);
+		assertThat(statistics.getAppended()).isEqualTo(1);
+		assertThat(statistics.getRows()).isEqualTo(60);
+		assertThat(Files.readString(output.resolve("file.csv"))).isEqualTo(expected);
+		assertThat(CDateBatchNormalizer.load(output.resolve(CDateBatchNormalizer.CHECKPOINT_FILE)).get("file.csv").complete)
+				.isTrue();
+	}
+
+	@Test
+	@DisplayName("Test broken journal lines are ignored")
+	public void testParseCheckpoint()
+	{
+		final CDateBatchNormalizer.Checkpoint checkpoint = new CDateBatchNormalizer.Checkpoint("a\tb.csv", 100, 5, 90, 95,
+				12345, true);
+		final CDateBatchNormalizer.Checkpoint parsed = CDateBatchNormalizer.Checkpoint.parse(checkpoint.toLine());
+		assertThat(parsed.key).isEqualTo("a\tb.csv");
+		assertThat(parsed.rowsEnd).isEqualTo(90);
+		assertThat(parsed.complete).isTrue();
+		assertThat(CDateBatchNormalizer.Checkpoint.parse(checkpoint.toLine().replace("\t90\t", "\t91\t"))).isNull();
+		assertThat(CDateBatchNormalizer.Checkpoint.parse("1\t2\t3")).isNull();
+		assertThat(CDateBatchNormalizer.Checkpoint.parse("")).isNull();
+		assertThatThrownBy(() -> new CDateBatchNormalizer(normalizer, 1).normalize(directory, directory.resolve("out")))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,104 @@
+package goga.kolxo3.sdk.date;
+
+import goga.kolxo3.sdk.date.CDateParser.FieldOrder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CDateColumnLayoutTest {
+
+	private static final String FORMAT = "yyyy-MM-dd";
+
+	@Test
+	@DisplayName("Test one day over 12 settles day-first order of the column")
+	public void testDayFirstColumn()
+	{
+		final CDateParser parser = CDateParser.builder().pivotYear(2026).build();
+		final String[] column = {"10/1/2016", "5/2/2016", null, "25/12/2016", "blabla", "3/4/2016"};
+		final CDateColumnLayout layout = CDateColumnLayout.infer(parser, column);
+		assertThat(layout.getDelimiter()).isEqualTo('/');
+		assertThat(layout.getFieldOrder()).isEqualTo(FieldOrder.DMY);
+		assertThat(layout.getConfidence()).isEqualTo(1.0);
+		assertThat(layout.getSampled()).isEqualTo(5);
+		assertThat(layout.getDecisive()).isEqualTo(1);
+		assertThat(layout.getDates(column, FORMAT))
+				.containsExactly("2016-01-10", "2016-02-05", null, "2016-12-25", "blabla", "2016-04-03");
+		// parser of the column is a new one, the original keeps its settings
+		assertThat(parser.getDate("10/1/2016", FORMAT)).isEqualTo("2016-10-01");
+		assertThat(layout.getParser().getFieldOrder('-')).isEqualTo(FieldOrder.MDY);
+	}
+
+	@Test
+	@DisplayName("Test column w/o decisive values keeps parser settings")
+	public void testAmbiguousColumn()
+	{
+		final CDateParser parser = new CDateParser();
+		final CDateColumnLayout layout = CDateColumnLayout.infer(parser, new String[] {"10/1/2016", "5/2/2016", "Apr 2020"});
+		assertThat(layout.getParser()).isSameAs(parser);
+		assertThat(layout.getFieldOrder()).isEqualTo(FieldOrder.MDY);
+		assertThat(layout.getConfidence()).isZero();
+		assertThat(layout.getDecisive()).isZero();
+
+		final CDateColumnLayout empty = CDateColumnLayout.infer(parser, new String[] {"blabla", "1989"});
+		assertThat(empty.getParser()).isSameAs(parser);
+		assertThat(empty.getDelimiter()).isEqualTo((char) 0);
+		assertThat(empty.getFieldOrder()).isNull();
+	}
+
+	@Test
+	@DisplayName("Test field order is changed only with enough confidence")
+	public void testMinConfidence()
+	{
+		final CDateParser parser = new CDateParser();
+		final String[] column = {"25/12/2016", "26/12/2016", "27/12/2016", "12/28/2016", "1/2/2016"};
+		final CDateColumnLayout layout = CDateColumnLayout.infer(parser, column, 0, column.length, 100, 0.8);
+		assertThat(layout.getConfidence()).isEqualTo(0.75);
+		assertThat(layout.getFieldOrder()).isEqualTo(FieldOrder.MDY);
+		assertThat(layout.getParser()).isSameAs(parser);
+		final CDateColumnLayout relaxed = CDateColumnLayout.infer(parser, column, 0, column.length, 100, 0.7);
+		assertThat(relaxed.getFieldOrder()).isEqualTo(FieldOrder.DMY);
+		// values which don't fit the layout fall back to per value heuristics
+		assertThat(relaxed.getDates(column, FORMAT))
+				.containsExactly("2016-12-25", "2016-12-26", "2016-12-27", "2016-12-28", "2016-02-01");
+		// only first values are sampled
+		final CDateColumnLayout head = CDateColumnLayout.infer(parser, column, 3, 2, 1, 0.8);
+		assertThat(head.getSampled()).isEqualTo(1);
+		assertThat(head.getFieldOrder()).isEqualTo(FieldOrder.MDY);
+		assertThat(head.getConfidence()).isEqualTo(1.0);
+	}
+
+	@Test
+	@DisplayName("Test two-digit years of the column choose the century")
+	public void testCenturyRule()
+	{
+		final CDateParser parser = CDateParser.builder().pivotYear(2099).build();
+		final String[] column = {"98-02-02", "99-03-03", "00-04-04", "01-05-05"};
+		assertThat(parser.getDates(column, FORMAT)).containsExactly("2098-02-02", "1999-03-03", "2000-04-04", "2001-05-05");
+		final CDateColumnLayout layout = CDateColumnLayout.infer(parser, column);
+		assertThat(layout.getPivotYear()).isEqualTo(2050);
+		assertThat(layout.getDates(column, FORMAT)).containsExactly("1998-02-02", "1999-03-03", "2000-04-04", "2001-05-05");
+
+		// years which are not split keep pivot year
+		final CDateParser current = CDateParser.builder().pivotYear(2026).build();
+		assertThat(CDateColumnLayout.infer(current, column).getParser()).isSameAs(current);
+		assertThat(CDateColumnLayout.infer(current, new String[] {"10-01-01", "25-01-01"}).getPivotYear()).isEqualTo(2026);
+		// 20..35 are split by 2026, the closest pivot in the gap is 1978
+		assertThat(CDateColumnLayout.infer(current, new String[] {"20-01-01", "35-01-01"}).getPivotYear()).isEqualTo(1978);
+	}
+
+	@Test
+	@DisplayName("Test invalid arguments of inference")
+	public void testInvalidArguments()
+	{
+		final CDateParser parser = new CDateParser();
+		final String[] column = {"10/1/2016"};
+		assertThatThrownBy(() -> CDateColumnLayout.infer(parser, column, 0, 2, 10, 0.8))
+				.isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> CDateColumnLayout.infer(parser, column, 0, 1, 0, 0.8))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CDateColumnLayout.infer(parser, column, 0, 1, 10, 1.5))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,729 @@
+package goga.kolxo3.sdk.date;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Differential test of every parse path of {@link CDateParser} against {@link LegacyCDateParser#getDate(String, String)},
+ * the gate for performance work on them, together with the parameterized sets of {@link CDateParserTest}.
+ * <p>
+ * Inputs are generated from a fixed seed: dates of all layouts, delimiters and month names, their mutations
+ * and random garbage. Every divergence is minimized to the shortest input which still diverges and reported.
+ * Paths which return no String (packed dates, epoch days, parse results, strict layouts) are compared with
+ * legacy output of {@link #CANONICAL} pattern read back into packed date, the file normalizer - row by row
+ * of a generated file.
+ * Default run is small enough for every build, performance work is gated by the large run of millions of inputs:
+ * {@code mvn test -Dtest=CDateDifferentialTest -Ddifferential.inputs=20000000 -Ddifferential.seed=7}
+ */
+public class CDateDifferentialTest {
+
+	private static final int INPUTS = Integer.getInteger("differential.inputs", 50_000);
+	private static final long SEED = Long.getLong("differential.seed", 1974_04_06L);
+	private static final int REPORTED = 50;
+
+	private static final String[] FORMATS = {"MM/dd/yyyy", "dd.MM.yyyy", "yyyy-MM-dd", "MMddyyyy", "d MMM uuuu"};
+	private static final String[] MONTHS = {"Jan", "feb", "MAR", "April", "may", "June", "Jul.", "August", "Sept",
+			"Oct", "November", "dec", "Ap", "Aprilis", "Dicemb", "Mayo", "Juno", "février", "Mär", "мая"};
+	private static final char[] DELIMITERS = {'.', '-', '/', ' '};
+	/** chars of mutations: parts of dates, signs, non-ASCII digit, NUL and tab */
+	private static final String MUTATIONS = "0123456789-/. \t+,:aJnM٣\u0000";
+
+	/** time of day after structured dates, valid and not */
+	private static final String[] TIMES = {" 10:15", "T10:15:30Z", " 7:05:09 +05", " 23:59:59.123456789 -01:30",
+			"T24:00", " 10:60", " 10:15 UTC", " 1:2", "  10:15:30,5"};
+
+	/**
+	 * legacy output of this pattern is easy to read back: "<19740406>" is full date, "6/1974" month and year.
+	 * Proleptic year, year of era would print year 0 as "0001".
+	 */
+	private static final String CANONICAL = "'<'uuuuMMdd'>'";
+	/** result of packed paths for inputs they are not meant for */
+	private static final int NOT_APPLICABLE = Integer.MIN_VALUE;
+	private static final int FILE_INPUTS = Math.max(1, INPUTS / 50);
+	private static final char FILE_SEPARATOR = ';';
+
+	@TempDir
+	Path directory;
+
+	private static final String AS_IS = "AS IS";
+	private static final String NOT_A_DATE = DateTimeException.class.getName();
+	/** known deviation: the legacy code failed when year is first and month name is last ("1974-05-Apr") */
+	private static final String LEGACY_FAILURE = ArrayIndexOutOfBoundsException.class.getName();
+	private static final LegacyCDateParser LEGACY = new LegacyCDateParser();
+
+	@Test
+	@DisplayName("Test all parse paths give the same results as legacy getDate on generated inputs")
+	public void testParsePathsMatchLegacy()
+	{
+		final List<ParsePath> paths = paths();
+		final Map<String, Divergence> divergences = new LinkedHashMap<>();
+		long found = 0;
+		final Generator generator = new Generator(SEED);
+		for (int i = 0; i < INPUTS; i++)
+		{
+			final String input = generator.next();
+			final String format = FORMATS[i % FORMATS.length];
+			final String expected = outcome(LEGACY::getDate, input, format);
+			final String canonical = outcome(LEGACY::getDate, input, CANONICAL);
+			for (final ParsePath path : paths)
+			{
+				found += check(path, input, path.packed ? CANONICAL : format, path.packed ? canonical : expected, divergences);
+			}
+		}
+		report(divergences, found, INPUTS + " inputs from seed " + SEED + " through " + paths.size() + " paths");
+	}
+
+	@Test
+	@DisplayName("Test file normalizer gives the same dates as legacy getDate on generated rows")
+	public void testFileNormalizerMatchesLegacy() throws IOException
+	{
+		final Map<String, Divergence> divergences = new LinkedHashMap<>();
+		long found = 0;
+		final Generator generator = new Generator(SEED);
+		for (final String format : FORMATS)
+		{
+			final List<String> inputs = new ArrayList<>();
+			while (inputs.size() < FILE_INPUTS)
+			{
+				final String input = generator.next();
+				if (isField(input))
+				{
+					inputs.add(input);
+				}
+			}
+			final List<String> outputs = normalize(inputs, format);
+			final Map<String, String> rows = new HashMap<>();
+			for (int i = 0; i < inputs.size(); i++)
+			{
+				rows.put(inputs.get(i), outputs.get(i));
+			}
+			// minimized inputs are not in the file, they get a file of their own
+			final ParsePath path = new ParsePath("file", false, (input, pattern) -> rows.containsKey(input) ? rows.get(input)
+					: isField(input) ? normalizeUnchecked(List.of(input), pattern).get(0) : null);
+			for (final String input : inputs)
+			{
+				found += check(path, input, format, outcome(LEGACY::getDate, input, format), divergences);
+			}
+		}
+		report(divergences, found, FORMATS.length * FILE_INPUTS + " rows from seed " + SEED);
+	}
+
+	/**
+	 * @return 1 if the path diverges from legacy code on this input, the minimized divergence is added to the map
+	 */
+	private static int check(final ParsePath path, final String input, final String format, final String expected,
+			final Map<String, Divergence> divergences)
+	{
+		if (path.matches(expected, input, format))
+		{
+			return 0;
+		}
+		final String minimal = minimize(input,
+				candidate -> !path.matches(outcome(LEGACY::getDate, candidate, format), candidate, format));
+		divergences.computeIfAbsent(path.name + '|' + format + '|' + minimal,
+				key -> new Divergence(path, format, input, minimal, outcome(LEGACY::getDate, minimal, format)));
+		return 1;
+	}
+
+	private static void report(final Map<String, Divergence> divergences, final long found, final String checked)
+	{
+		final StringBuilder report = new StringBuilder().append(checked).append(": ").append(found)
+				.append(" divergences, ").append(divergences.size()).append(" distinct minimized\n");
+		int reported = 0;
+		for (final Divergence divergence : divergences.values())
+		{
+			if (reported++ < REPORTED)
+			{
+				report.append(divergence).append('\n');
+			}
+		}
+		assertThat(divergences).as(report.toString()).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Test divergence is minimized to the shortest input which still diverges")
+	public void testMinimize()
+	{
+		assertThat(minimize("12/31/1999 x13y", input -> input.contains("13"))).isEqualTo("13");
+		assertThat(minimize("1974-05-Apr", input -> input.indexOf('-') != input.lastIndexOf('-'))).isEqualTo("--");
+		assertThat(minimize("abc", input -> false)).isEqualTo("abc");
+	}
+
+	@Test
+	@DisplayName("Test generator is reproducible by seed")
+	public void testGenerator()
+	{
+		final Generator first = new Generator(42);
+		final Generator second = new Generator(42);
+		for (int i = 0; i < 1000; i++)
+		{
+			assertThat(first.next()).isEqualTo(second.next());
+		}
+	}
+
+	/**
+	 * Parse paths under test. Paths w/o exceptions write nothing for invalid dates,
+	 * for them "not a date" of legacy code means the input AS IS.
+	 */
+	private static List<ParsePath> paths()
+	{
+		final CDateParser parser = new CDateParser();
+		final CDateParser cached = CDateParser.builder().resultCache(new CDateResultCache(4096)).build();
+		final char[] chars = new char[256];
+		final byte[] bytes = new byte[256];
+		final List<ParsePath> paths = new ArrayList<>();
+		paths.add(new ParsePath("getDate", true, parser::getDate));
+		paths.add(new ParsePath("resultCache", true, cached::getDate));
+		paths.add(new ParsePath("getDates", true, (input, format) -> parser.getDates(new String[] {input}, format)[0]));
+		paths.add(new ParsePath("chars", false, (input, format) -> {
+			final int length = parser.getDate(input, format, chars, 0);
+			return length >= 0 ? new String(chars, 0, length) : AS_IS;
+		}));
+		paths.add(new ParsePath("builder", false, (input, format) -> {
+			final StringBuilder dst = new StringBuilder("[");
+			return parser.getDate(input, format, dst) >= 0 ? dst.substring(1) : AS_IS;
+		}));
+		paths.add(new ParsePath("bytes", false, (input, format) -> {
+			final byte[] src = input.getBytes(StandardCharsets.UTF_8);
+			final int length = parser.getDate(src, 0, src.length, format, bytes, 0);
+			return length >= 0 ? new String(bytes, 0, length, StandardCharsets.UTF_8) : AS_IS;
+		}));
+
+		paths.add(ParsePath.packed("parsePacked", false, parser::parsePacked));
+		paths.add(ParsePath.packed("parsePackedBytes", false, input -> {
+			final byte[] src = input.getBytes(StandardCharsets.UTF_8);
+			return parser.parsePacked(src, 0, src.length);
+		}));
+		paths.add(ParsePath.packed("parseToEpochDay", true, input -> packed(parser.parseToEpochDay(input))));
+		final CDateEpochColumn column = CDateEpochColumn.allocate(1);
+		paths.add(ParsePath.packed("parseToColumn", true, input -> {
+			parser.parseToColumn(new String[] {input}, 0, 1, column, 0);
+			return column.isValid(0) ? packed(column.getEpochDay(0)) : CDateParser.INVALID_PACKED_DATE;
+		}));
+		final CDateParseResult result = new CDateParseResult();
+		paths.add(ParsePath.packed("parse", false, input -> {
+			return parser.parse(input, result) ? packed(result.getYear(), result.getMonth(), result.getDay())
+					: CDateParser.INVALID_PACKED_DATE;
+		}));
+		for (final String layout : new String[] {"yyyy-MM-dd", "MM/dd/yyyy"})
+		{
+			paths.add(layoutPath(layout));
+			paths.add(layoutBulkPath(layout));
+		}
+		return paths;
+	}
+
+	/**
+	 * Strict layout rejects inputs the heuristics would read with other field order ("1974-13-06"),
+	 * only its valid dates are compared
+	 */
+	private static ParsePath layoutPath(final String layout)
+	{
+		final CDateLayoutParser strict = CDateParser.forLayout(layout);
+		return ParsePath.packed("layout " + layout, true, input -> {
+			final int packed = strict.parsePacked(input);
+			return packed != CDateParser.INVALID_PACKED_DATE ? packed : NOT_APPLICABLE;
+		});
+	}
+
+	/**
+	 * Two records of the input padded to the length of the layout: SWAR for conforming ones,
+	 * heuristics of the parent parser (with month and year, and year only) for the others.
+	 * Records are never longer than the layout.
+	 */
+	private static ParsePath layoutBulkPath(final String layout)
+	{
+		final CDateLayoutParser strict = CDateParser.forLayout(layout);
+		final CDateParseResult result = new CDateParseResult();
+		final int stride = layout.length();
+		final byte[] records = new byte[2 * stride];
+		final int[] packed = new int[2];
+		return ParsePath.packed("layoutBulk " + layout, false, input -> {
+			final byte[] date = input.getBytes(StandardCharsets.UTF_8);
+			if (date.length > stride)
+			{
+				return NOT_APPLICABLE;
+			}
+			Arrays.fill(records, (byte) ' ');
+			System.arraycopy(date, 0, records, 0, date.length);
+			System.arraycopy(date, 0, records, stride, date.length);
+			strict.parsePacked(records, 0, stride, 2, packed, 0);
+			if (packed[0] != packed[1])
+			{
+				return -2; // never a legacy result
+			}
+			strict.parse(input, result);
+			return packed[0] == CDateParser.INVALID_PACKED_DATE && result.getStatus() == CDateParseResult.Status.INVALID_DATE ?
+					NOT_APPLICABLE : packed[0];
+		});
+	}
+
+	private static int packed(final long epochDay)
+	{
+		if (epochDay == CDateParser.INVALID_EPOCH_DAY)
+		{
+			return CDateParser.INVALID_PACKED_DATE;
+		}
+		final LocalDate date = LocalDate.ofEpochDay(epochDay);
+		return packed(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+	}
+
+	/**
+	 * @return packed date, invalid if the year does not fit, like parsePacked does
+	 */
+	private static int packed(final int year, final int month, final int day)
+	{
+		return year >= 0 && year <= CDateParser.MAX_PACKED_YEAR ? year * 10000 + month * 100 + day
+				: CDateParser.INVALID_PACKED_DATE;
+	}
+
+	/**
+	 * Legacy outcome of {@link #CANONICAL} pattern read back into packed date.
+	 * Legacy code returns input AS IS as the same instance, month and year are always a new String.
+	 */
+	private static int legacyPacked(final String expected, final String input)
+	{
+		if (expected.length() == 4 && (expected.startsWith("19") || expected.startsWith("20")) && isDigits(expected))
+		{
+			return Integer.parseInt(expected) * 10000; // year only, may be the input itself
+		}
+		if (expected == input)
+		{
+			return CDateParser.INVALID_PACKED_DATE;
+		}
+		if (expected.length() >= 10 && expected.charAt(0) == '<' && expected.charAt(expected.length() - 1) == '>')
+		{
+			// years over 9999 are printed with a sign, "<+201670901>"
+			final String date = expected.substring(1, expected.length() - 1);
+			final int monthDay = Integer.parseInt(date.substring(date.length() - 4));
+			return packed(Integer.parseInt(date.substring(0, date.length() - 4)), monthDay / 100, monthDay % 100);
+		}
+		final int slash = expected.lastIndexOf(CDateParser.DEFAULT_DELIMITER);
+		if (slash > 0)
+		{
+			try
+			{
+				// month and year are copied from the input, read them as legacy code did ("+3" is 3)
+				final int month = Integer.parseInt(expected.substring(0, slash));
+				if (month > 0 && month < 13)
+				{
+					return packed(Integer.parseInt(expected.substring(slash + 1)), month, 0);
+				}
+			}
+			catch (NumberFormatException e)
+			{
+				// not a number, not a date
+			}
+		}
+		return CDateParser.INVALID_PACKED_DATE;
+	}
+
+	private static boolean isDigits(final String value)
+	{
+		for (int i = 0; i < value.length(); i++)
+		{
+			if (value.charAt(i) < '0' || value.charAt(i) > '9')
+			{
+				return false;
+			}
+		}
+		return !value.isEmpty();
+	}
+
+	/**
+	 * @return true if input may be a field of a generated file
+	 */
+	private static boolean isField(final String input)
+	{
+		return input.indexOf(FILE_SEPARATOR) < 0 && input.indexOf('"') < 0 && input.indexOf('\n') < 0 && input.indexOf('\r') < 0;
+	}
+
+	/**
+	 * @return date column of normalized file with a row per input
+	 */
+	private List<String> normalize(final List<String> inputs, final String format) throws IOException
+	{
+		final StringBuilder rows = new StringBuilder();
+		for (int i = 0; i < inputs.size(); i++)
+		{
+			rows.append(i).append(FILE_SEPARATOR).append(inputs.get(i)).append('\n');
+		}
+		final Path input = Files.writeString(directory.resolve("input.csv"), rows);
+		final Path output = directory.resolve("output.csv");
+		new CDateFileNormalizer(1, FILE_SEPARATOR, format, false).normalize(input, output);
+		final List<String> dates = new ArrayList<>();
+		for (final String row : Files.readString(output).split("\n", -1))
+		{
+			if (!row.isEmpty())
+			{
+				dates.add(row.substring(row.indexOf(FILE_SEPARATOR) + 1));
+			}
+		}
+		assertThat(dates).hasSize(inputs.size());
+		return dates;
+	}
+
+	private List<String> normalizeUnchecked(final List<String> inputs, final String format)
+	{
+		try
+		{
+			return normalize(inputs, format);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @return input up to the end of date, if it's followed by a valid time of day; null otherwise
+	 */
+	private static String datePart(final String input)
+	{
+		final CDateScanner scanner = new CDateScanner();
+		scanner.scan(input, CMonthNames.ENGLISH);
+		return scanner.hasTime() ? input.substring(0, scanner.dateEnd()) : null;
+	}
+
+	private static String outcome(final BiFunction<String, String, String> parse, final String input, final String format)
+	{
+		try
+		{
+			return parse.apply(input, format);
+		}
+		catch (RuntimeException e)
+		{
+			return e instanceof DateTimeException ? NOT_A_DATE : e.getClass().getName();
+		}
+	}
+
+	/**
+	 * Shortest input found by removing chunks of halving size while the predicate still holds
+	 */
+	static String minimize(final String input, final Predicate<String> diverges)
+	{
+		String current = input;
+		int size = Math.max(1, current.length() / 2);
+		while (size > 0)
+		{
+			boolean removed = false;
+			int i = 0;
+			while (i + size <= current.length())
+			{
+				final String candidate = current.substring(0, i) + current.substring(i + size);
+				if (diverges.test(candidate))
+				{
+					current = candidate;
+					removed = true;
+				} else {
+					i++;
+				}
+			}
+			if (!removed)
+			{
+				size /= 2;
+			}
+		}
+		return current;
+	}
+
+	private static final class ParsePath
+	{
+		private final String name;
+		private final boolean throwing;
+		private final BiFunction<String, String, String> parse;
+		/** result is packed date, compared with legacy output of {@link #CANONICAL} pattern */
+		private final boolean packed;
+		/** packed path of full dates only, month and year or year of legacy code are invalid for it */
+		private final boolean fullOnly;
+
+		ParsePath(final String name, final boolean throwing, final BiFunction<String, String, String> parse)
+		{
+			this(name, throwing, parse, false, false);
+		}
+
+		private ParsePath(final String name, final boolean throwing, final BiFunction<String, String, String> parse,
+				final boolean packed, final boolean fullOnly)
+		{
+			this.name = name;
+			this.throwing = throwing;
+			this.parse = parse;
+			this.packed = packed;
+			this.fullOnly = fullOnly;
+		}
+
+		/**
+		 * @param parse packed date, INVALID_PACKED_DATE, or {@link #NOT_APPLICABLE}
+		 */
+		static ParsePath packed(final String name, final boolean fullOnly, final ToIntFunction<String> parse)
+		{
+			return new ParsePath(name, false, (input, format) -> {
+				final int packed = parse.applyAsInt(input);
+				return packed != NOT_APPLICABLE && !isDotted(packed, input) ? String.valueOf(packed) : null;
+			}, true, fullOnly);
+		}
+
+		/**
+		 * Dotted dates are parsed by primitive methods, legacy code never did it, see CDateParserTest
+		 */
+		private static boolean isDotted(final int packed, final String input)
+		{
+			final String date = datePart(input);
+			return packed != CDateParser.INVALID_PACKED_DATE && (null != date ? date : input).indexOf('.') >= 0;
+		}
+
+		/**
+		 * @param expected outcome of legacy code
+		 */
+		boolean matches(final String expected, final String input, final String format)
+		{
+			String actual = outcome(parse, input, format);
+			if (null == actual && !throwing)
+			{
+				return true; // not applicable to this input
+			}
+			if (AS_IS.equals(actual) && !throwing && !packed)
+			{
+				actual = input;
+			}
+			if (accepts(expected, actual, input))
+			{
+				return true;
+			}
+			// the other known deviation: time of day after the date is dropped,
+			// the date must be what legacy code gives for the input w/o the time
+			final String date = datePart(input);
+			return null != date && accepts(outcome(LEGACY::getDate, date, format), actual, date);
+		}
+
+		private boolean accepts(final String expected, final String actual, final String input)
+		{
+			if (packed)
+			{
+				final int date = legacyPacked(expected, input);
+				return String.valueOf(fullOnly && date % 100 == 0 ? CDateParser.INVALID_PACKED_DATE : date).equals(actual);
+			}
+			// input AS IS instead of legacy failure, see CDateParser.resolve
+			return expected.equals(actual)
+					|| ((LEGACY_FAILURE.equals(expected) || (!throwing && NOT_A_DATE.equals(expected))) && input.equals(actual));
+		}
+	}
+
+	private static final class Divergence
+	{
+		private final ParsePath path;
+		private final String format;
+		private final String input;
+		private final String minimal;
+		private final String expected;
+
+		Divergence(final ParsePath path, final String format, final String input, final String minimal, final String expected)
+		{
+			this.path = path;
+			this.format = format;
+			this.input = input;
+			this.minimal = minimal;
+			this.expected = expected;
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("%s(\"%s\", \"%s\"): legacy \"%s\", got \"%s\" (found as \"%s\")", path.name,
+					escape(minimal), format, escape(expected), escape(outcome(path.parse, minimal, format)), escape(input));
+		}
+
+		private static String escape(final String value)
+		{
+			if (null == value)
+			{
+				return null;
+			}
+			final StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < value.length(); i++)
+			{
+				final char c = value.charAt(i);
+				if (c < ' ' || c > '~')
+				{
+					sb.append(String.format("\\u%04x", (int) c));
+				} else {
+					sb.append(c);
+				}
+			}
+			return sb.toString();
+		}
+	}
+
+	/**
+	 * Inputs of a fixed seed: structured dates, their mutations, and random garbage
+	 */
+	private static final class Generator
+	{
+		private final Random random;
+		private final String[] corpus;
+
+		Generator(final long seed)
+		{
+			this.random = new Random(seed);
+			this.corpus = CDateParserTest.provideValuesForLegacyComparison()
+					.map(arguments -> (String) arguments.get()[0])
+					.toArray(String[]::new);
+		}
+
+		String next()
+		{
+			final int kind = random.nextInt(20);
+			if (kind < 12)
+			{
+				return structured();
+			} else if (kind < 17) {
+				return mutate(random.nextBoolean() ? structured() : corpus[random.nextInt(corpus.length)]);
+			} else if (kind < 19) {
+				return garbage();
+			}
+			return corpus[random.nextInt(corpus.length)];
+		}
+
+		private String structured()
+		{
+			final int parts = 1 + random.nextInt(10) / 3; // mostly 3 parts, sometimes 4
+			final String[] fields = new String[parts];
+			final int layout = random.nextInt(4);
+			for (int i = 0; i < parts; i++)
+			{
+				final int field = layout == 3 ? random.nextInt(5) : (i + layout) % 3;
+				fields[i] = field(field);
+			}
+			final char delimiter = DELIMITERS[random.nextInt(DELIMITERS.length)];
+			final StringBuilder sb = new StringBuilder();
+			if (random.nextInt(10) == 0)
+			{
+				sb.append(' ');
+			}
+			for (int i = 0; i < parts; i++)
+			{
+				if (i > 0)
+				{
+					final int shape = random.nextInt(12);
+					sb.append(shape == 0 ? DELIMITERS[random.nextInt(DELIMITERS.length)] : delimiter);
+					if (shape == 1)
+					{
+						sb.append(delimiter); // doubled
+					}
+				}
+				sb.append(fields[i]);
+			}
+			if (random.nextInt(8) == 0)
+			{
+				sb.append(TIMES[random.nextInt(TIMES.length)]);
+			}
+			if (random.nextInt(10) == 0)
+			{
+				sb.append(' ');
+			}
+			return sb.toString();
+		}
+
+		/**
+		 * @param field 0 - year, 1 - month, 2 - day, 3 - any number, 4 - word
+		 */
+		private String field(final int field)
+		{
+			switch (field)
+			{
+				case 0:
+					switch (random.nextInt(6))
+					{
+						case 0:
+							return String.format("%02d", random.nextInt(100));
+						case 1:
+							return String.format("%04d", random.nextInt(10000));
+						default:
+							return String.valueOf(1900 + random.nextInt(200));
+					}
+				case 1:
+					if (random.nextInt(3) == 0)
+					{
+						return MONTHS[random.nextInt(MONTHS.length)];
+					}
+					return number(random.nextInt(14));
+				case 2:
+					return number(random.nextInt(34));
+				case 3:
+					return String.valueOf(random.nextInt(random.nextBoolean() ? 100 : 1_000_000));
+				default:
+					return garbage();
+			}
+		}
+
+		/**
+		 * One or two digits, as they come in inputs
+		 */
+		private String number(final int value)
+		{
+			return value < 10 && random.nextBoolean() ? "0" + value : String.valueOf(value);
+		}
+
+		private String mutate(final String input)
+		{
+			final StringBuilder sb = new StringBuilder(input);
+			final int mutations = 1 + random.nextInt(3);
+			for (int i = 0; i < mutations; i++)
+			{
+				final int position = random.nextInt(sb.length() + 1);
+				final char c = MUTATIONS.charAt(random.nextInt(MUTATIONS.length()));
+				switch (random.nextInt(3))
+				{
+					case 0:
+						sb.insert(position, c);
+						break;
+					case 1:
+						if (position < sb.length())
+						{
+							sb.deleteCharAt(position);
+						}
+						break;
+					default:
+						if (position < sb.length())
+						{
+							sb.setCharAt(position, c);
+						}
+						break;
+				}
+			}
+			return sb.toString();
+		}
+
+		private String garbage()
+		{
+			final int length = random.nextInt(12);
+			final StringBuilder sb = new StringBuilder(length);
+			for (int i = 0; i < length; i++)
+			{
+				sb.append(MUTATIONS.charAt(random.nextInt(MUTATIONS.length())));
+			}
+			return sb.toString();
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package goga.kolxo3.sdk.date;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CDateEpochColumnTest {
+
+	@Test
+	@DisplayName("Test column of epoch days in direct buffer")
+	public void testDirectColumn()
+	{
+		final String[] inputs = {"1974-04-06", null, "13/13/2020", "Jan/2/2020", "1974-06", "blabla", "06 04 1974"};
+		final CDateEpochColumn column = CDateEpochColumn.allocate(inputs.length + 1);
+		assertThat(new CDateParser().parseToColumn(inputs, 0, inputs.length, column, 1)).isEqualTo(3);
+		assertThat(column.size()).isEqualTo(8);
+		assertThat(column.getValidCount()).isEqualTo(3);
+		assertThat(column.isValid(0)).isFalse();
+		assertThat(column.getEpochDay(1)).isEqualTo(LocalDate.of(1974, 4, 6).toEpochDay());
+		assertThat(column.getEpochDay(4)).isEqualTo(LocalDate.of(2020, 1, 2).toEpochDay());
+		assertThat(column.getEpochDay(7)).isEqualTo(LocalDate.of(1974, 6, 4).toEpochDay());
+		for (final int row : new int[] {2, 3, 5, 6})
+		{
+			assertThat(column.getEpochDay(row)).isEqualTo(CDateParser.INVALID_EPOCH_DAY);
+		}
+		assertThat(column.getBuffer().isDirect()).isTrue();
+		assertThat(column.getBuffer().isReadOnly()).isTrue();
+		assertThatThrownBy(() -> column.getEpochDay(8)).isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> new CDateParser().parseToColumn(inputs, 0, inputs.length, column, 2))
+				.isInstanceOf(IndexOutOfBoundsException.class);
+		assertThat(column.set(0, 4_000_000_000L)).isFalse(); // does not fit into int
+	}
+
+	@Test
+	@DisplayName("Test mapped column is written in parallel and read by another mapping")
+	public void testMappedColumn(@TempDir final Path dir) throws IOException
+	{
+		final int rows = 10_000;
+		final String[] inputs = new String[rows];
+		for (int i = 0; i < rows; i++)
+		{
+			inputs[i] = i % 7 == 0 ? "not a date" : LocalDate.ofEpochDay(i * 3L - 20_000).toString();
+		}
+		final Path file = dir.resolve("dates.kdc");
+		final CDateEpochColumn column = CDateEpochColumn.create(file, rows);
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try
+		{
+			assertThat(new CDateParser().parseToColumn(inputs, 0, rows, column, 0, pool, 100)).isEqualTo(rows - 1429);
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+		column.force();
+
+		assertThat(Files.size(file)).isEqualTo(CDateEpochColumn.byteSize(rows));
+		final CDateEpochColumn read = CDateEpochColumn.open(file);
+		assertThat(read.size()).isEqualTo(rows);
+		assertThat(read.getValidCount()).isEqualTo(rows - 1429);
+		for (int i = 0; i < rows; i++)
+		{
+			assertThat(read.getEpochDay(i)).isEqualTo(i % 7 == 0 ? CDateParser.INVALID_EPOCH_DAY : i * 3L - 20_000);
+		}
+		// raw layout, as other processes read it
+		final ByteBuffer raw = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+		assertThat(raw.getInt(0)).isEqualTo(CDateEpochColumn.MAGIC);
+		assertThat(raw.getLong(8)).isEqualTo(rows);
+		assertThat(raw.getInt(CDateEpochColumn.HEADER_SIZE + 4)).isEqualTo(3 - 20_000);
+		assertThat(raw.getLong(CDateEpochColumn.HEADER_SIZE + 4 * rows) & 0xFF).isEqualTo(0b0111_1110);
+	}
+
+	@Test
+	@DisplayName("Test file which is not a column")
+	public void testOpenInvalidFile(@TempDir final Path dir) throws IOException
+	{
+		final Path file = dir.resolve("dates.txt");
+		Files.writeString(file, "1974-04-06\n1974-04-07\n");
+		assertThatThrownBy(() -> CDateEpochColumn.open(file)).isInstanceOf(IOException.class);
+		assertThatThrownBy(() -> CDateEpochColumn.allocate(-1)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,106 @@
+package goga.kolxo3.sdk.date;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CDateExtractorTest {
+
+	private static final String FORMAT = "yyyy-MM-dd";
+
+	private static List<String> extract(final CDateExtractor extractor, final String text)
+	{
+		final List<String> found = new ArrayList<>();
+		extractor.extract(text, (start, end, value, result) ->
+				found.add(text.substring((int) start, (int) end) + "=" + value));
+		return found;
+	}
+
+	@Test
+	@DisplayName("Test dates are found in free text with their spans")
+	public void testExtract()
+	{
+		final CDateExtractor extractor = new CDateExtractor(new CDateParser(), FORMAT);
+		assertThat(extract(extractor, "Printed 5 April 1974 in Kyiv, 2nd ed. 1974-06-02; reprint Dec 2020."))
+				.containsExactly("5 April 1974=1974-04-05", "1974-06-02=1974-06-02", "Dec 2020=12-2020");
+		assertThat(extract(extractor, "signed 19/1/2016, received 2/2/2020 and 1989"))
+				.containsExactly("19/1/2016=2016-01-19", "2/2/2020=2020-02-02", "1989=1989");
+		assertThat(extract(extractor, "1974-04-06")).containsExactly("1974-04-06=1974-04-06");
+		assertThat(extract(extractor, "")).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Test invalid dates, words and long numbers are skipped")
+	public void testSkip()
+	{
+		final CDateExtractor extractor = new CDateExtractor(new CDateParser(), FORMAT);
+		assertThat(extract(extractor, "13/13/2020 32/32 No1974 12345678 blabla")).isEmpty();
+		assertThat(extract(extractor, "tel 555-1974-0606")).isEmpty();
+		// invalid first tokens slide, the date after them is found
+		assertThat(extract(extractor, "page 777 1974-04-06")).containsExactly("1974-04-06=1974-04-06");
+		// two spaces break the chain
+		assertThat(extract(extractor, "April  1974")).containsExactly("1974=1974");
+	}
+
+	@Test
+	@DisplayName("Test dates with less fields than min precision are skipped")
+	public void testMinPrecision()
+	{
+		final CDateExtractor extractor = new CDateExtractor(new CDateParser(), FORMAT,
+				CDateParseResult.Precision.MONTH_YEAR, CDateExtractor.DEFAULT_CHUNK_SIZE);
+		assertThat(extract(extractor, "in 1989 and 1974-06, on 6/4/1974"))
+				.containsExactly("1974-06=06-1974", "6/4/1974=1974-06-04");
+		assertThatThrownBy(() -> new CDateExtractor(new CDateParser(), FORMAT, CDateParseResult.Precision.YEAR, 10))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	@DisplayName("Test formats with time fields are rejected, candidates never have time")
+	public void testTimeFormat()
+	{
+		for (final String format : new String[] {"yyyy-MM-dd HH:mm", "MM/dd/yyyy XXX", "yyyy-MM-dd'T'HH:mm:ss.SSS", "h a"})
+		{
+			assertThatThrownBy(() -> new CDateExtractor(new CDateParser(), format))
+					.isInstanceOf(IllegalArgumentException.class)
+					.hasMessageContaining(format);
+		}
+		assertThatThrownBy(() -> new CDateExtractor(new CDateParser(), "yyyy-MM-dd Q{"))
+				.isInstanceOf(IllegalArgumentException.class);
+		// quoted letters are not fields
+		final CDateExtractor extractor = new CDateExtractor(new CDateParser(), "'at' yyyy-MM-dd");
+		assertThat(extract(extractor, "signed 19/1/2016")).containsExactly("19/1/2016=at 2016-01-19");
+	}
+
+	@Test
+	@DisplayName("Test dates across chunk boundaries have offsets in the whole text")
+	public void testChunks() throws IOException
+	{
+		final StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 5000; i++)
+		{
+			text.append("x".repeat(i % 7)).append(i % 3 == 0 ? " 12 Dec 1999 " : " 1974-04-06 ")
+					.append("a".repeat(i % 50)).append(' ');
+		}
+		final String input = text.toString();
+		final CDateExtractor small = new CDateExtractor(new CDateParser(), FORMAT, CDateParseResult.Precision.YEAR, 128);
+		final List<String> found = new ArrayList<>();
+		final long count = small.extract(new StringReader(input), (start, end, value, result) ->
+				found.add(input.substring((int) start, (int) end) + "=" + value));
+		assertThat(count).isEqualTo(5000);
+		for (final String date : found)
+		{
+			assertThat(date).isIn("12 Dec 1999=1999-12-12", "1974-04-06=1974-04-06");
+		}
+		assertThat(extract(new CDateExtractor(new CDateParser(), FORMAT), input)).isEqualTo(found);
+		// a run longer than the chunk is skipped
+		assertThat(small.extract(CharBuffer.wrap("9".repeat(1000) + " 1974-04-06"), (s, e, v, r) -> {})).isEqualTo(1);
+	}
+}
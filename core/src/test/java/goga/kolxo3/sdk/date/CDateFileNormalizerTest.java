@@ -0,0 +1,108 @@
+package goga.kolxo3.sdk.date;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CDateFileNormalizerTest {
+
+	private static final String INPUT = "id,published,title\r\n"
+			+ "1,1974-Apr-05,First\r\n"
+			+ "2,\"19/1/2016\",\"Second, with comma\"\r\n"
+			+ "3,blabla 1987,Third\r\n"
+			+ "4,13/13/2020,\"Multi\nline\"\r\n"
+			+ "5,1974-06,Fifth\r\n"
+			+ "6,\"1989\",Sixth\r\n"
+			+ "7,,Seventh\r\n"
+			+ "8,2/2/2020";
+
+	private static final String EXPECTED = "id,published,title\r\n"
+			+ "1,04/05/1974,First\r\n"
+			+ "2,\"01/19/2016\",\"Second, with comma\"\r\n"
+			+ "3,blabla 1987,Third\r\n"
+			+ "4,13/13/2020,\"Multi\nline\"\r\n"
+			+ "5,06/1974,Fifth\r\n"
+			+ "6,\"1989\",Sixth\r\n"
+			+ "7,,Seventh\r\n"
+			+ "8,02/02/2020";
+
+	@TempDir
+	Path directory;
+
+	@ParameterizedTest
+	@ValueSource(ints = {40, 64, 1000, CDateFileNormalizer.DEFAULT_WINDOW_SIZE})
+	@DisplayName("Test only date column is rewritten, with any size of mapped window")
+	public void testNormalize(final int windowSize) throws IOException
+	{
+		final Path input = Files.writeString(directory.resolve("input.csv"), INPUT);
+		final Path output = directory.resolve("output.csv");
+		final CDateFileNormalizer normalizer = new CDateFileNormalizer(1, ',', "MM/dd/yyyy", true, windowSize);
+		final CDateFileNormalizer.Statistics statistics = normalizer.normalize(input, output);
+		assertThat(Files.readString(output)).isEqualTo(EXPECTED);
+		assertThat(statistics.getRows()).isEqualTo(9);
+		assertThat(statistics.getConverted()).isEqualTo(5);
+		assertThat(statistics.getBytes()).isEqualTo(INPUT.getBytes(StandardCharsets.UTF_8).length);
+	}
+
+	@Test
+	@DisplayName("Test the last column of TSV file with LF line breaks")
+	public void testNormalizeLastColumn() throws IOException
+	{
+		final Path input = Files.writeString(directory.resolve("input.tsv"), "a\t1974-04-06\nb\tJan/2/2020\nc\t98-02-02\n");
+		final Path output = directory.resolve("output.tsv");
+		new CDateFileNormalizer(1, '\t', "dd.MM.yyyy", false).normalize(input, output);
+		assertThat(Files.readString(output)).isEqualTo("a\t06.04.1974\nb\t02.01.2020\nc\t02.02.1998\n");
+	}
+
+	@Test
+	@DisplayName("Test converted date with separator or quotes is quoted")
+	public void testNormalizeSpecialChars() throws IOException
+	{
+		final Path input = Files.writeString(directory.resolve("input.csv"), "1,04/06/1974,x\n2,\"1974-Apr-05\",y\n");
+		final Path output = directory.resolve("output.csv");
+		new CDateFileNormalizer(1, ',', "MMMM d, yyyy", false).normalize(input, output);
+		assertThat(Files.readString(output)).isEqualTo("1,\"April 6, 1974\",x\n2,\"April 5, 1974\",y\n");
+
+		new CDateFileNormalizer(1, ',', "d \"MMM\" yyyy", false).normalize(input, output);
+		assertThat(Files.readString(output)).isEqualTo("1,\"6 \"\"Apr\"\" 1974\",x\n2,\"5 \"\"Apr\"\" 1974\",y\n");
+
+		// no separator in the date, not quoted
+		new CDateFileNormalizer(1, '\t', "MMMM d, yyyy", false).normalize(
+				Files.writeString(input, "1\t04/06/1974\tx\n"), output);
+		assertThat(Files.readString(output)).isEqualTo("1\tApril 6, 1974\tx\n");
+	}
+
+	@Test
+	@DisplayName("Test month names of other locales in UTF-8 file")
+	public void testNormalizeUtf8MonthNames() throws IOException
+	{
+		final Path input = Files.writeString(directory.resolve("input.csv"), "a,06 février 1974\nb,5 мая 1974\nc,fév\n");
+		final Path output = directory.resolve("output.csv");
+		final CDateParser parser = new CDateParser(null, CMonthNames.of(Locale.FRENCH, new Locale("ru")));
+		final CDateFileNormalizer.Statistics statistics =
+				new CDateFileNormalizer(1, ',', "yyyy-MM-dd", false, 64, parser).normalize(input, output);
+		assertThat(Files.readString(output)).isEqualTo("a,1974-02-06\nb,1974-05-05\nc,fév\n");
+		assertThat(statistics.getConverted()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("Test row longer than window is an error")
+	public void testRowLongerThanWindow() throws IOException
+	{
+		final Path input = Files.writeString(directory.resolve("input.csv"), INPUT);
+		final CDateFileNormalizer normalizer = new CDateFileNormalizer(1, ',', "MM/dd/yyyy", true, 10);
+		assertThatThrownBy(() -> normalizer.normalize(input, directory.resolve("output.csv")))
+				.isInstanceOf(IOException.class);
+	}
+}
@@ -0,0 +1,67 @@
+package goga.kolxo3.sdk.date;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CDateFormatCacheTest {
+
+	@ParameterizedTest
+	@ValueSource(strings = {"MM/dd/yyyy", "dd.MM.yyyy", "yyyy-MM-dd", "dd/MM/yyyy", "yyyy MM dd"})
+	@DisplayName("Test hand-written writer gives the same result as DateTimeFormatter")
+	public void testFastFormat(final String pattern)
+	{
+		final CDateFormat format = CDateFormat.compile(pattern);
+		final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern, Locale.US);
+		assertThat(format.isFast()).isTrue();
+		for (LocalDate date = LocalDate.of(1, 1, 1); date.getYear() < 10000; date = date.plusDays(97))
+		{
+			assertThat(format.format(date.getYear(), date.getMonthValue(), date.getDayOfMonth()))
+					.isEqualTo(date.format(formatter));
+		}
+		assertThat(format.format(LocalDate.of(12345, 1, 2))).isEqualTo(LocalDate.of(12345, 1, 2).format(formatter));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"MM/yyyy", "dd MMM yyyy", "yyyy/MM-dd", "MM/MM/yyyy", "yyyy'T'MM'T'dd", "yyyyMMdd"})
+	@DisplayName("Test other patterns are formatted by DateTimeFormatter")
+	public void testSlowFormat(final String pattern)
+	{
+		final CDateFormat format = CDateFormat.compile(pattern);
+		assertThat(format.isFast()).isFalse();
+		assertThat(format.write(1974, 4, 6, new char[16], 0)).isEqualTo(-1);
+		assertThat(format.format(1974, 4, 6))
+				.isEqualTo(LocalDate.of(1974, 4, 6).format(DateTimeFormatter.ofPattern(pattern, Locale.US)));
+	}
+
+	@Test
+	@DisplayName("Test registry counts hits and misses and keeps its bound")
+	public void testCacheStatistics()
+	{
+		final CDateFormatCache cache = new CDateFormatCache(2);
+		final CDateFormat first = cache.get("MM/dd/yyyy");
+		assertThat(cache.get("MM/dd/yyyy")).isSameAs(first);
+		cache.get("dd.MM.yyyy");
+		cache.get("yyyy-MM-dd");
+		assertThat(cache.getHitCount()).isEqualTo(1);
+		assertThat(cache.getMissCount()).isEqualTo(3);
+		assertThat(cache.size()).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("Test invalid pattern is not registered")
+	public void testInvalidPattern()
+	{
+		final CDateFormatCache cache = new CDateFormatCache();
+		assertThatThrownBy(() -> cache.get("yyyy-MM-dd{")).isInstanceOf(IllegalArgumentException.class);
+		assertThat(cache.size()).isZero();
+	}
+}
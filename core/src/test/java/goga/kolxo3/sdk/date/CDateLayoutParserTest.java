@@ -0,0 +1,175 @@
+package goga.kolxo3.sdk.date;
+
+import goga.kolxo3.sdk.date.CDateParseResult.Heuristic;
+import goga.kolxo3.sdk.date.CDateParseResult.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CDateLayoutParserTest {
+
+	@ParameterizedTest
+	@ValueSource(strings = {"yyyy-MM-dd", "MM/dd/yyyy", "dd.MM.yyyy", "yyyyMMdd", "dd MM yyyy"})
+	@DisplayName("Test layout parser gives the same output as getDate")
+	public void testSameAsGetDate(final String layout)
+	{
+		final CDateLayoutParser strict = CDateParser.forLayout(layout);
+		final CDateParser parser = new CDateParser();
+		final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(layout);
+		for (LocalDate date = LocalDate.of(1899, 1, 1); date.getYear() < 2030; date = date.plusDays(13))
+		{
+			final String input = date.format(formatter);
+			assertThat(strict.parseToEpochDay(input)).isEqualTo(date.toEpochDay());
+			assertThat(strict.getDate(input, "dd MMM yyyy")).isEqualTo(date.format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
+			if (layout.equals("yyyy-MM-dd") || layout.equals("MM/dd/yyyy"))
+			{ // heuristics can't split, don't convert or guess field order of the others
+				assertThat(strict.getDate(input, "MM/dd/yyyy")).isEqualTo(parser.getDate(input, "MM/dd/yyyy"));
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("Test layout parser rejects other shapes")
+	public void testReject()
+	{
+		final CDateLayoutParser strict = CDateParser.forLayout("yyyy-MM-dd");
+		for (final String input : new String[] {"1974-4-06", " 1974-04-06", "1974/04/06", "1974-04-0a", "1974-04-066",
+				"", "Apr", "2020-13-01", "2019-02-29"})
+		{
+			assertThat(strict.getDate(input, "MM/dd/yyyy")).isEqualTo(input);
+			assertThat(strict.parsePacked(input)).isEqualTo(CDateParser.INVALID_PACKED_DATE);
+			assertThat(strict.parseToEpochDay(input)).isEqualTo(CDateParser.INVALID_EPOCH_DAY);
+		}
+		assertThat(strict.getDate(null, "MM/dd/yyyy")).isNull();
+		assertThat(strict.getDates(new String[] {"1974-04-06", "06/04/1974", null}, "MM/dd/yyyy"))
+				.containsExactly("04/06/1974", "06/04/1974", null);
+	}
+
+	@Test
+	@DisplayName("Test layout parser fills result holder")
+	public void testParse()
+	{
+		final CDateLayoutParser strict = CDateParser.forLayout("dd/MM/yyyy");
+		final CDateParseResult result = new CDateParseResult();
+		assertThat(strict.parse("06/04/1974", result)).isTrue();
+		assertThat(result.getYear()).isEqualTo(1974);
+		assertThat(result.getMonth()).isEqualTo(4);
+		assertThat(result.getDay()).isEqualTo(6);
+		assertThat(result.getDelimiter()).isEqualTo('/');
+		assertThat(result.getHeuristic()).isEqualTo(Heuristic.LAYOUT);
+		assertThat(strict.parse("30/02/2020", result)).isFalse();
+		assertThat(result.getStatus()).isEqualTo(Status.INVALID_DATE);
+		assertThat(strict.parse("2020-02-02", result)).isFalse();
+		assertThat(result.getStatus()).isEqualTo(Status.NOT_A_DATE);
+	}
+
+	@Test
+	@DisplayName("Test two-digit years of layout follow pivot year")
+	public void testShortYear()
+	{
+		final CDateLayoutParser strict = CDateParser.builder().pivotYear(2024).build().withLayout("yy-MM-dd");
+		assertThat(strict.parsePacked("23-01-02")).isEqualTo(20230102);
+		assertThat(strict.parsePacked("24-01-02")).isEqualTo(19240102);
+		assertThat(strict.getDate("98-02-02", "yyyy-MM-dd")).isEqualTo("1998-02-02");
+	}
+
+	@Test
+	@DisplayName("Test layouts which are not fixed-width")
+	public void testInvalidLayout()
+	{
+		for (final String layout : new String[] {"", "yyyy-MM", "yyyy-M-d", "dd MMM yyyy", "yyyy-MM-dd-dd", "yyy-MM-dd",
+				"yyyy-MM-dd'T'"})
+		{
+			assertThatThrownBy(() -> CDateParser.forLayout(layout)).isInstanceOf(IllegalArgumentException.class);
+		}
+		assertThatThrownBy(() -> CDateParser.forLayout(null)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"yyyy-MM-dd", "MM/dd/yyyy", "yyyyMMdd", "yy-MM-dd", "yyMMdd", "dd MM yyyy", "yyyy - MM - dd"})
+	@DisplayName("Test bulk conversion is the same as conversion of every date")
+	public void testBulk(final String layout)
+	{
+		final CDateParser parser = CDateParser.builder().pivotYear(2024).build();
+		final CDateLayoutParser strict = parser.withLayout(layout);
+		final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(layout);
+		final Random random = new Random(layout.hashCode());
+		final int stride = layout.length() + 1;
+		final int count = 5000;
+		final byte[] src = new byte[count * stride - 1];
+		for (int i = 0; i < count; i++)
+		{
+			final byte[] date = LocalDate.ofEpochDay(random.nextInt(60_000) - 30_000).format(formatter)
+					.getBytes(StandardCharsets.US_ASCII);
+			System.arraycopy(date, 0, src, i * stride, date.length);
+			if (i + 1 < count)
+			{
+				src[i * stride + layout.length()] = '\n';
+			}
+			if (random.nextInt(4) == 0)
+			{ // corrupt one byte: other digit, delimiter, letter, space or non-ASCII
+				src[i * stride + random.nextInt(layout.length())] = (byte) "09/-. aZ\u00ff".charAt(random.nextInt(9));
+			}
+		}
+		final int[] packed = new int[count + 1];
+		final int valid = strict.parsePacked(src, 0, stride, count, packed, 1);
+		int expectedValid = 0;
+		for (int i = 0; i < count; i++)
+		{
+			final String input = new String(src, i * stride, layout.length(), StandardCharsets.ISO_8859_1);
+			int expected = strict.parsePacked(input);
+			if (expected == CDateParser.INVALID_PACKED_DATE && !isLayout(input, layout))
+			{ // fallback to heuristics
+				expected = parser.parsePacked(src, i * stride, Math.min(stride, src.length - i * stride));
+			}
+			assertThat(packed[i + 1]).as(input).isEqualTo(expected);
+			if (expected != CDateParser.INVALID_PACKED_DATE)
+			{
+				expectedValid++;
+			}
+		}
+		assertThat(packed[0]).isZero();
+		assertThat(valid).isEqualTo(expectedValid);
+	}
+
+	/**
+	 * Input has digits and literals of the layout, whether the date is valid or not
+	 */
+	private static boolean isLayout(final String input, final String layout)
+	{
+		for (int i = 0; i < layout.length(); i++)
+		{
+			final boolean field = Character.isLetter(layout.charAt(i));
+			if (field ? !Character.isDigit(input.charAt(i)) || input.charAt(i) > '9' : input.charAt(i) != layout.charAt(i))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Test
+	@DisplayName("Test bulk conversion falls back to heuristics")
+	public void testBulkFallback()
+	{
+		final CDateLayoutParser strict = CDateParser.forLayout("yyyy-MM-dd");
+		final byte[] src = "1974-04-06\n1974-4-6  \nApr 1974  \n2019-02-29\nblabla  1 \n98-02-02  ".getBytes(StandardCharsets.US_ASCII);
+		final int[] packed = new int[6];
+		assertThat(strict.parsePacked(src, 0, 11, 6, packed, 0)).isEqualTo(4);
+		assertThat(packed).containsExactly(19740406, 19740406, 19740400, CDateParser.INVALID_PACKED_DATE,
+				CDateParser.INVALID_PACKED_DATE, 19980202);
+		assertThat(strict.parsePacked(src, 0, 11, 0, packed, 6)).isZero();
+		assertThatThrownBy(() -> strict.parsePacked(src, 0, 9, 1, packed, 0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> strict.parsePacked(src, 0, 11, 7, packed, 0)).isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> strict.parsePacked(src, 0, 11, 6, packed, 1)).isInstanceOf(IndexOutOfBoundsException.class);
+	}
+}
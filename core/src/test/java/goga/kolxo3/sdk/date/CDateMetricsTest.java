@@ -0,0 +1,155 @@
+package goga.kolxo3.sdk.date;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class CDateMetricsTest {
+
+	private static final String FORMAT = "MM/dd/yyyy";
+
+	@Test
+	@DisplayName("Test metrics count outcomes, delimiters and latency of getDate")
+	public void testGetDate()
+	{
+		final CDateMetrics metrics = new CDateMetrics();
+		final CDateParser parser = CDateParser.builder().metrics(metrics).build();
+		parser.getDate("1974-04-06", FORMAT);
+		parser.getDate("98-02-02", FORMAT);
+		parser.getDate("Jan/2/2020", FORMAT);
+		parser.getDate("1974-06", FORMAT);
+		parser.getDate("1989", FORMAT);
+		parser.getDate("06.04.1974", FORMAT);
+		parser.getDate("blabla 1987", FORMAT);
+		assertThatThrownBy(() -> parser.getDate("13/13/2020", FORMAT)).isInstanceOf(DateTimeException.class);
+
+		assertThat(metrics.getCount(CDateMetrics.Outcome.FULL)).isEqualTo(3);
+		assertThat(metrics.getCount(CDateMetrics.Outcome.MONTH_YEAR)).isEqualTo(1);
+		assertThat(metrics.getCount(CDateMetrics.Outcome.YEAR)).isEqualTo(1);
+		assertThat(metrics.getCount(CDateMetrics.Outcome.AS_IS)).isEqualTo(2);
+		assertThat(metrics.getCount(CDateMetrics.Outcome.INVALID)).isEqualTo(1);
+		assertThat(metrics.getDelimiterCount('-')).isEqualTo(3);
+		assertThat(metrics.getDelimiterCount('/')).isEqualTo(2);
+		assertThat(metrics.getDelimiterCount(' ')).isEqualTo(1);
+		assertThat(metrics.getDelimiterCount('.')).isEqualTo(1);
+		assertThat(metrics.getDelimiterCount((char) 0)).isEqualTo(1);
+		assertThat(metrics.getShortYearCount()).isEqualTo(1);
+		assertThat(metrics.getMonthNameCount()).isEqualTo(1);
+		assertThat(metrics.getLatencyCount()).isEqualTo(8);
+		assertThat(metrics.getLatencyTotal(TimeUnit.NANOSECONDS)).isPositive();
+		assertThat(metrics.getLatencyPercentile(0.99)).isGreaterThanOrEqualTo(metrics.getLatencyPercentile(0.5));
+
+		metrics.reset();
+		assertThat(metrics.getLatencyCount()).isZero();
+		assertThat(metrics.getLatencyPercentile(0.5)).isZero();
+		assertThat(new CDateParser().getMetrics()).isNull();
+	}
+
+	@Test
+	@DisplayName("Test metrics count every call, results found in cache are counted with outcome of the first parse")
+	public void testResultCache()
+	{
+		final CDateMetrics metrics = new CDateMetrics();
+		final CDateResultCache cache = new CDateResultCache(64);
+		final CDateParser parser = CDateParser.builder().metrics(metrics).resultCache(cache).build();
+		for (int i = 0; i < 3; i++)
+		{
+			assertThat(parser.getDate("98-Feb-02", FORMAT)).isEqualTo("02/02/1998");
+			assertThat(parser.getDate("1974/06", FORMAT)).isEqualTo("06/1974");
+			assertThat(parser.getDate("blabla 1987", FORMAT)).isEqualTo("blabla 1987");
+			assertThat(parser.getDates(new String[] {"1989"}, FORMAT)).containsExactly("1989");
+		}
+		assertThat(cache.getHitCount()).isEqualTo(8);
+		assertThat(metrics.getCount(CDateMetrics.Outcome.FULL)).isEqualTo(3);
+		assertThat(metrics.getCount(CDateMetrics.Outcome.MONTH_YEAR)).isEqualTo(3);
+		assertThat(metrics.getCount(CDateMetrics.Outcome.AS_IS)).isEqualTo(3);
+		assertThat(metrics.getCount(CDateMetrics.Outcome.YEAR)).isEqualTo(3);
+		assertThat(metrics.getDelimiterCount('-')).isEqualTo(3);
+		assertThat(metrics.getDelimiterCount('/')).isEqualTo(3);
+		assertThat(metrics.getDelimiterCount(' ')).isEqualTo(3);
+		assertThat(metrics.getDelimiterCount((char) 0)).isEqualTo(3);
+		assertThat(metrics.getShortYearCount()).isEqualTo(3);
+		assertThat(metrics.getMonthNameCount()).isEqualTo(3);
+		assertThat(metrics.getLatencyCount()).isEqualTo(12);
+
+		// invalid dates throw and are never cached, every call parses them
+		for (int i = 0; i < 2; i++)
+		{
+			assertThatThrownBy(() -> parser.getDate("13/13/2020", FORMAT)).isInstanceOf(DateTimeException.class);
+		}
+		assertThat(metrics.getCount(CDateMetrics.Outcome.INVALID)).isEqualTo(2);
+
+		// entries put by a parser w/o metrics are not counted
+		final CDateResultCache shared = new CDateResultCache(64);
+		CDateParser.builder().resultCache(shared).build().getDate("1974-04-06", FORMAT);
+		metrics.reset();
+		CDateParser.builder().metrics(metrics).resultCache(shared).build().getDate("1974-04-06", FORMAT);
+		assertThat(metrics.getCount(CDateMetrics.Outcome.FULL)).isZero();
+		assertThat(metrics.getLatencyCount()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Test metrics count inputs per shape, cached results too")
+	public void testShapes()
+	{
+		final CDateMetrics metrics = new CDateMetrics();
+		final CDateParser parser = CDateParser.builder().metrics(metrics).resultCache(new CDateResultCache(64)).build();
+		for (final String input : new String[] {"1974-04-06", "2020-12-31", "1974-04-06", "98-Feb-02", "1989",
+				"Dec 2020", "2/2/20", "1/2/3/4", "06.04.1974", "blabla"})
+		{
+			parser.getDate(input, FORMAT);
+		}
+		final CDateParseResult result = new CDateParseResult();
+		parser.parse("06.04.1974", result);
+		assertThat(metrics.getShapes()).extracting(CDateMetrics.Shape::getName, CDateMetrics.Shape::getCount)
+				.containsExactlyInAnyOrder(
+						tuple("yyyy-nn-nn", 2L), tuple("yyyy-nn-dd", 1L), tuple("yy-mmm-nn", 1L), tuple("yyyy", 1L),
+						tuple("mmm yyyy", 1L), tuple("nn/nn/dd", 1L), tuple("unsplit", 2L), tuple("x", 1L),
+						tuple("nn.nn.yyyy", 1L));
+		assertThat(metrics.getShapes().get(0).toString()).isEqualTo("unsplit=2");
+		metrics.reset();
+		assertThat(metrics.getShapes()).extracting(CDateMetrics.Shape::getCount).containsOnly(0L);
+		assertThat(CDateShapePlans.describe(CDateShapePlans.UNSPLIT)).isEqualTo("unsplit");
+	}
+
+	@Test
+	@DisplayName("Test metrics count dates converted from bytes")
+	public void testBytes()
+	{
+		final CDateMetrics metrics = new CDateMetrics();
+		final CDateParser parser = CDateParser.builder().metrics(metrics).build();
+		final byte[] dst = new byte[32];
+		final byte[] valid = "2/2/2020".getBytes(StandardCharsets.US_ASCII);
+		final byte[] invalid = "13/13/2020".getBytes(StandardCharsets.US_ASCII);
+		assertThat(parser.getDate(valid, 0, valid.length, FORMAT, dst, 0)).isEqualTo(10);
+		assertThat(parser.getDate(invalid, 0, invalid.length, FORMAT, dst, 0)).isEqualTo(CDateParser.NOT_CONVERTED);
+		assertThat(metrics.getCount(CDateMetrics.Outcome.FULL)).isEqualTo(1);
+		assertThat(metrics.getCount(CDateMetrics.Outcome.INVALID)).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Test latency histogram percentiles")
+	public void testHistogram()
+	{
+		final CDateMetrics metrics = new CDateMetrics();
+		for (int i = 0; i < 99; i++)
+		{
+			metrics.recordLatency(100); // bucket [64, 128)
+		}
+		metrics.recordLatency(5000); // bucket [4096, 8192)
+		assertThat(metrics.getLatencyPercentile(0.5)).isEqualTo(128);
+		assertThat(metrics.getLatencyPercentile(0.99)).isEqualTo(128);
+		assertThat(metrics.getLatencyPercentile(1)).isEqualTo(8192);
+		assertThat(metrics.getLatencyBucketCount(7)).isEqualTo(99);
+		metrics.recordLatency(Long.MAX_VALUE);
+		assertThat(metrics.getLatencyBucketCount(CDateMetrics.BUCKETS - 1)).isEqualTo(1);
+		assertThat(CDateMetrics.getLatencyBucketBound(CDateMetrics.BUCKETS - 1)).isEqualTo(Long.MAX_VALUE);
+	}
+}
@@ -0,0 +1,130 @@
+package goga.kolxo3.sdk.date;
+
+import goga.kolxo3.sdk.date.CDateParseResult.Heuristic;
+import goga.kolxo3.sdk.date.CDateParseResult.Precision;
+import goga.kolxo3.sdk.date.CDateParseResult.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CDateParseResultTest {
+
+	private static Stream<Arguments> provideParseResults()
+	{
+		return Stream.of(
+				Arguments.of("1974-04-06", Status.OK, Precision.FULL, 1974, 4, 6, Heuristic.POSITION, '-'),
+				Arguments.of("1974-Apr-05", Status.OK, Precision.FULL, 1974, 4, 5, Heuristic.MONTH_NAME, '-'),
+				Arguments.of("19/1/2016", Status.OK, Precision.FULL, 2016, 1, 19, Heuristic.DAY_VALUE, '/'),
+				Arguments.of("10/1/2016", Status.OK, Precision.FULL, 2016, 10, 1, Heuristic.FIELD_ORDER, '/'),
+				Arguments.of("98-02-02", Status.OK, Precision.FULL, 1998, 2, 2, Heuristic.POSITION, '-'),
+				Arguments.of("1974-06", Status.OK, Precision.MONTH_YEAR, 1974, 6, 0, Heuristic.POSITION, '-'),
+				Arguments.of("Dec 2020", Status.OK, Precision.MONTH_YEAR, 2020, 12, 0, Heuristic.MONTH_NAME, ' '),
+				Arguments.of("1989", Status.OK, Precision.YEAR, 1989, 0, 0, Heuristic.YEAR_ONLY, (char) 0),
+				Arguments.of("13/13/2020", Status.INVALID_DATE, Precision.FULL, 2020, 13, 13, Heuristic.DAY_VALUE, '/'),
+				Arguments.of("2/30/2020", Status.INVALID_DATE, Precision.FULL, 2020, 2, 30, Heuristic.DAY_VALUE, '/'),
+				Arguments.of("blabla 1987", Status.NOT_A_DATE, Precision.NONE, 0, 0, 0, Heuristic.NONE, ' '),
+				Arguments.of("06.04.1974", Status.OK, Precision.FULL, 1974, 4, 6, Heuristic.FIELD_ORDER, '.'),
+				Arguments.of("1974.04.06 10:15", Status.OK, Precision.FULL, 1974, 4, 6, Heuristic.POSITION, '.'),
+				Arguments.of("06.04.1974.5", Status.NOT_A_DATE, Precision.NONE, 0, 0, 0, Heuristic.NONE, '.'),
+				Arguments.of("", Status.NOT_A_DATE, Precision.NONE, 0, 0, 0, Heuristic.NONE, (char) 0)
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource("provideParseResults")
+	@DisplayName("Test parse fills result holder")
+	public void testParse(final String input, final Status status, final Precision precision, final int year,
+			final int month, final int day, final Heuristic heuristic, final char delimiter)
+	{
+		final CDateParseResult result = new CDateParseResult();
+		assertThat(new CDateParser().parse(input, result)).isEqualTo(status == Status.OK);
+		assertThat(result.getStatus()).isEqualTo(status);
+		assertThat(result.getPrecision()).isEqualTo(precision);
+		assertThat(result.getYear()).isEqualTo(year);
+		assertThat(result.getMonth()).isEqualTo(month);
+		assertThat(result.getDay()).isEqualTo(day);
+		assertThat(result.getHeuristic()).isEqualTo(heuristic);
+		assertThat(result.getDelimiter()).isEqualTo(delimiter);
+	}
+
+	@Test
+	@DisplayName("Test parse agrees with getDate, one holder is reused")
+	public void testParseMatchesGetDate()
+	{
+		final CDateParser parser = new CDateParser();
+		final CDateParseResult result = new CDateParseResult();
+		final String[] inputs = {"1974-04-06", "Jan/2/2020", "2/2/2020", "20-02-02", "1974 06", "5 April 1974",
+				"1989", "1974-05-Apr", "Apr", "32/32", "bla 1988 bla", "1/1/1", "3-3-3", "1974-06"};
+		for (final String input : inputs)
+		{
+			final boolean valid = parser.parse(input, result);
+			String expected;
+			try
+			{
+				expected = parser.getDate(input, "yyyy-MM-dd");
+			}
+			catch (DateTimeException e)
+			{
+				expected = null;
+			}
+			switch (result.getStatus())
+			{
+				case OK:
+					assertThat(valid).isTrue();
+					if (result.getPrecision() == Precision.FULL)
+					{
+						assertThat(expected).isEqualTo(LocalDate.of(result.getYear(), result.getMonth(), result.getDay()).toString());
+					}
+					break;
+				case INVALID_DATE:
+					if (result.getPrecision() == Precision.FULL)
+					{
+						assertThat(expected).isNull();
+					}
+					else
+					{
+						// getDate copies month and year w/o checks
+						assertThat(expected).isEqualTo("32-1932");
+					}
+					break;
+				default:
+					assertThat(expected).isEqualTo(input);
+					break;
+			}
+		}
+		assertThat(parser.parse(null, result)).isFalse();
+		assertThat(result.getStatus()).isEqualTo(Status.NOT_A_DATE);
+	}
+
+	@Test
+	@DisplayName("Test parse fills time of day and offset")
+	public void testParseTime()
+	{
+		final CDateParser parser = new CDateParser();
+		final CDateParseResult result = new CDateParseResult();
+		assertThat(parser.parse("1974-04-06T10:15:30.25-03:30", result)).isTrue();
+		assertThat(result.getPrecision()).isEqualTo(Precision.FULL);
+		assertThat(result.hasTime()).isTrue();
+		assertThat(result.getHour()).isEqualTo(10);
+		assertThat(result.getMinute()).isEqualTo(15);
+		assertThat(result.getSecond()).isEqualTo(30);
+		assertThat(result.getNano()).isEqualTo(250_000_000);
+		assertThat(result.hasOffset()).isTrue();
+		assertThat(result.getOffsetSeconds()).isEqualTo(-12_600);
+		assertThat(parser.parse("02/02/2020 10:15", result)).isTrue();
+		assertThat(result.hasTime()).isTrue();
+		assertThat(result.hasOffset()).isFalse();
+		assertThat(result.getSecond()).isZero();
+		assertThat(parser.parse("1974-04-06", result)).isTrue();
+		assertThat(result.hasTime()).isFalse();
+		assertThat(result.getHour()).isZero();
+	}
+}
@@ -0,0 +1,669 @@
+package goga.kolxo3.sdk.date;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.UnsupportedTemporalTypeException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+public class CDateParserTest {
+	
+	private static final String EMPTY_STRING = "";
+	
+	private static Stream<Arguments> provideCorrectDateValuesForUS()
+	{
+		return Stream.of(
+				Arguments.of("1974-Apr-05", "04/05/1974"),
+				Arguments.of("Jan/2/2020", "01/02/2020"),
+				
+				Arguments.of("19/1/2016", "01/19/2016"), // fixed wrong sequence in date - 19 is not a month!
+				Arguments.of("10/1/2016", "10/01/2016"),
+				
+				Arguments.of("1974-04-06", "04/06/1974"),
+				Arguments.of("20-02-02", "02/02/2020"), // extend year to 4 characters
+				Arguments.of("98-02-02", "02/02/1998"), // extend year to 4 characters
+				Arguments.of("19-04-03", "04/03/2019"), // extend year to 4 characters
+				Arguments.of("1989", "1989"),
+				Arguments.of("1974-06", "06/1974"),
+				Arguments.of("1974", "1974"),
+				Arguments.of("2/2/2020", "02/02/2020"),
+				Arguments.of("02/02/2020", "02/02/2020"),
+				Arguments.of("2/2020", "02/2020"),
+				Arguments.of("1974-4-6", "04/06/1974"),
+				Arguments.of("1974-04-6", "04/06/1974"),
+				Arguments.of("1974-6", "06/1974"),
+				Arguments.of("1974-06-04", "06/04/1974"),
+				Arguments.of("1/19/2016", "01/19/2016"),
+				Arguments.of("01-02-03", "02/03/2001") // 2001-02-03 means 03 Feb 2001
+		);
+	}
+	
+	private static Stream<Arguments> provideWrongDateValues()
+	{
+		return Stream.of(
+				Arguments.of("1995 (not used)", "1995 (not used)"), // keep the same value in error
+				Arguments.of("blabla 1987", "blabla 1987"),
+				Arguments.of("bla 1988 bla", "bla 1988 bla"),
+				Arguments.of("", ""),
+				Arguments.of(null, null),
+				Arguments.of("1979-NaN-NaN", "1979-NaN-NaN")
+		);
+	}
+	
+	private static Stream<Arguments> provideCorrectDateValuesForEU()
+	{
+		return Stream.of(
+				Arguments.of("1974-Apr-05", "05.04.1974"),
+				Arguments.of("Jan/2/2020", "02.01.2020"),
+				
+				Arguments.of("19/1/2016", "19.01.2016"), // fixed wrong sequence in date - 19 is not a month!
+				Arguments.of("10/1/2016", "01.10.2016"),
+				
+				Arguments.of("1974-04-06", "06.04.1974"),
+				Arguments.of("20-02-21", "21.02.2020"), // extend year to 4 characters
+				Arguments.of("98-01-02", "02.01.1998"), // extend year to 4 characters
+				Arguments.of("19-04-03", "03.04.2019"), // extend year to 4 characters
+				Arguments.of("1989", "1989"),
+				Arguments.of("1974-06", "06.1974"),
+				Arguments.of("1974", "1974"),
+				Arguments.of("2/3/2020", "03.02.2020"), // in input american format month is first!
+				Arguments.of("02/01/2020", "01.02.2020"),
+				Arguments.of("2/2020", "02.2020"),
+				Arguments.of("1974-4-6", "06.04.1974"),
+				Arguments.of("1974-04-6", "06.04.1974"),
+				Arguments.of("1974-6", "06.1974"),
+				Arguments.of("1974-07-04", "04.07.1974"),
+				Arguments.of("1/19/2016", "19.01.2016"),
+				Arguments.of("01-02-03", "03.02.2001") // 2001-02-03 means 03 Feb 2001
+		);
+	}
+	
+	private static Stream<Arguments> shortYearValuesToCheck()
+	{
+		return Stream.of(
+				// non-valid values
+				Arguments.of("", false),
+				Arguments.of(" ", false),
+				Arguments.of(null, false),
+				Arguments.of("198-05-11", false),
+				Arguments.of("198", false),
+				Arguments.of("cvba", false),
+				Arguments.of("not known", false),
+				Arguments.of("20-0", false),
+				// valid values
+				Arguments.of("99", true),
+				Arguments.of("20", true),
+				Arguments.of("00", true),
+				Arguments.of("10", true),
+				Arguments.of("01", true)
+		);
+	}
+	
+	private static Stream<Arguments> alphabeticMonthValuesToCheck()
+	{
+		return Stream.of(
+				// non-valid values
+				Arguments.of("", 0),
+				Arguments.of(" ", 0),
+				Arguments.of(null, 0),
+				Arguments.of("Ap", 0),
+				Arguments.of("Aprilis", 0),
+				Arguments.of("Dicemb", 0),
+				Arguments.of("not known", 0),
+				Arguments.of("02", 0), // numeric months not supports here
+				// valid values
+				Arguments.of("February", 2),
+				Arguments.of("Jan", 1),
+				Arguments.of("August", 8),
+				Arguments.of("march", 3),
+				Arguments.of("jul", 7)
+		);
+	}
+	
+	private static Stream<Arguments> shortNumericMonthValuesToCheck()
+	{
+		return Stream.of(
+				// non-valid values
+				Arguments.of("", false),
+				Arguments.of(" ", false),
+				Arguments.of(null, false),
+				Arguments.of("Ap", false),
+				Arguments.of("Aprilis", false),
+				Arguments.of("Dicemb", false),
+				Arguments.of("not known", false),
+				Arguments.of("00", false),
+				Arguments.of("1", false),
+				Arguments.of("-1", false),
+				Arguments.of("1000", false),
+				Arguments.of("13", false),
+				Arguments.of("3", false),
+				Arguments.of("5", false),
+				// valid values
+				Arguments.of("01", true),
+				Arguments.of("02", true),
+				Arguments.of("12", true)
+		);
+	}
+	
+	private static Stream<Arguments> shortNumericDayValuesToCheck()
+	{
+		return Stream.of(
+				// non-valid values
+				Arguments.of("", false),
+				Arguments.of(" ", false),
+				Arguments.of(null, false),
+				Arguments.of("00", false),
+				Arguments.of("1", false),
+				Arguments.of("-1", false),
+				Arguments.of("1000", false),
+				Arguments.of("32", false),
+				Arguments.of("3", false),
+				Arguments.of("5", false),
+				// valid values
+				Arguments.of("01", true),
+				Arguments.of("02", true),
+				Arguments.of("12", true)
+		);
+	}
+	
+	static Stream<Arguments> provideValuesForLegacyComparison()
+	{
+		return Stream.of(
+				"1974-Apr-05", "Jan/2/2020", "19/1/2016", "10/1/2016", "1974-04-06", "20-02-02",
+				"98-02-02", "1974-06", "2/2020", "1974-4-6", "1/19/2016", "01-02-03",
+				"  1974  ", "1974-", "-1974", "1974--06--", "---", "5", "0", "5/6/0", "99/99",
+				"06.04.1974", "1974.04", "1974/06-04", "Apr 5 1974", "5  Apr  1974", "april/2020",
+				"1974-blah", "ab-Apr", "Apr-05-06", "Mar/xx", "10/10/+2020", "+3/10/2020",
+				"0010/10/2020", "10/10/99999999999", "19\u000074", "sept/5/1974", "Aprilis/5/1974",
+				"1974 Jun", "Jun 1974 5", "31-12-99", "12/31/69", "\u0663/4/2020", "Dec/31/20", "4 4:43", "Apr 2:11"
+		).map(Arguments::of);
+	}
+	
+	private static Stream<Arguments> providePackedDateValues()
+	{
+		return Stream.of(
+				Arguments.of("1974-Apr-05", 19740405),
+				Arguments.of("19/1/2016", 20160119),
+				Arguments.of("10/1/2016", 20161001),
+				Arguments.of("98-02-02", 19980202),
+				Arguments.of("2/29/2020", 20200229),
+				Arguments.of("1974-06", 19740600),
+				Arguments.of("2/2020", 20200200),
+				Arguments.of("1989", 19890000),
+				// invalid values
+				Arguments.of("2/29/2019", CDateParser.INVALID_PACKED_DATE),
+				Arguments.of("13/13/2020", CDateParser.INVALID_PACKED_DATE),
+				Arguments.of("1974-blah", CDateParser.INVALID_PACKED_DATE),
+				Arguments.of("blabla 1987", CDateParser.INVALID_PACKED_DATE),
+				Arguments.of("", CDateParser.INVALID_PACKED_DATE),
+				Arguments.of(null, CDateParser.INVALID_PACKED_DATE)
+		);
+	}
+	
+	private static String outcome(final Supplier<String> parse)
+	{
+		try
+		{
+			return parse.get();
+		}
+		catch (RuntimeException e)
+		{
+			return e.getClass().getName();
+		}
+	}
+	
+	@ParameterizedTest
+	@MethodSource("provideValuesForLegacyComparison")
+	@DisplayName("Test date parser gives the same result as legacy split based implementation")
+	public void testDateParserMatchesLegacy(final String sDate)
+	{
+		CDateParser parser = new CDateParser();
+		LegacyCDateParser legacy = new LegacyCDateParser();
+		for (final String format : new String[] {"MM/dd/yyyy", "dd.MM.yyyy", "yyyy-MM-dd"})
+		{
+			assertThat(outcome(() -> parser.getDate(sDate, format)))
+					.isEqualTo(outcome(() -> legacy.getDate(sDate, format)));
+		}
+	}
+	
+	@Test
+	@DisplayName("Test date parser returns input AS IS when year is first and month name is last")
+	public void testDateParserYearFirstMonthNameLast()
+	{
+		CDateParser parser = new CDateParser();
+		assertThat(parser.getDate("1974-05-Apr", "MM/dd/yyyy")).isEqualTo("1974-05-Apr");
+	}
+	
+	@Test
+	@DisplayName("Test batch conversion gives the same results as one by one, sequential and parallel")
+	public void testGetDates()
+	{
+		CDateParser parser = new CDateParser();
+		final String[] values = provideValuesForLegacyComparison()
+				.map(arguments -> (String) arguments.get()[0])
+				.toArray(String[]::new);
+		final String[] inputs = new String[100_000];
+		for (int i = 0; i < inputs.length; i++)
+		{
+			inputs[i] = i % 3 == 0 ? values[i % values.length] : String.format("%d/%d/%d", 1 + i % 12, 1 + i % 28, 1900 + i % 150);
+		}
+		final String[] expected = new String[inputs.length];
+		for (int i = 0; i < inputs.length; i++)
+		{
+			expected[i] = parser.getDate(inputs[i], "dd.MM.yyyy");
+		}
+		assertThat(parser.getDates(inputs, "dd.MM.yyyy")).containsExactly(expected);
+		
+		final String[] output = new String[inputs.length + 1];
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try
+		{
+			parser.getDates(inputs, 1, inputs.length - 1, "dd.MM.yyyy", output, 2, pool, 1000);
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+		assertThat(output[0]).isNull();
+		assertThat(output[1]).isNull();
+		assertThat(Arrays.copyOfRange(output, 2, output.length)).containsExactly(Arrays.copyOfRange(expected, 1, expected.length));
+	}
+	
+	@ParameterizedTest
+	@MethodSource("provideCorrectDateValuesForUS")
+	@DisplayName("Test date parser with bytes gives the same result as with strings")
+	public void testDateParserWithBytes_OK(final String sDate, final String sExpectedDate)
+	{
+		CDateParser parser = new CDateParser();
+		final byte[] input = (" [" + sDate + "] ").getBytes(StandardCharsets.US_ASCII);
+		final byte[] output = new byte[16];
+		final int length = parser.getDate(input, 2, input.length - 4, "MM/dd/yyyy", output, 3);
+		assertThat(new String(output, 3, length, StandardCharsets.US_ASCII)).isEqualTo(sExpectedDate);
+		
+		final ByteBuffer src = ByteBuffer.allocateDirect(input.length).put(input).position(2).limit(input.length - 2);
+		final ByteBuffer dst = ByteBuffer.allocateDirect(16);
+		assertThat(parser.getDate(src, "MM/dd/yyyy", dst)).isEqualTo(length);
+		assertThat(src.position()).isEqualTo(2);
+		assertThat(StandardCharsets.US_ASCII.decode(dst.flip()).toString()).isEqualTo(sExpectedDate);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("provideWrongDateValues")
+	@DisplayName("Test date parser with bytes does not convert INVALID values")
+	public void testDateParserWithBytes_WrongDate(final String sDate, final String sExpectedDate)
+	{
+		CDateParser parser = new CDateParser();
+		final byte[] input = sDate != null ? sDate.getBytes(StandardCharsets.US_ASCII) : new byte[0];
+		assertThat(parser.getDate(input, 0, input.length, "MM/dd/yyyy", new byte[16], 0))
+				.isEqualTo(CDateParser.NOT_CONVERTED);
+		assertThat(parser.getDate("1974-04-06".getBytes(StandardCharsets.US_ASCII), 0, 10, "MM/dd/yyyy", new byte[16], 7))
+				.isEqualTo(CDateParser.BUFFER_TOO_SMALL);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("provideCorrectDateValuesForUS")
+	@DisplayName("Test date parser into chars gives the same result as with strings")
+	public void testDateParserWithChars_OK(final String sDate, final String sExpectedDate) throws IOException
+	{
+		CDateParser parser = new CDateParser();
+		final char[] output = new char[16];
+		final int length = parser.getDate(sDate, "MM/dd/yyyy", output, 3);
+		assertThat(new String(output, 3, length)).isEqualTo(sExpectedDate);
+		
+		final StringBuilder builder = new StringBuilder("date: ");
+		assertThat(parser.getDate(sDate, "MM/dd/yyyy", builder)).isEqualTo(length);
+		assertThat(builder.toString()).isEqualTo("date: " + sExpectedDate);
+		
+		final StringWriter writer = new StringWriter();
+		assertThat(parser.getDate(sDate, "MM/dd/yyyy", (Appendable) writer)).isEqualTo(length);
+		final CharBuffer buffer = CharBuffer.allocate(16);
+		assertThat(parser.getDate(sDate, "MM/dd/yyyy", (Appendable) buffer)).isEqualTo(length);
+		assertThat(writer.toString()).isEqualTo(sExpectedDate);
+		assertThat(buffer.flip().toString()).isEqualTo(sExpectedDate);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("provideWrongDateValues")
+	@DisplayName("Test date parser into chars does not convert INVALID values")
+	public void testDateParserWithChars_WrongDate(final String sDate, final String sExpectedDate) throws IOException
+	{
+		CDateParser parser = new CDateParser();
+		assertThat(parser.getDate(sDate, "MM/dd/yyyy", new char[16], 0)).isEqualTo(CDateParser.NOT_CONVERTED);
+		final StringBuilder builder = new StringBuilder();
+		assertThat(parser.getDate(sDate, "MM/dd/yyyy", builder)).isEqualTo(CDateParser.NOT_CONVERTED);
+		assertThat(parser.getDate(sDate, "MM/dd/yyyy", (Appendable) builder)).isEqualTo(CDateParser.NOT_CONVERTED);
+		assertThat(builder).isEmpty();
+		assertThat(parser.getDate("1974-04-06", "MM/dd/yyyy", new char[16], 7)).isEqualTo(CDateParser.BUFFER_TOO_SMALL);
+		assertThat(parser.getDate("Dec 2020", "MM/dd/yyyy", new char[16], 10)).isEqualTo(CDateParser.BUFFER_TOO_SMALL);
+		assertThat(parser.getDate("Dec 2020", "MM/dd/yyyy", new char[16], 9)).isEqualTo(7);
+	}
+	
+	@Test
+	@DisplayName("Test date parser components with bytes give the same result as with strings")
+	public void testDateParserComponentsWithBytes()
+	{
+		for (final String value : new String[] {"", " ", "00", "01", "12", "13", "31", "32", "1", "Ap", "Apr", "jul",
+				"February", "Aprilis", "1974-04-06", "1974/04", "6.4.1974", "4 6 1974", "not known"})
+		{
+			final byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+			final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+			assertThat(CDateParser.isNumericDay(bytes, 0, bytes.length)).isEqualTo(CDateParser.isNumericDay(value));
+			assertThat(CDateParser.isNumericDay(buffer)).isEqualTo(CDateParser.isNumericDay(value));
+			assertThat(CDateParser.isNumericMonth(bytes, 0, bytes.length)).isEqualTo(CDateParser.isNumericMonth(value));
+			assertThat(CDateParser.isNumericMonth(buffer)).isEqualTo(CDateParser.isNumericMonth(value));
+			assertThat(CDateParser.getAlphabeticMonth(bytes, 0, bytes.length)).isEqualTo(CDateParser.getAlphabeticMonth(value));
+			assertThat(CDateParser.getAlphabeticMonth(buffer)).isEqualTo(CDateParser.getAlphabeticMonth(value));
+			assertThat(CDateParser.detectDelimiter(bytes, 0, bytes.length)).isEqualTo(CDateParser.detectDelimiter(value));
+			assertThat(CDateParser.detectDelimiter(buffer)).isEqualTo(CDateParser.detectDelimiter(value));
+		}
+	}
+	
+	@Test
+	@DisplayName("Test memoized layouts of the same char shape do not mix up day and month")
+	public void testDateParserSameShapeDifferentLayout()
+	{
+		CDateParser parser = new CDateParser();
+		for (int i = 0; i < 2; i++)
+		{
+			assertThat(parser.getDate("19/1/2016", "MM/dd/yyyy")).isEqualTo("01/19/2016");
+			assertThat(parser.getDate("10/1/2016", "MM/dd/yyyy")).isEqualTo("10/01/2016");
+			assertThat(parser.getDate("1/19/2016", "MM/dd/yyyy")).isEqualTo("01/19/2016");
+			assertThat(parser.getDate("1/10/2016", "MM/dd/yyyy")).isEqualTo("01/10/2016");
+		}
+	}
+	
+	@ParameterizedTest
+	@MethodSource("providePackedDateValues")
+	@DisplayName("Test date parser to packed yyyymmdd number")
+	public void testParsePacked(final String sDate, final int expected)
+	{
+		CDateParser parser = new CDateParser();
+		assertThat(parser.parsePacked(sDate)).isEqualTo(expected);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("provideCorrectDateValuesForUS")
+	@DisplayName("Test date parser to epoch day, the same date as with string output")
+	public void testParseToEpochDay(final String sDate, final String sExpectedDate)
+	{
+		CDateParser parser = new CDateParser();
+		final long expected = sExpectedDate.length() == "MM/dd/yyyy".length() ?
+				LocalDate.parse(sExpectedDate, DateTimeFormatter.ofPattern("MM/dd/yyyy")).toEpochDay() :
+				CDateParser.INVALID_EPOCH_DAY;
+		assertThat(parser.parseToEpochDay(sDate)).isEqualTo(expected);
+	}
+	
+	@Test
+	@DisplayName("Test date parser to epoch day with invalid values")
+	public void testParseToEpochDay_WrongDate()
+	{
+		CDateParser parser = new CDateParser();
+		assertThat(parser.parseToEpochDay("2/30/2020")).isEqualTo(CDateParser.INVALID_EPOCH_DAY);
+		assertThat(parser.parseToEpochDay("bla 1988 bla")).isEqualTo(CDateParser.INVALID_EPOCH_DAY);
+		assertThat(parser.parseToEpochDay(null)).isEqualTo(CDateParser.INVALID_EPOCH_DAY);
+		assertThat(parser.parseToEpochDay("1970-01-01")).isEqualTo(0);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("provideCorrectDateValuesForUS")
+	@DisplayName("Test date parser with list of valid values, output date format is american MM/dd/yyyy")
+	public void testDateParserWithAmericanFormat_OK(final String sDate, final String sExpectedDate)
+	{
+		System.out.println("American, input date: " + sDate + ", expected date: " + sExpectedDate);
+		CDateParser parser = new CDateParser();
+		assertThat(parser.getDate(sDate, "MM/dd/yyyy")).isEqualTo(sExpectedDate);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("provideCorrectDateValuesForEU")
+	@DisplayName("Test date parser with list of valid values, output date format is european dd.MM.yyyy")
+	public void testDateParserWithEUFormat_OK(final String sDate, final String sExpectedDate)
+	{
+		System.out.println("EU, input date: " + sDate + ", expected date: " + sExpectedDate);
+		CDateParser parser = new CDateParser();
+		assertThat(parser.getDate(sDate, "dd.MM.yyyy")).isEqualTo(sExpectedDate);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("provideWrongDateValues")
+	@DisplayName("Test date parser with some list of INVALID values, output date format is american MM/dd/yyyy")
+	public void testDateParser_WrongDate(final String sDate, final String sExpectedDate)
+	{
+		System.out.println("American, input date: " + sDate + ", expected date: " + sExpectedDate);
+		CDateParser parser = new CDateParser();
+		assertThat(parser.getDate(sDate, "MM/dd/yyyy")).isEqualTo(sExpectedDate);
+	}
+	
+	@Test
+	@DisplayName("Test parser built with pivot year from clock, field order and default delimiter")
+	public void testDateParserBuilder()
+	{
+		final Clock clock = Clock.fixed(Instant.parse("2024-06-01T00:00:00Z"), ZoneOffset.UTC);
+		final CDateParser parser = CDateParser.builder()
+				.clock(clock)
+				.fieldOrder('/', CDateParser.FieldOrder.DMY)
+				.defaultDelimiter('.')
+				.build();
+		assertThat(parser.getPivotYear()).isEqualTo(2024);
+		assertThat(parser.getDate("23-02-02", "MM/dd/yyyy")).isEqualTo("02/02/2023");
+		assertThat(parser.getDate("24-02-02", "MM/dd/yyyy")).isEqualTo("02/02/1924");
+		assertThat(parser.getDate("04/06/1974", "yyyy-MM-dd")).isEqualTo("1974-06-04");
+		assertThat(parser.getDate("04 06 1974", "yyyy-MM-dd")).isEqualTo("1974-04-06");
+		assertThat(parser.getDate("19/1/2016", "yyyy-MM-dd")).isEqualTo("2016-01-19");
+		assertThat(parser.getDate("1974-06", "MMddyyyy")).isEqualTo("06.1974");
+		assertThat(parser.getFieldOrder('/')).isEqualTo(CDateParser.FieldOrder.DMY);
+		assertThat(parser.getFieldOrder('x')).isNull();
+		
+		// default parser is not affected by plans of the other one
+		final CDateParser defaults = new CDateParser();
+		assertThat(defaults.getDate("04/06/1974", "yyyy-MM-dd")).isEqualTo("1974-04-06");
+		assertThat(defaults.getDate("1974-06", "MMddyyyy")).isEqualTo("06/1974");
+		assertThat(defaults.getPivotYear()).isEqualTo(LocalDate.now().getYear());
+		assertThat(CDateParser.builder().pivotYear(2000).build().getDate("99-02-02", "MM/dd/yyyy"))
+				.isEqualTo("02/02/1999");
+		assertThatThrownBy(() -> CDateParser.builder().pivotYear(99)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CDateParser.builder().fieldOrder(',', CDateParser.FieldOrder.DMY))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("shortYearValuesToCheck")
+	@DisplayName("= test date parser component - shot year (2 digits)")
+	public void testValidShortYear(final String sYear, final boolean controlResult)
+	{
+		assertThat(CDateParser.isShortYear(sYear)).isEqualTo(controlResult);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("alphabeticMonthValuesToCheck")
+	@DisplayName("= test date parser component - alphabetic months (like Apr for example)")
+	public void testValidAlphabeticMonth(final String sMonth, final int controlResult)
+	{
+		assertThat(CDateParser.getAlphabeticMonth(sMonth)).isEqualTo(controlResult);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("shortNumericMonthValuesToCheck")
+	@DisplayName("= test date parser component - month as 2 digits")
+	public void testValidShortNumericMonth(final String sMonth, final boolean controlResult)
+	{
+		assertThat(CDateParser.isNumericMonth(sMonth)).isEqualTo(controlResult);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("shortNumericDayValuesToCheck")
+	@DisplayName("= test date parser component - day as 2 digits")
+	public void testValidShortNumericDay(final String sMonth, final boolean controlResult)
+	{
+		assertThat(CDateParser.isNumericDay(sMonth)).isEqualTo(controlResult);
+	}
+	
+	@Test
+	@DisplayName("Test char checks of date components are the same as regular expressions they replaced")
+	public void testDateComponentsAsPatterns()
+	{
+		final Pattern day = Pattern.compile("^0[1-9]|[12][0-9]|3[01]$");
+		final Pattern month = Pattern.compile("^0[1-9]|1[0-2]$");
+		final Pattern longYear = Pattern.compile("^19[0-9]{2}|20[0-9]{2}$");
+		final Pattern shortYear = Pattern.compile("^\\d{2}$");
+		final String chars = "0123456789a ٣";
+		for (int i = 0; i < chars.length(); i++)
+		{
+			for (int j = 0; j < chars.length(); j++)
+			{
+				final String two = "" + chars.charAt(i) + chars.charAt(j);
+				assertThat(CDateParser.isNumericDay(two)).as(two).isEqualTo(day.matcher(two).matches());
+				assertThat(CDateParser.isNumericMonth(two)).as(two).isEqualTo(month.matcher(two).matches());
+				assertThat(CDateParser.getNumericMonth(two) > 0).as(two).isEqualTo(month.matcher(two).matches());
+				assertThat(CDateParser.isShortYear(two)).as(two).isEqualTo(shortYear.matcher(two).matches());
+				for (final String century : new String[] {"19", "20", "21", "1", ""})
+				{
+					final String year = century + two;
+					assertThat(CDateParser.isValidLongYear(year)).as(year).isEqualTo(longYear.matcher(year).matches());
+				}
+			}
+		}
+	}
+
+	private static Stream<Arguments> provideDateTimeValues()
+	{
+		return Stream.of(
+				Arguments.of("1974-04-06T10:15:30Z", "1974-04-06T10:15:30Z"),
+				Arguments.of("1974-04-06T10:15:30.5+03:00", "1974-04-06T10:15:30.5+03:00"),
+				Arguments.of("1974-04-06 10:15:30,123456789 -0130", "1974-04-06T10:15:30.123456789-01:30"),
+				Arguments.of("02/02/2020 10:15", "2020-02-02T10:15Z"),
+				Arguments.of(" 19/1/2016  7:05:09 +05 ", "2016-01-19T07:05:09+05:00"),
+				Arguments.of("5 April 1974 23:59", "1974-04-05T23:59Z")
+		);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("provideDateTimeValues")
+	@DisplayName("= test date with time of day and offset")
+	public void testDateTime(final String input, final String isoDateTime)
+	{
+		final CDateParser parser = new CDateParser();
+		final OffsetDateTime expected = OffsetDateTime.parse(isoDateTime);
+		assertThat(parser.parseToEpochSecond(input)).isEqualTo(expected.toEpochSecond());
+		assertThat(parser.parseToEpochMilli(input)).isEqualTo(expected.toInstant().toEpochMilli());
+		assertThat(parser.parseToEpochDay(input)).isEqualTo(expected.toLocalDate().toEpochDay());
+		assertThat(parser.getDate(input, "MM/dd/yyyy")).isEqualTo(expected.format(DateTimeFormatter.ofPattern("MM/dd/yyyy")));
+		final String pattern = "yyyy-MM-dd HH:mm:ss.SSS XXX";
+		assertThat(parser.getDate(input, pattern)).isEqualTo(expected.format(DateTimeFormatter.ofPattern(pattern)));
+		final byte[] bytes = input.getBytes(StandardCharsets.US_ASCII);
+		final byte[] output = new byte[64];
+		final int length = parser.getDate(bytes, 0, bytes.length, pattern, output, 0);
+		assertThat(new String(output, 0, length, StandardCharsets.US_ASCII)).isEqualTo(expected.format(DateTimeFormatter.ofPattern(pattern)));
+	}
+	
+	@Test
+	@DisplayName("= test pattern with time fields fails for input w/o time, as LocalDate.format did")
+	public void testTimePatternWithoutTime()
+	{
+		final CDateParser parser = new CDateParser();
+		for (final String pattern : new String[] {"dd.mm.yyyy", "yyyy-MM-dd HH:mm XXX"})
+		{
+			assertThatThrownBy(() -> parser.getDate("1974-04-06", pattern)).as(pattern)
+					.isInstanceOf(UnsupportedTemporalTypeException.class);
+			assertThatThrownBy(() -> new LegacyCDateParser().getDate("1974-04-06", pattern)).as(pattern)
+					.isInstanceOf(UnsupportedTemporalTypeException.class);
+			assertThat(parser.getDate("1974-04-06", pattern, new char[32], 0)).as(pattern).isEqualTo(CDateParser.NOT_CONVERTED);
+			final byte[] input = "1974-04-06".getBytes(StandardCharsets.US_ASCII);
+			assertThat(parser.getDate(input, 0, input.length, pattern, new byte[32], 0)).as(pattern)
+					.isEqualTo(CDateParser.NOT_CONVERTED);
+		}
+		assertThat(parser.parseToEpochSecond("1974-04-06")).isEqualTo(OffsetDateTime.parse("1974-04-06T00:00Z").toEpochSecond());
+		assertThat(parser.getDate("1974-04-06 10:15", "dd.mm.yyyy")).isEqualTo("06.15.1974");
+		assertThat(parser.getDate("1974-04-06", "dd.MM.yyyy")).isEqualTo("06.04.1974");
+		assertThat(parser.getDate("1974-06", "dd.mm.yyyy")).isEqualTo("06.1974");
+	}
+	
+	@Test
+	@DisplayName("= test dotted dates are parsed by all primitive methods, getDate returns them AS IS")
+	public void testDottedDateTime()
+	{
+		final CDateParser parser = new CDateParser();
+		assertThat(parser.parseToEpochSecond("06.04.1974 10:15:30 +0300"))
+				.isEqualTo(OffsetDateTime.parse("1974-04-06T10:15:30+03:00").toEpochSecond());
+		assertThat(parser.parseToEpochMilli("1974.04.06T10:15:30.5Z"))
+				.isEqualTo(OffsetDateTime.parse("1974-04-06T10:15:30.5Z").toInstant().toEpochMilli());
+		assertThat(parser.parseToEpochSecond("25.12.20")).isEqualTo(OffsetDateTime.parse("2020-12-25T00:00Z").toEpochSecond());
+		assertThat(parser.parseToEpochSecond("6.Apr.1974 10:15")).isEqualTo(OffsetDateTime.parse("1974-04-06T10:15Z").toEpochSecond());
+		assertThat(parser.parseToEpochSecond("06.04.1974.5")).isEqualTo(CDateParser.INVALID_EPOCH_SECOND);
+		assertThat(parser.parseToEpochSecond("30.02.1974")).isEqualTo(CDateParser.INVALID_EPOCH_SECOND);
+		assertThat(parser.parseToEpochSecond("04.1974")).isEqualTo(CDateParser.INVALID_EPOCH_SECOND);
+		// field order of '.' is DMY by default
+		final CDateParser mdy = CDateParser.builder().fieldOrder('.', CDateParser.FieldOrder.MDY).build();
+		assertThat(mdy.parseToEpochSecond("06.04.1974")).isEqualTo(OffsetDateTime.parse("1974-06-04T00:00Z").toEpochSecond());
+		// the same date by every primitive method
+		final long epochDay = LocalDate.of(1974, 4, 6).toEpochDay();
+		assertThat(parser.parseToEpochDay("06.04.1974")).isEqualTo(epochDay);
+		assertThat(parser.parseToEpochSecond("06.04.1974")).isEqualTo(epochDay * 86400);
+		assertThat(parser.parseToEpochMilli("06.04.1974")).isEqualTo(epochDay * 86400_000);
+		assertThat(parser.parsePacked("06.04.1974")).isEqualTo(19740406);
+		final byte[] bytes = "06.04.1974".getBytes(StandardCharsets.US_ASCII);
+		assertThat(parser.parsePacked(bytes, 0, bytes.length)).isEqualTo(19740406);
+		assertThat(parser.parsePacked("04.1974")).isEqualTo(19740400);
+		final CDateParseResult result = new CDateParseResult();
+		assertThat(parser.parse("06.04.1974", result)).isTrue();
+		assertThat(result.getYear() * 10000 + result.getMonth() * 100 + result.getDay()).isEqualTo(19740406);
+		final CDateEpochColumn column = CDateEpochColumn.allocate(1);
+		assertThat(parser.parseToColumn(new String[] {"06.04.1974"}, 0, 1, column, 0)).isEqualTo(1);
+		assertThat(column.getEpochDay(0)).isEqualTo(epochDay);
+		assertThat(parser.parseToEpochDay("06.04.1974.5")).isEqualTo(CDateParser.INVALID_EPOCH_DAY);
+		assertThat(parser.parsePacked("30.02.1974")).isEqualTo(CDateParser.INVALID_PACKED_DATE);
+		// legacy results are kept
+		assertThat(parser.getDate("06.04.1974 10:15:30 +0300", "MM/dd/yyyy")).isEqualTo("06.04.1974 10:15:30 +0300");
+	}
+	
+	@Test
+	@DisplayName("= test inputs with invalid time are not dates with time")
+	public void testInvalidTime()
+	{
+		final CDateParser parser = new CDateParser();
+		for (final String input : new String[] {"1974-04-06T24:00", "1974-04-06 10:60", "1974-04-06 10:15:61",
+				"1974-04-06 10:15:30.", "1974-04-06 10:15 +19:00", "1974-04-06 10:15 UTC", "1974-04-06T10:15Zulu",
+				"1974-04-06x10:15", "10:15", "06.04.1974 10:15:30 +0399", "blabla 10:15", "1974-04-06 10:15:30.1234567890"})
+		{
+			assertThat(parser.parseToEpochSecond(input)).as(input).isEqualTo(CDateParser.INVALID_EPOCH_SECOND);
+			assertThat(parser.parseToEpochMilli(input)).as(input).isEqualTo(CDateParser.INVALID_EPOCH_MILLI);
+		}
+		assertThat(parser.getDate("1974-04-06 10:15 UTC", "MM/dd/yyyy")).isEqualTo("1974-04-06 10:15 UTC");
+		assertThat(parser.getDate("1989 10:15", "MM/dd/yyyy HH:mm")).isEqualTo("1989");
+		assertThat(parser.getDate("1974-06 10:15", "MM/dd/yyyy HH:mm")).isEqualTo("06/1974");
+		assertThat(parser.parseToEpochMilli("999999999-01-01")).isEqualTo(CDateParser.INVALID_EPOCH_MILLI);
+	}
+	
+	@Test
+	@DisplayName("= test internal date parser component - months enum")
+	public void testValidShortNumericDay()
+	{
+		assertThat(CDateParser.getNumericMonthByIndex(1)).isEqualTo("01");
+		assertThat(CDateParser.getNumericMonthByIndex(2)).isEqualTo("02");
+		assertThat(CDateParser.getNumericMonthByIndex(11)).isEqualTo("11");
+		assertThat(CDateParser.getNumericMonthByIndex(0)).isEqualTo("");
+		assertThat(CDateParser.getNumericMonthByIndex(12)).isEqualTo("12");
+		assertThat(CDateParser.getNumericMonthByIndex(-1)).isEqualTo("");
+	}
+
+}
@@ -0,0 +1,114 @@
+package goga.kolxo3.sdk.date;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DateTimeException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CDateRejectionsTest {
+
+	private static final String FORMAT = "MM/dd/yyyy";
+
+	@Test
+	@DisplayName("Test rejected inputs of getDate are sampled with the reason")
+	public void testGetDate()
+	{
+		final CDateRejections rejections = new CDateRejections();
+		final CDateParser parser = CDateParser.builder().rejections(rejections).build();
+		assertThat(parser.getDate("1974-04-06", FORMAT)).isEqualTo("04/06/1974");
+		assertThat(parser.getDate("1989", FORMAT)).isEqualTo("1989");
+		assertThat(parser.getDate("1979-NaN-NaN", FORMAT)).isEqualTo("1979-NaN-NaN");
+		assertThat(parser.getDate("blabla 1987", FORMAT)).isEqualTo("blabla 1987");
+		assertThat(parser.getDate("not a date at all", FORMAT)).isEqualTo("not a date at all");
+		assertThat(parser.getDate("1/2/3/4", FORMAT)).isEqualTo("1/2/3/4");
+		assertThatThrownBy(() -> parser.getDate("13/13/2020", FORMAT)).isInstanceOf(DateTimeException.class);
+		assertThat(parser.getDate((String) null, FORMAT)).isNull();
+
+		assertThat(rejections.getCount(CDateRejections.Reason.PARTS)).isEqualTo(2);
+		assertThat(rejections.getCount(CDateRejections.Reason.LAYOUT)).isEqualTo(1);
+		assertThat(rejections.getCount(CDateRejections.Reason.NOT_A_NUMBER)).isEqualTo(1);
+		assertThat(rejections.getCount(CDateRejections.Reason.INVALID_DATE)).isEqualTo(1);
+		assertThat(rejections.getSampledCount()).isEqualTo(5);
+
+		final List<CDateRejections.Shape> shapes = rejections.drain(10);
+		assertThat(shapes).hasSize(5);
+		assertThat(shapes).extracting(CDateRejections.Shape::getShape)
+				.contains("9999-aaa-aaa", "aaaaaa 9999", "99/99/9999", "9/9/9/9");
+		assertThat(shapes).filteredOn(shape -> shape.getReason() == CDateRejections.Reason.INVALID_DATE)
+				.extracting(CDateRejections.Shape::getExample).containsExactly("13/13/2020");
+		assertThat(rejections.drain(10)).isEmpty();
+
+		// chars are rejected the same way, invalid dates are not converted there
+		final char[] dst = new char[32];
+		assertThat(parser.getDate("13/13/2020", FORMAT, dst, 0)).isEqualTo(CDateParser.NOT_CONVERTED);
+		assertThat(parser.getDate("blabla 1987", FORMAT, new StringBuilder())).isEqualTo(CDateParser.NOT_CONVERTED);
+		assertThat(rejections.getCount(CDateRejections.Reason.INVALID_DATE)).isEqualTo(2);
+		assertThat(rejections.getCount(CDateRejections.Reason.LAYOUT)).isEqualTo(2);
+
+		assertThat(parser.toBuilder().build().getRejections()).isSameAs(rejections);
+		assertThat(new CDateParser().getRejections()).isNull();
+		rejections.reset();
+		assertThat(rejections.getCount(CDateRejections.Reason.LAYOUT)).isZero();
+		assertThat(rejections.drain(10)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Test samples are limited by rate and capacity, the most frequent shapes are the first")
+	public void testRateAndCapacity() throws InterruptedException
+	{
+		final CDateRejections rejections = new CDateRejections(5, 10);
+		assertThat(rejections.getCapacity()).isEqualTo(8);
+		final CDateParser parser = CDateParser.builder().rejections(rejections).build();
+		for (int i = 0; i < 1000; i++)
+		{
+			parser.getDate("bad " + i, FORMAT);
+		}
+		assertThat(rejections.getCount(CDateRejections.Reason.LAYOUT)).isEqualTo(1000);
+		assertThat(rejections.getSampledCount()).isBetween(10L, 20L); // a window may end during the loop
+
+		final List<CDateRejections.Shape> shapes = rejections.drain(1);
+		assertThat(shapes).hasSize(1);
+		assertThat(shapes.get(0).getCount()).isBetween(1L, 8L);
+		assertThat(shapes.get(0).toString()).startsWith("LAYOUT");
+
+		// the clock is checked by some of rejections over the limit, the next window is found after a few of them
+		TimeUnit.MILLISECONDS.sleep(1100);
+		for (int i = 0; i < 1000; i++)
+		{
+			parser.getDate("bad", FORMAT);
+		}
+		assertThat(rejections.drain(10)).extracting(CDateRejections.Shape::getExample).containsExactly("bad");
+
+		assertThatThrownBy(() -> new CDateRejections(0, 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new CDateRejections(1, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	@DisplayName("Test rejections are recorded by many threads")
+	public void testConcurrent()
+	{
+		final CDateRejections rejections = new CDateRejections(64, 1_000_000);
+		final CDateParser parser = CDateParser.builder().rejections(rejections).build();
+		new ForkJoinPool(4).submit(() -> IntStream.range(0, 100_000).parallel()
+				.forEach(i -> parser.getDate(i % 2 == 0 ? "1979-NaN-NaN" : "x" + i, FORMAT))).join();
+		assertThat(rejections.getCount(CDateRejections.Reason.NOT_A_NUMBER)).isEqualTo(50_000);
+		assertThat(rejections.getCount(CDateRejections.Reason.PARTS)).isEqualTo(50_000);
+		assertThat(rejections.drain(100).stream().mapToLong(CDateRejections.Shape::getCount).sum()).isEqualTo(64);
+	}
+
+	@Test
+	@DisplayName("Test shape of input")
+	public void testShape()
+	{
+		assertThat(CDateRejections.shape("1974-Apr-05")).isEqualTo("9999-aaa-99");
+		assertThat(CDateRejections.shape("٣/4\t2020")).isEqualTo("9/9 9999");
+		assertThat(CDateRejections.shape("")).isEmpty();
+	}
+}
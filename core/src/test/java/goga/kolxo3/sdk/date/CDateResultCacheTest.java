@@ -0,0 +1,86 @@
+package goga.kolxo3.sdk.date;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CDateResultCacheTest {
+
+	private static final String FORMAT = "MM/dd/yyyy";
+
+	@Test
+	@DisplayName("Test parser with result cache gives the same results and counts hits")
+	public void testCachedParser()
+	{
+		final CDateResultCache cache = new CDateResultCache(64);
+		final CDateParser cached = new CDateParser(cache);
+		final CDateParser parser = new CDateParser();
+		final String[] inputs = {"1974-Apr-05", "19/1/2016", "1989", "2/2020", "blabla 1987", "", "1974-04-06"};
+		for (int i = 0; i < 3; i++)
+		{
+			for (final String input : inputs)
+			{
+				assertThat(cached.getDate(input, FORMAT)).isEqualTo(parser.getDate(input, FORMAT));
+				assertThat(cached.getDate(input, "dd.MM.yyyy")).isEqualTo(parser.getDate(input, "dd.MM.yyyy"));
+			}
+		}
+		assertThat(cached.getDate(null, FORMAT)).isNull();
+		assertThat(cache.getMissCount()).isEqualTo(inputs.length * 2);
+		assertThat(cache.getHitCount()).isEqualTo(inputs.length * 4);
+		assertThat(cache.getEvictionCount()).isZero();
+	}
+
+	@Test
+	@DisplayName("Test result cache keeps its bound and evicts entries")
+	public void testEviction()
+	{
+		final CDateResultCache cache = new CDateResultCache(16);
+		assertThat(cache.getCapacity()).isEqualTo(16);
+		for (int i = 0; i < 1000; i++)
+		{
+			cache.put("key" + i, FORMAT, "value" + i);
+		}
+		int found = 0;
+		for (int i = 0; i < 1000; i++)
+		{
+			final String value = cache.get("key" + i, FORMAT);
+			if (value != null)
+			{
+				assertThat(value).isEqualTo("value" + i);
+				found++;
+			}
+		}
+		assertThat(found).isLessThanOrEqualTo(16);
+		assertThat(cache.getEvictionCount()).isGreaterThanOrEqualTo(1000 - 16);
+		assertThat(CDateResultCache.withMemoryLimit(1 << 20).getCapacity() * (long) CDateResultCache.MAX_ENTRY_BYTES)
+				.isLessThanOrEqualTo(1 << 20);
+	}
+
+	@Test
+	@DisplayName("Test long results are not cached")
+	public void testLongResult()
+	{
+		final CDateResultCache cache = new CDateResultCache(64);
+		final String format = "EEEE, MMMM dd, yyyy 'at noon, as written in the register of the county'";
+		final String result = new CDateParser(cache).getDate("1974-04-06", format);
+		assertThat(result).hasSizeGreaterThan(CDateResultCache.MAX_RESULT_LENGTH);
+		assertThat(cache.get("1974-04-06", format)).isNull();
+		cache.put("1974-04-06", FORMAT, "04/06/1974");
+		assertThat(cache.get("1974-04-06", FORMAT)).isEqualTo("04/06/1974");
+	}
+
+	@Test
+	@DisplayName("Test referenced entries survive one-time values")
+	public void testSecondChance()
+	{
+		final CDateResultCache cache = new CDateResultCache(4); // one set
+		cache.put("hot", FORMAT, "HOT");
+		assertThat(cache.get("hot", FORMAT)).isEqualTo("HOT");
+		for (int i = 0; i < 100; i++)
+		{
+			cache.put("cold" + i, FORMAT, "COLD");
+			assertThat(cache.get("hot", FORMAT)).isEqualTo("HOT");
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package goga.kolxo3.sdk.date;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CMonthNamesTest {
+
+	private static final String FORMAT = "MM/dd/yyyy";
+	private static final CMonthNames NAMES = CMonthNames.of(Locale.FRENCH, Locale.GERMAN, new Locale("ru"));
+
+	private static Stream<Arguments> provideMonthNames()
+	{
+		return Stream.of(
+				Arguments.of("février", 2),
+				Arguments.of("fevrier", 2),
+				Arguments.of("FÉVR", 2),
+				Arguments.of("août", 8),
+				Arguments.of("aout", 8),
+				Arguments.of("juin", 6),
+				Arguments.of("juil", 7),
+				Arguments.of("März", 3),
+				Arguments.of("Dez", 12),
+				Arguments.of("Dezember", 12),
+				Arguments.of("января", 1),
+				Arguments.of("янв", 1),
+				Arguments.of("МАЯ", 5),
+				Arguments.of("April", 4),
+				Arguments.of("sep", 9),
+				Arguments.of("Dicemb", 0),
+				Arguments.of("févriers", 0),
+				Arguments.of("ja", 0)
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource("provideMonthNames")
+	@DisplayName("Test month names of several locales")
+	public void testMatch(final String name, final int month)
+	{
+		assertThat(NAMES.match(name)).isEqualTo(month);
+		assertThat(NAMES.match("[" + name + "]", 1, name.length() + 1)).isEqualTo(month);
+	}
+
+	@Test
+	@DisplayName("Test English dictionary matches the same names as getAlphabeticMonth")
+	public void testEnglishOnly()
+	{
+		assertThat(CMonthNames.of()).isSameAs(CMonthNames.ENGLISH);
+		assertThat(CMonthNames.ENGLISH.getLocales()).isEmpty();
+		for (final String month : CDateParser.MONTHS)
+		{
+			for (int length = 1; length <= month.length() + 1; length++)
+			{
+				final String prefix = (month + "x").substring(0, length);
+				assertThat(CMonthNames.ENGLISH.match(prefix.toUpperCase(Locale.ROOT)))
+						.isEqualTo(LegacyCDateParser.getAlphabeticMonth(prefix));
+			}
+		}
+		assertThat(CMonthNames.ENGLISH.match("février")).isZero();
+		assertThat(CMonthNames.ENGLISH.match("Aprilis")).isZero();
+		assertThat(CMonthNames.ENGLISH.match(null)).isZero();
+	}
+
+	@Test
+	@DisplayName("Test parser with month names of other locales")
+	public void testParser()
+	{
+		final CDateParser parser = new CDateParser(null, NAMES);
+		assertThat(parser.getDate("5 мая 1974", FORMAT)).isEqualTo("05/05/1974");
+		assertThat(parser.getDate("1974-août-06", FORMAT)).isEqualTo("08/06/1974");
+		assertThat(parser.getDate("24 Dez 2020", FORMAT)).isEqualTo("12/24/2020");
+		assertThat(parser.getDate("5 April 1974", FORMAT)).isEqualTo("04/05/1974");
+		assertThat(parser.parsePacked("fevrier 2020")).isEqualTo(20200200);
+		assertThat(new CDateParser().getDate("5 мая 1974", FORMAT)).isEqualTo("5 мая 1974");
+	}
+
+	@ParameterizedTest
+	@MethodSource("provideUtf8Dates")
+	@DisplayName("Test month names of other locales in UTF-8 bytes, heap and direct buffers")
+	public void testParserWithBytes(final String date, final String expected)
+	{
+		final CDateParser parser = new CDateParser(null, NAMES);
+		assertThat(parser.getDate(date, FORMAT)).isEqualTo(expected);
+		final byte[] input = ("[" + date + "]").getBytes(StandardCharsets.UTF_8);
+		final byte[] output = new byte[16];
+		final int length = parser.getDate(input, 1, input.length - 2, FORMAT, output, 0);
+		assertThat(new String(output, 0, length, StandardCharsets.UTF_8)).isEqualTo(expected);
+		final ByteBuffer direct = ByteBuffer.allocateDirect(input.length).put(input).flip().position(1).limit(input.length - 1);
+		final ByteBuffer dst = ByteBuffer.allocate(16);
+		assertThat(parser.getDate(direct, FORMAT, dst)).isEqualTo(expected.length());
+		assertThat(new String(dst.array(), 0, dst.position(), StandardCharsets.UTF_8)).isEqualTo(expected);
+		assertThat(parser.parsePacked(input, 1, input.length - 2)).isEqualTo(parser.parsePacked(date));
+		assertThat(CDateParser.getAlphabeticMonth("août".getBytes(StandardCharsets.UTF_8), 0, 5)).isZero();
+	}
+
+	private static Stream<Arguments> provideUtf8Dates()
+	{
+		return Stream.of(
+				Arguments.of("06 février 1974", "02/06/1974"),
+				Arguments.of("5 мая 1974", "05/05/1974"),
+				Arguments.of("1974-août-06", "08/06/1974"),
+				Arguments.of("24 März 2020", "03/24/2020"),
+				Arguments.of("янв 2020", "01/2020")
+		);
+	}
+
+	@Test
+	@DisplayName("Test malformed UTF-8 bytes are not a month name")
+	public void testMalformedBytes()
+	{
+		final CDateParser parser = new CDateParser(null, NAMES);
+		final byte[] output = new byte[16];
+		// "févr" cut in the middle of 'é', overlong '/' and lone continuation byte
+		for (final byte[] input : new byte[][] {
+				{'0', '6', ' ', 'f', (byte) 0xC3, ' ', '1', '9', '7', '4'},
+				{'1', (byte) 0xC0, (byte) 0xAF, '2', (byte) 0xC0, (byte) 0xAF, '1', '9', '7', '4'},
+				{'0', '6', ' ', (byte) 0x80, ' ', '1', '9', '7', '4'}})
+		{
+			assertThat(parser.getDate(input, 0, input.length, FORMAT, output, 0)).isEqualTo(CDateParser.NOT_CONVERTED);
+		}
+		final byte[] emoji = "5 мая 1974 \uD83D\uDE00".getBytes(StandardCharsets.UTF_8);
+		assertThat(parser.getDate(emoji, 0, emoji.length, FORMAT, output, 0)).isEqualTo(CDateParser.NOT_CONVERTED);
+	}
+}
@@ -1,31 +1,20 @@
 package goga.kolxo3.sdk.date;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.Calendar;
 import java.util.Objects;
-import java.util.regex.Pattern;
-import java.util.Locale;
+
+import static goga.kolxo3.sdk.date.CDateParser.*;
 
 /**
- * @author Igor Zamiatin
+ * Original split/regex based implementation of {@link CDateParser#getDate(String, String)},
+ * kept as reference to check that optimized parse paths give exactly the same results.
  */
-public class CDateParser {
-	public static final String[] MONTHS = {
-			"January", "February", "March", "April", "May", "June",
-			"July", "August", "September", "October", "November", "December"
-	};
-	public static final char[] DELIMITERS = {'.', '-', '/', ' '};
-	public static final Pattern NUMERIC_DAY_PATTERN = Pattern.compile("^0[1-9]|[12][0-9]|3[01]$");
-	public static final Pattern NUMERIC_MONTH_PATTERN = Pattern.compile("^0[1-9]|1[0-2]$");
-	public static final Pattern LONG_YEAR_PATTERN = Pattern.compile("^19[0-9]{2}|20[0-9]{2}$");
-	public static final Pattern SHORT_YEAR_PATTERN = Pattern.compile("^\\d{2}$");
-	
+class LegacyCDateParser {
 	private static final char DEFAULT_DELIMITER = '/';
 	private static final String FORMAT_TWO_DIGITS = "%02d";
 	private static final String FORMAT_FOUR_DIGITS = "%04d";
 	
-	
 	/**
 	 * Convert any input date to date with needed pattern if possible
 	 *
@@ -285,92 +274,34 @@ public class CDateParser {
 	}
 	
 	/**
-	 * Detect which delimiter uses in this date string - slash '/', dot '.', minus '-' or space ' '
-	 * @param str input date string
-	 * @return delimiter
+	 * Convert year like 02 to 4 digits format like 2002
+	 * @param inputYear year as string
+	 * @return year as string
 	 */
-	public static char detectDelimiter(final String str)
+	private static String convertToFullYearFormat(final String inputYear)
 	{
-		if (null != str && !str.trim().isEmpty())
+		if (null == inputYear || inputYear.length() != 2)
 		{
-			for (final char d : DELIMITERS)
-			{
-				if (checkDelimiter(str, d))
-				{
-					return d;
-				}
-			}
-		}
-		return 0;
-	}
-	
-	/**
-	 * Year in valid format with 4 characters like 1974
-	 */
-	public static boolean isValidLongYear(final String str)
-	{
-		return null != str && LONG_YEAR_PATTERN.matcher(str).matches();
-	}
-	
-	public static boolean isShortYear(final String str)
-	{
-		return null != str && SHORT_YEAR_PATTERN.matcher(str).matches();
-	}
-	public static boolean isNumericMonth(final String str)
-	{
-		if (null != str && NUMERIC_MONTH_PATTERN.matcher(str).matches()) {
-			try {
-				final int intMonth = Integer.parseInt(str);
-				if (intMonth > 0 && intMonth < 13) {
-					return true;
-				}
-			} catch (NumberFormatException e) {
-				return false;
-			}
+			return inputYear;
 		}
-		return false;
-	}
-	
-	public static int getNumericMonth(final String str)
-	{
-		if (null != str && NUMERIC_MONTH_PATTERN.matcher(str).matches())
+		Calendar ca = Calendar.getInstance();
+		final int nCurrentYear = ca.get(Calendar.YEAR);
+		final int nCurrentCentury = nCurrentYear / 100 + 1;
+		try
 		{
-			try
-			{
-				final int intMonth = Integer.parseInt(str);
-				if (intMonth > 0 && intMonth < 13)
-				{
-					return intMonth;
-				}
-			}
-			catch (NumberFormatException e)
+			final int nInputYear = (nCurrentCentury - 1) * 100 + Integer.parseInt(inputYear);
+			int nFourDigitYear = nInputYear;
+			if (nInputYear >= nCurrentYear)
 			{
-				return 0;
+				nFourDigitYear = nInputYear - 100;
 			}
+			return String.format(FORMAT_FOUR_DIGITS, nFourDigitYear);
+		} catch (NumberFormatException ex) {
+			return inputYear;
 		}
-		return 0;
 	}
 	
-	public static boolean isNumericDay(final String str)
-	{
-		if (null != str && NUMERIC_DAY_PATTERN.matcher(str).matches())
-		{
-			try
-			{
-				final int intMonth = Integer.parseInt(str);
-				if (intMonth > 0 && intMonth < 32)
-				{
-					return true;
-				}
-			}
-			catch (NumberFormatException e)
-			{
-				return false;
-			}
-		}
-		return false;
-	}
-	public static int getAlphabeticMonth(final String str)
+	static int getAlphabeticMonth(final String str)
 	{
 		if (str == null || str.length() < 3)
 		{
@@ -390,66 +321,7 @@ public class CDateParser {
 		}
 		return isFound ? iMonth : 0;
 	}
-	
-	public static String getNumericMonthByIndex(final int index)
-	{
-		return (index > 0 && index <= MONTHS.length) ?
-				String.format(FORMAT_TWO_DIGITS, getAlphabeticMonth(MONTHS[index - 1].substring(0,3))) : "";
-	}
-	
-	public static boolean isSingleDigit(final String str)
-	{
-		return (str != null && (str.length() == 1 && Character.isDigit(str.charAt(0))));
-	}
-	private static boolean checkDelimiter(final String str, final char cDelimiter)
-	{
-		return (str != null && (str.indexOf(cDelimiter) != -1));
-	}
-	
-	private static String convertToFullMonthFormat(final String inputMonth)
-	{
-		if (isSingleDigit(inputMonth))
-		{
-			try
-			{
-				return String.format(FORMAT_TWO_DIGITS, Integer.parseInt(inputMonth));
-			}
-			catch(NumberFormatException e)
-			{
-				return inputMonth;
-			}
-		}
-		return inputMonth;
-	}
-	
-	/**
-	 * Convert year like 02 to 4 digits format like 2002
-	 * @param inputYear year as string
-	 * @return year as string
-	 */
-	private static String convertToFullYearFormat(final String inputYear)
-	{
-		if (null == inputYear || inputYear.length() != 2)
-		{
-			return inputYear;
-		}
-		Calendar ca = Calendar.getInstance();
-		final int nCurrentYear = ca.get(Calendar.YEAR);
-		final int nCurrentCentury = nCurrentYear / 100 + 1;
-		try
-		{
-			final int nInputYear = (nCurrentCentury - 1) * 100 + Integer.parseInt(inputYear);
-			int nFourDigitYear = nInputYear;
-			if (nInputYear >= nCurrentYear)
-			{
-				nFourDigitYear = nInputYear - 100;
-			}
-			return String.format(FORMAT_FOUR_DIGITS, nFourDigitYear);
-		} catch (NumberFormatException ex) {
-			return inputYear;
-		}
-	}
-	
+
 	private LocalDate getLocalDate(final String day, final String month, final String year)
 	{
 		try
@@ -461,10 +333,4 @@ public class CDateParser {
 			return null;
 		}
 	}
-	public static String formatLocalDate(final LocalDate date, final String pattern)
-	{
-		DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern, Locale.US);
-		return date.format(formatter);
-	}
-	
 }
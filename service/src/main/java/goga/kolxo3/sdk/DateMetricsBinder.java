@@ -0,0 +1,123 @@
+package goga.kolxo3.sdk;
+
+import goga.kolxo3.sdk.date.CDateMetrics;
+import goga.kolxo3.sdk.date.CDateParser;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publish {@link CDateMetrics} as Micrometer meters:
+ * <ul>
+ * <li>{@code kolxo3.date.parse} - counter per outcome</li>
+ * <li>{@code kolxo3.date.delimiter} - counter per delimiter of input</li>
+ * <li>{@code kolxo3.date.short.year}, {@code kolxo3.date.month.name} - converted dates with two-digit year,
+ * with alphabetic month</li>
+ * <li>{@code kolxo3.date.parse.latency} - timer, and {@code kolxo3.date.parse.latency.percentile} gauges</li>
+ * <li>{@code kolxo3.date.shape} - counter per shape of input, like "yyyy-nn-nn"</li>
+ * </ul>
+ * Shapes appear when the first input of the shape is parsed, their counters are registered
+ * every {@code kolxo3.date.metrics.shapes-period-ms} on the scheduler thread.
+ *
+ * @author Igor Zamiatin
+ */
+public class DateMetricsBinder implements MeterBinder
+{
+	private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+	private final CDateMetrics metrics;
+	private volatile MeterRegistry registry;
+
+	public DateMetricsBinder(final CDateMetrics metrics)
+	{
+		this.metrics = metrics;
+	}
+
+	@Override
+	public void bindTo(final MeterRegistry registry)
+	{
+		this.registry = registry;
+		for (final CDateMetrics.Outcome outcome : CDateMetrics.Outcome.values())
+		{
+			FunctionCounter.builder("kolxo3.date.parse", metrics, m -> m.getCount(outcome))
+					.tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+					.description("Parsed input dates by outcome")
+					.register(registry);
+		}
+		for (final char delimiter : CDateParser.DELIMITERS)
+		{
+			bindDelimiter(registry, delimiter);
+		}
+		bindDelimiter(registry, (char) 0); // inputs w/o delimiter
+		FunctionCounter.builder("kolxo3.date.short.year", metrics, CDateMetrics::getShortYearCount)
+				.description("Converted dates with two-digit year")
+				.register(registry);
+		FunctionCounter.builder("kolxo3.date.month.name", metrics, CDateMetrics::getMonthNameCount)
+				.description("Converted dates with alphabetic month")
+				.register(registry);
+		FunctionTimer.builder("kolxo3.date.parse.latency", metrics, CDateMetrics::getLatencyCount,
+						m -> m.getLatencyTotal(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+				.description("Latency of getDate")
+				.register(registry);
+		for (final double quantile : QUANTILES)
+		{
+			Gauge.builder("kolxo3.date.parse.latency.percentile", metrics, m -> m.getLatencyPercentile(quantile) / 1e9)
+					.tag("quantile", String.valueOf(quantile))
+					.baseUnit("seconds")
+					.description("Upper bound of getDate latency percentile")
+					.register(registry);
+		}
+		bindShapes();
+	}
+
+	private void bindDelimiter(final MeterRegistry registry, final char delimiter)
+	{
+		FunctionCounter.builder("kolxo3.date.delimiter", metrics, m -> m.getDelimiterCount(delimiter))
+				.tag("delimiter", delimiterName(delimiter))
+				.description("Parsed input dates by delimiter")
+				.register(registry);
+	}
+
+	/**
+	 * @return tag value of delimiter, the char itself for delimiters w/o a name
+	 */
+	static String delimiterName(final char delimiter)
+	{
+		switch (delimiter)
+		{
+			case '.': return "dot";
+			case '-': return "dash";
+			case '/': return "slash";
+			case ' ': return "space";
+			case 0: return "none";
+			default: return String.valueOf(delimiter);
+		}
+	}
+
+	/**
+	 * Register counters of shapes which appeared since the last call, existing ones are kept
+	 */
+	@Scheduled(fixedDelayString = "${kolxo3.date.metrics.shapes-period-ms:60000}",
+			initialDelayString = "${kolxo3.date.metrics.shapes-period-ms:60000}")
+	public void bindShapes()
+	{
+		final MeterRegistry target = registry;
+		if (null == target)
+		{
+			return;
+		}
+		for (final CDateMetrics.Shape shape : metrics.getShapes())
+		{
+			FunctionCounter.builder("kolxo3.date.shape", shape, CDateMetrics.Shape::getCount)
+					.tag("shape", shape.getName())
+					.description("Parsed input dates by shape")
+					.register(target);
+		}
+	}
+}
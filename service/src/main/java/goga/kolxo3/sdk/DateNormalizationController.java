@@ -0,0 +1,166 @@
+package goga.kolxo3.sdk;
+
+import goga.kolxo3.sdk.date.CDateParser;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service mode: {@code POST /dates/normalize?format=MM/dd/yyyy} with newline-delimited dates
+ * (text/plain) or NDJSON strings (application/x-ndjson) streams converted dates back in the same format.
+ * <p>
+ * Requests are handled by blocking I/O on request threads, which are virtual threads when
+ * {@code spring.threads.virtual.enabled} is set and JVM supports them (Java 21+). Number of batches
+ * in flight is bounded: when all permits are taken for longer than acquire timeout, request is rejected
+ * with 503 and Retry-After, so clients back off instead of piling up.
+ * <p>
+ * A bad line (too long, not a JSON string) is 400 while the response is not committed yet. Later the status
+ * is already sent, so the body ends with an error line instead, see {@link DateStreamNormalizer#writeError}.
+ *
+ * @author Igor Zamiatin
+ */
+@RestController
+public class DateNormalizationController
+{
+	private static final String RETRY_AFTER_SECONDS = "1";
+
+	private final DateStreamNormalizer normalizer;
+	private final Semaphore inFlight;
+	private final long acquireTimeoutMillis;
+
+	public DateNormalizationController(final DateStreamNormalizer normalizer,
+			@Value("${kolxo3.date.service.max-in-flight:256}") final int maxInFlight,
+			@Value("${kolxo3.date.service.acquire-timeout-ms:100}") final long acquireTimeoutMillis)
+	{
+		this.normalizer = normalizer;
+		this.inFlight = new Semaphore(maxInFlight);
+		this.acquireTimeoutMillis = acquireTimeoutMillis;
+	}
+
+	@PostMapping(path = "/dates/normalize", consumes = MediaType.TEXT_PLAIN_VALUE)
+	public void normalizeLines(@RequestParam final String format, final HttpServletRequest request,
+			final HttpServletResponse response) throws IOException, InterruptedException
+	{
+		checkFormat(format);
+		acquire();
+		try
+		{
+			response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+			normalizer.normalizeLines(request.getInputStream(), response.getOutputStream(), format);
+		}
+		catch (IllegalArgumentException e)
+		{
+			fail(e, response, false);
+		}
+		finally
+		{
+			inFlight.release();
+		}
+	}
+
+	@PostMapping(path = "/dates/normalize", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	public void normalizeNdjson(@RequestParam final String format, final HttpServletRequest request,
+			final HttpServletResponse response) throws IOException, InterruptedException
+	{
+		checkFormat(format);
+		acquire();
+		try
+		{
+			response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+			response.setCharacterEncoding("UTF-8");
+			normalizer.normalizeNdjson(request.getInputStream(), response.getOutputStream(), format);
+		}
+		catch (IllegalArgumentException e)
+		{
+			fail(e, response, true);
+		}
+		finally
+		{
+			inFlight.release();
+		}
+	}
+
+	/**
+	 * @return number of batches which can be accepted right now
+	 */
+	public int getAvailablePermits()
+	{
+		return inFlight.availablePermits();
+	}
+
+	@ExceptionHandler(IllegalArgumentException.class)
+	public ResponseEntity<String> handleBadRequest(final IllegalArgumentException e)
+	{
+		return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+	}
+
+	@ExceptionHandler(ServiceBusyException.class)
+	public ResponseEntity<String> handleBusy(final ServiceBusyException e)
+	{
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+				.contentType(MediaType.TEXT_PLAIN)
+				.body(e.getReason());
+	}
+
+	/**
+	 * Bad line of a batch: 400 by the exception handler if nothing is sent yet, the error line otherwise
+	 */
+	private void fail(final IllegalArgumentException e, final HttpServletResponse response, final boolean ndjson)
+			throws IOException
+	{
+		if (!response.isCommitted())
+		{
+			response.resetBuffer();
+			throw e;
+		}
+		normalizer.writeError(response.getOutputStream(), e.getMessage(), ndjson);
+	}
+
+	private void acquire() throws InterruptedException
+	{
+		if (!inFlight.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS))
+		{
+			throw new ServiceBusyException();
+		}
+	}
+
+	/**
+	 * Fail before the response is started
+	 */
+	private void checkFormat(final String format)
+	{
+		try
+		{
+			CDateParser.getFormatCache().get(format);
+		}
+		catch (IllegalArgumentException e)
+		{
+			throw new IllegalArgumentException("Invalid format: " + format, e);
+		}
+	}
+
+	/**
+	 * Too many batches in flight
+	 */
+	static final class ServiceBusyException extends ResponseStatusException
+	{
+		ServiceBusyException()
+		{
+			super(HttpStatus.SERVICE_UNAVAILABLE, "Too many batches in flight, retry later");
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package goga.kolxo3.sdk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import goga.kolxo3.sdk.date.CDateMetrics;
+import goga.kolxo3.sdk.date.CDateParser;
+import goga.kolxo3.sdk.date.CDateRejections;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Shared parser of the application. Metrics are enabled by default and published through actuator,
+ * set {@code kolxo3.date.metrics.enabled=false} to parse w/o them.
+ * Rejected input dates are sampled and their top shapes are logged periodically,
+ * set {@code kolxo3.date.rejections.enabled=false} to turn it off.
+ *
+ * @author Igor Zamiatin
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+public class DateParserConfiguration
+{
+	@Bean
+	public CDateParser dateParser(@Value("${kolxo3.date.metrics.enabled:true}") final boolean metricsEnabled,
+			@Value("${kolxo3.date.rejections.enabled:true}") final boolean rejectionsEnabled,
+			@Value("${kolxo3.date.rejections.capacity:1024}") final int capacity,
+			@Value("${kolxo3.date.rejections.samples-per-second:100}") final int samplesPerSecond)
+	{
+		return CDateParser.builder()
+				.metrics(metricsEnabled ? new CDateMetrics() : null)
+				.rejections(rejectionsEnabled ? new CDateRejections(capacity, samplesPerSecond) : null)
+				.build();
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "kolxo3.date.rejections.enabled", havingValue = "true", matchIfMissing = true)
+	public DateRejectionLogger dateRejectionLogger(final CDateParser dateParser,
+			@Value("${kolxo3.date.rejections.top:10}") final int top)
+	{
+		return new DateRejectionLogger(dateParser.getRejections(), top);
+	}
+
+	@Bean
+	public DateStreamNormalizer dateStreamNormalizer(final CDateParser dateParser, final ObjectMapper mapper)
+	{
+		return new DateStreamNormalizer(dateParser, mapper);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "kolxo3.date.metrics.enabled", havingValue = "true", matchIfMissing = true)
+	public DateMetricsBinder dateMetricsBinder(final CDateParser dateParser)
+	{
+		return new DateMetricsBinder(dateParser.getMetrics());
+	}
+}
@@ -0,0 +1,54 @@
+package goga.kolxo3.sdk;
+
+import goga.kolxo3.sdk.date.CDateRejections;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * Log the most frequent shapes of rejected input dates, see {@link CDateRejections}.
+ * Runs on the scheduler thread every {@code kolxo3.date.rejections.period-ms}, parser threads only fill
+ * the sampler and never wait for logging. Nothing is logged for a period w/o rejections.
+ *
+ * @author Igor Zamiatin
+ */
+public class DateRejectionLogger
+{
+	private static final Logger LOG = LogManager.getLogger(DateRejectionLogger.class);
+
+	private final CDateRejections rejections;
+	private final int top;
+	private final long[] reported = new long[CDateRejections.Reason.values().length];
+
+	public DateRejectionLogger(final CDateRejections rejections, final int top)
+	{
+		this.rejections = rejections;
+		this.top = top;
+	}
+
+	@Scheduled(fixedDelayString = "${kolxo3.date.rejections.period-ms:60000}",
+			initialDelayString = "${kolxo3.date.rejections.period-ms:60000}")
+	public void log()
+	{
+		final List<CDateRejections.Shape> shapes = rejections.drain(top);
+		if (shapes.isEmpty() || !LOG.isWarnEnabled())
+		{
+			return;
+		}
+		final StringBuilder counts = new StringBuilder();
+		for (final CDateRejections.Reason reason : CDateRejections.Reason.values())
+		{
+			final long count = rejections.getCount(reason);
+			counts.append(counts.length() > 0 ? ", " : "").append(reason).append('=')
+					.append(count - reported[reason.ordinal()]);
+			reported[reason.ordinal()] = count;
+		}
+		LOG.warn("Rejected input dates since the last report: {}. Top {} sampled shapes:", counts, shapes.size());
+		for (final CDateRejections.Shape shape : shapes)
+		{
+			LOG.warn("  {}", shape);
+		}
+	}
+}
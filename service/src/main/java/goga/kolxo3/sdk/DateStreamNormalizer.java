@@ -0,0 +1,245 @@
+package goga.kolxo3.sdk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import goga.kolxo3.sdk.date.CDateParser;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Normalize stream of input dates, one date per line, into stream of converted dates in the same order.
+ * Lines are read and written in a single pass, so a batch of any size takes constant memory.
+ * Dates which cannot be converted, including invalid ones like "13/13/2020", are written AS IS.
+ * A bad line (too long, not JSON) is an {@link IllegalArgumentException}: lines before it are written
+ * to the output stream, but it is not flushed, so the caller may still discard them, see
+ * {@link #writeError(OutputStream, String, boolean)}.
+ * Instances are immutable and thread-safe.
+ *
+ * @author Igor Zamiatin
+ */
+public class DateStreamNormalizer
+{
+	/** the longest accepted line, w/o line break */
+	public static final int MAX_LINE_LENGTH = 1 << 16;
+	/** the last line of plain text output after a bad line */
+	public static final String ERROR_PREFIX = "#error: ";
+
+	private static final int BUFFER_SIZE = 1 << 13;
+	private static final int MAX_BUFFER_SIZE = MAX_LINE_LENGTH + 2; // with CR and LF
+	private static final int MAX_OUTPUT_LENGTH = 256;
+	private static final byte LF = '\n';
+	private static final byte CR = '\r';
+
+	private final CDateParser parser;
+	private final ObjectMapper mapper;
+
+	public DateStreamNormalizer(final CDateParser parser, final ObjectMapper mapper)
+	{
+		this.parser = parser;
+		this.mapper = mapper;
+	}
+
+	/**
+	 * Plain text: every line is a date in ASCII/UTF-8, it's converted w/o decoding
+	 * @return number of lines
+	 */
+	public long normalizeLines(final InputStream in, final OutputStream output, final String format) throws IOException
+	{
+		final OutputStream out = new BufferedOutputStream(new Unflushed(output), BUFFER_SIZE);
+		try
+		{
+			final long lines = convertLines(in, out, format);
+			out.flush();
+			output.flush();
+			return lines;
+		}
+		catch (IllegalArgumentException e)
+		{
+			out.flush(); // converted lines, w/o flushing the output
+			throw e;
+		}
+	}
+
+	private long convertLines(final InputStream in, final OutputStream out, final String format)
+			throws IOException
+	{
+		byte[] buffer = new byte[BUFFER_SIZE];
+		final byte[] converted = new byte[MAX_OUTPUT_LENGTH];
+		long lines = 0;
+		int length = 0; // bytes in buffer
+		int lineStart = 0;
+		int scanned = 0;
+		while (true)
+		{
+			final int read = in.read(buffer, length, buffer.length - length);
+			final boolean last = read < 0;
+			if (!last)
+			{
+				length += read;
+			}
+			for (int i = scanned; i < length; i++)
+			{
+				if (buffer[i] == LF)
+				{
+					writeLine(buffer, lineStart, i, lines + 1, format, converted, out);
+					lines++;
+					lineStart = i + 1;
+				}
+			}
+			scanned = length;
+			if (last)
+			{
+				if (lineStart < length)
+				{ // the last line w/o line break
+					writeLine(buffer, lineStart, length, lines + 1, format, converted, out);
+					lines++;
+				}
+				return lines;
+			}
+			if (lineStart > 0)
+			{ // keep incomplete line at the beginning
+				System.arraycopy(buffer, lineStart, buffer, 0, length - lineStart);
+				length -= lineStart;
+				scanned -= lineStart;
+				lineStart = 0;
+			} else if (length == buffer.length) {
+				if (buffer.length == MAX_BUFFER_SIZE)
+				{
+					throw new IllegalArgumentException("Line " + (lines + 1) + " is longer than " + MAX_LINE_LENGTH + " bytes");
+				}
+				buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, MAX_BUFFER_SIZE));
+			}
+		}
+	}
+
+	private void writeLine(final byte[] buffer, final int start, final int end, final long line, final String format,
+			final byte[] converted, final OutputStream out) throws IOException
+	{
+		final int stop = end > start && buffer[end - 1] == CR ? end - 1 : end;
+		if (stop - start > MAX_LINE_LENGTH)
+		{
+			throw new IllegalArgumentException("Line " + line + " is longer than " + MAX_LINE_LENGTH + " bytes");
+		}
+		final int length = parser.getDate(buffer, start, stop - start, format, converted, 0);
+		if (length >= 0)
+		{
+			out.write(converted, 0, length);
+		} else {
+			out.write(buffer, start, stop - start);
+		}
+		out.write(LF);
+	}
+
+	/**
+	 * NDJSON: every line is a JSON string with input date, converted date is written as JSON string.
+	 * Blank lines are skipped.
+	 * @return number of dates
+	 */
+	public long normalizeNdjson(final InputStream in, final OutputStream out, final String format) throws IOException
+	{
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+		final BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new Unflushed(out), StandardCharsets.UTF_8),
+				BUFFER_SIZE);
+		try
+		{
+			final long lines = convertNdjson(reader, writer, format);
+			writer.flush();
+			out.flush();
+			return lines;
+		}
+		catch (IllegalArgumentException e)
+		{
+			writer.flush(); // converted lines, w/o flushing the output
+			throw e;
+		}
+	}
+
+	private long convertNdjson(final BufferedReader reader, final BufferedWriter writer, final String format)
+			throws IOException
+	{
+		long lines = 0;
+		String line;
+		while (null != (line = reader.readLine()))
+		{
+			if (line.isBlank())
+			{
+				continue;
+			}
+			if (line.length() > MAX_LINE_LENGTH)
+			{
+				throw new IllegalArgumentException("Line " + (lines + 1) + " is longer than " + MAX_LINE_LENGTH + " chars");
+			}
+			final String input;
+			try
+			{
+				input = mapper.readValue(line, String.class);
+			}
+			catch (JsonProcessingException e)
+			{
+				throw new IllegalArgumentException("Line " + (lines + 1) + " is not a JSON string", e);
+			}
+			writer.write(mapper.writeValueAsString(convert(input, format)));
+			writer.write(LF);
+			lines++;
+		}
+		return lines;
+	}
+
+	/**
+	 * End output which is already sent in part with an error line: {@value #ERROR_PREFIX} and message for plain text,
+	 * JSON object {@code {"error": message}} for NDJSON, where dates are JSON strings
+	 */
+	public void writeError(final OutputStream out, final String message, final boolean ndjson) throws IOException
+	{
+		final String line = ndjson ? mapper.writeValueAsString(Map.of("error", message)) : ERROR_PREFIX + message;
+		out.write((line + '\n').getBytes(StandardCharsets.UTF_8));
+		out.flush();
+	}
+
+	/**
+	 * Output stream which is flushed only by the owner: buffers above it are emptied into it,
+	 * but a servlet response is not committed by that
+	 */
+	private static final class Unflushed extends FilterOutputStream
+	{
+		Unflushed(final OutputStream out)
+		{
+			super(out);
+		}
+
+		@Override
+		public void write(final byte[] bytes, final int offset, final int length) throws IOException
+		{
+			out.write(bytes, offset, length);
+		}
+
+		@Override
+		public void flush()
+		{
+		}
+	}
+
+	private String convert(final String input, final String format)
+	{
+		try
+		{
+			return parser.getDate(input, format);
+		}
+		catch (DateTimeException e)
+		{
+			return input; // invalid date like "13/13/2020"
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package goga.kolxo3.sdk;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Local load generator: several clients stream batches of dates to the service for a while,
+ * the test prints sustained throughput and p99 latency of a batch. It is a benchmark, not a check,
+ * so it runs only with {@code -Dbenchmark=true}; rejection with 503 is tested by {@link DateStreamNormalizerTest}.
+ * Run: {@code mvn test -Dtest=DateNormalizationLoadTest -Dbenchmark=true -Dload.seconds=60 -Dload.clients=64}
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DateNormalizationLoadTest {
+
+	private static final String FORMAT = "MM/dd/yyyy";
+	private static final int BATCH_SIZE = 10_000;
+
+	@LocalServerPort
+	private int port;
+
+	@Test
+	void sustainedThroughput() throws Exception {
+		final int seconds = Integer.getInteger("load.seconds", 2);
+		final int clients = Integer.getInteger("load.clients", 8);
+		final byte[] batch = batch();
+		final String expected = expected();
+		final URI uri = URI.create("http://localhost:" + port + "/dates/normalize?format="
+				+ URLEncoder.encode(FORMAT, StandardCharsets.UTF_8));
+		final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		final long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+		final ExecutorService executor = Executors.newFixedThreadPool(clients);
+		final List<Future<List<Long>>> futures = new ArrayList<>();
+		final long started = System.nanoTime();
+		for (int c = 0; c < clients; c++) {
+			futures.add(executor.submit(() -> {
+				final List<Long> latencies = new ArrayList<>();
+				while (System.nanoTime() < deadline) {
+					final long sent = System.nanoTime();
+					final HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri)
+							.header("Content-Type", "text/plain")
+							.POST(HttpRequest.BodyPublishers.ofByteArray(batch))
+							.build(), HttpResponse.BodyHandlers.ofString());
+					if (response.statusCode() == 503) {
+						Thread.sleep(10); // back off
+						continue;
+					}
+					assertThat(response.statusCode()).isEqualTo(200);
+					assertThat(response.body()).isEqualTo(expected);
+					latencies.add(System.nanoTime() - sent);
+				}
+				return latencies;
+			}));
+		}
+		final List<Long> latencies = new ArrayList<>();
+		for (final Future<List<Long>> future : futures) {
+			latencies.addAll(future.get());
+		}
+		final long elapsed = System.nanoTime() - started;
+		executor.shutdown();
+
+		final long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+		Arrays.sort(sorted);
+		assertThat(sorted).isNotEmpty();
+		final double datesPerSecond = (double) sorted.length * BATCH_SIZE * 1e9 / elapsed;
+		final long p50 = sorted[(int) Math.ceil(sorted.length * 0.5) - 1];
+		final long p99 = sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+		System.out.printf("%d clients, %d batches of %d dates in %.1f s: %.0f dates/s, batch p50 %.1f ms, p99 %.1f ms%n",
+				clients, sorted.length, BATCH_SIZE, elapsed / 1e9, datesPerSecond, p50 / 1e6, p99 / 1e6);
+	}
+
+	private static byte[] batch() {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			sb.append(1900 + i % 120).append('-').append(1 + i % 12).append('-').append(1 + i % 28).append('\n');
+		}
+		return sb.toString().getBytes(StandardCharsets.US_ASCII);
+	}
+
+	private static String expected() {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			sb.append(String.format("%02d/%02d/%d\n", 1 + i % 12, 1 + i % 28, 1900 + i % 120));
+		}
+		return sb.toString();
+	}
+
+}
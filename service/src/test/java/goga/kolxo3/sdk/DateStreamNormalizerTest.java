@@ -0,0 +1,166 @@
+package goga.kolxo3.sdk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import goga.kolxo3.sdk.date.CDateParser;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.DelegatingServletInputStream;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class DateStreamNormalizerTest {
+
+	private static final String FORMAT = "MM/dd/yyyy";
+
+	private final DateStreamNormalizer normalizer = new DateStreamNormalizer(new CDateParser(), new ObjectMapper());
+
+	@Test
+	void normalizeLines() throws IOException {
+		final String input = "1974-04-06\r\nblabla 1987\n13/13/2020\n\nJan/2/2020\n1974-06";
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final long lines = normalizer.normalizeLines(stream(input), out, FORMAT);
+		assertThat(lines).isEqualTo(6);
+		assertThat(out.toString(StandardCharsets.UTF_8))
+				.isEqualTo("04/06/1974\nblabla 1987\n13/13/2020\n\n01/02/2020\n06/1974\n");
+	}
+
+	@Test
+	void normalizeLongStream() throws IOException {
+		final StringBuilder input = new StringBuilder();
+		final StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 100_000; i++) {
+			input.append(1 + i % 12).append('/').append(1 + i % 28).append('/').append(1900 + i % 200).append('\n');
+			expected.append(String.format("%02d/%02d/%d\n", 1 + i % 28, 1 + i % 12, 1900 + i % 200));
+		}
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertThat(normalizer.normalizeLines(stream(input.toString()), out, "dd/MM/yyyy")).isEqualTo(100_000);
+		assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(expected.toString());
+	}
+
+	@Test
+	void normalizeNdjson() throws IOException {
+		final String input = "\"1974-04-06\"\n\n\"blabla 1987\"\n\"13/13/2020\"\n\"5 April 1974\"\n";
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertThat(normalizer.normalizeNdjson(stream(input), out, FORMAT)).isEqualTo(4);
+		assertThat(out.toString(StandardCharsets.UTF_8))
+				.isEqualTo("\"04/06/1974\"\n\"blabla 1987\"\n\"13/13/2020\"\n\"04/05/1974\"\n");
+		assertThatThrownBy(() -> normalizer.normalizeNdjson(stream("1974-04-06\n"), new ByteArrayOutputStream(), FORMAT))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rejectLongLine() throws IOException {
+		final String input = "1".repeat(DateStreamNormalizer.MAX_LINE_LENGTH + 1);
+		assertThatThrownBy(() -> normalizer.normalizeLines(stream(input), new ByteArrayOutputStream(), FORMAT))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> normalizer.normalizeLines(stream(input + "\r\n"), new ByteArrayOutputStream(), FORMAT))
+				.isInstanceOf(IllegalArgumentException.class);
+		// the longest line fits into the grown buffer
+		final String longest = "1".repeat(DateStreamNormalizer.MAX_LINE_LENGTH);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertThat(normalizer.normalizeLines(stream("1974-04-06\n" + longest + "\r\n1974-04-07"), out, FORMAT)).isEqualTo(3);
+		assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("04/06/1974\n" + longest + "\n04/07/1974\n");
+	}
+
+	@Test
+	void reportLongLineOfStartedResponse() throws Exception {
+		final DateNormalizationController controller = new DateNormalizationController(normalizer, 1, 0);
+		final String longLine = "1".repeat(DateStreamNormalizer.MAX_LINE_LENGTH + 1) + "\n";
+
+		// nothing is sent yet: 400 by the exception handler, w/o converted lines
+		final MockHttpServletResponse rejected = new MockHttpServletResponse();
+		assertThatThrownBy(() -> controller.normalizeLines(FORMAT, request("1974-04-06\n" + longLine), rejected))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThat(rejected.getContentAsString()).isEmpty();
+		assertThat(controller.getAvailablePermits()).isEqualTo(1);
+
+		// the response is committed by lines before the bad one: it ends with the error line
+		final String dates = "1974-04-06\n".repeat(1000);
+		final MockHttpServletResponse started = new MockHttpServletResponse();
+		controller.normalizeLines(FORMAT, request(dates + longLine), started);
+		assertThat(started.isCommitted()).isTrue();
+		assertThat(started.getContentAsString())
+				.isEqualTo("04/06/1974\n".repeat(1000) + DateStreamNormalizer.ERROR_PREFIX + "Line 1001 is longer than "
+						+ DateStreamNormalizer.MAX_LINE_LENGTH + " bytes\n");
+
+		final MockHttpServletResponse ndjson = new MockHttpServletResponse();
+		controller.normalizeNdjson(FORMAT, request("\"1974-04-06\"\n".repeat(1000) + "1974-04-06\n"), ndjson);
+		assertThat(ndjson.getContentAsString()).startsWith("\"04/06/1974\"\n")
+				.endsWith("\"04/06/1974\"\n{\"error\":\"Line 1001 is not a JSON string\"}\n");
+	}
+
+	@Test
+	void rejectBatchesOverLimit() throws Exception {
+		final DateNormalizationController controller = new DateNormalizationController(normalizer, 1, 0);
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final InputStream blocking = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					throw new IOException(e);
+				}
+				return -1;
+			}
+		};
+		final MockHttpServletRequest slow = new MockHttpServletRequest() {
+			@Override
+			public DelegatingServletInputStream getInputStream() {
+				return new DelegatingServletInputStream(blocking);
+			}
+		};
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final Future<?> first = executor.submit(() -> {
+				controller.normalizeLines(FORMAT, slow, new MockHttpServletResponse());
+				return null;
+			});
+			started.await();
+			assertThat(controller.getAvailablePermits()).isZero();
+			final DateNormalizationController.ServiceBusyException busy = catchThrowableOfType(
+					() -> controller.normalizeLines(FORMAT, request("1974-04-06"), new MockHttpServletResponse()),
+					DateNormalizationController.ServiceBusyException.class);
+			final ResponseEntity<String> rejected = controller.handleBusy(busy);
+			assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+			assertThat(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNotEmpty();
+			release.countDown();
+			first.get();
+			final MockHttpServletResponse response = new MockHttpServletResponse();
+			controller.normalizeLines(FORMAT, request("1974-04-06"), response);
+			assertThat(response.getContentAsString()).isEqualTo("04/06/1974\n");
+			assertThat(controller.getAvailablePermits()).isEqualTo(1);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static MockHttpServletRequest request(final String content) {
+		final MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setContent(content.getBytes(StandardCharsets.UTF_8));
+		return request;
+	}
+
+	private static InputStream stream(final String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
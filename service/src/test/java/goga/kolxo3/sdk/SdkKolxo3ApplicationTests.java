@@ -0,0 +1,62 @@
+package goga.kolxo3.sdk;
+
+import goga.kolxo3.sdk.date.CDateParser;
+import goga.kolxo3.sdk.date.CDateRejections;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SdkKolxo3ApplicationTests {
+
+	@Autowired
+	private CDateParser dateParser;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private DateRejectionLogger rejectionLogger;
+
+	@Autowired
+	private DateMetricsBinder metricsBinder;
+
+	@Test
+	void contextLoads() {
+	}
+
+	@Test
+	void dateMetricsArePublished() {
+		final double before = registry.get("kolxo3.date.parse").tag("outcome", "full").functionCounter().count();
+		dateParser.getDate("1974-04-06", "MM/dd/yyyy");
+		assertThat(registry.get("kolxo3.date.parse").tag("outcome", "full").functionCounter().count())
+				.isEqualTo(before + 1);
+		assertThat(registry.get("kolxo3.date.parse.latency").functionTimer().count()).isPositive();
+		assertThat(registry.get("kolxo3.date.delimiter").tag("delimiter", "dash").functionCounter().count()).isPositive();
+		assertThat(registry.get("kolxo3.date.delimiter").functionCounters()).hasSize(CDateParser.DELIMITERS.length + 1);
+	}
+
+	@Test
+	void dateShapesArePublished() {
+		dateParser.getDate("Apr 1974", "MM/dd/yyyy");
+		metricsBinder.bindShapes();
+		final double before = registry.get("kolxo3.date.shape").tag("shape", "mmm yyyy").functionCounter().count();
+		dateParser.getDate("May 1975", "MM/dd/yyyy");
+		assertThat(registry.get("kolxo3.date.shape").tag("shape", "mmm yyyy").functionCounter().count())
+				.isEqualTo(before + 1);
+	}
+
+	@Test
+	void rejectedDatesAreSampledAndLogged() {
+		final CDateRejections rejections = dateParser.getRejections();
+		final long before = rejections.getCount(CDateRejections.Reason.LAYOUT);
+		dateParser.getDate("blabla 1987", "MM/dd/yyyy");
+		assertThat(rejections.getCount(CDateRejections.Reason.LAYOUT)).isEqualTo(before + 1);
+		rejectionLogger.log();
+		assertThat(rejections.drain(10)).isEmpty();
+	}
+
+}
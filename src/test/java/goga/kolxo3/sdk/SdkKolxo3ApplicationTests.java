@@ -1,13 +0,0 @@
-package goga.kolxo3.sdk;
-
-import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
-
-@SpringBootTest
-class SdkKolxo3ApplicationTests {
-
-	@Test
-	void contextLoads() {
-	}
-
-}